@@ -2,6 +2,7 @@ package com.example.myapplication;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.ProgressBar;
 import android.widget.TextView;
@@ -9,16 +10,23 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.adapter.ImageAdapter;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.MediaSyncManager;
+import com.example.myapplication.utils.PhotoRepository;
+import com.example.myapplication.utils.TimelineIndex;
+import com.example.myapplication.view.TimelineHeaderDecoration;
+import com.example.myapplication.view.TimelineScrubber;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.TimeZone;
 
 public class GalleryActivity extends AppCompatActivity implements ImageAdapter.OnImageClickListener {
     
@@ -27,6 +35,14 @@ public class GalleryActivity extends AppCompatActivity implements ImageAdapter.O
     private TextView textEmpty;
     private ImageAdapter imageAdapter;
     private List<ImageData> imageList;
+    private int syncedVersion = -1;
+    // imageList 의 월별 구간 (변경분만 반영)
+    private final TimelineIndex timeline = new TimelineIndex(TimeZone.getDefault());
+    private TimelineHeaderDecoration timelineHeader;
+    private TimelineScrubber timelineScrubber;
+    // 검색 중이면 검색 결과 (아니면 null)
+    private String searchQuery = "";
+    private List<ImageData> searchResults;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -41,6 +57,7 @@ public class GalleryActivity extends AppCompatActivity implements ImageAdapter.O
     
     private void initViews() {
         recyclerView = findViewById(R.id.recycler_view_images);
+        timelineScrubber = findViewById(R.id.timeline_scrubber);
         progressBar = findViewById(R.id.progress_bar);
         textEmpty = findViewById(R.id.text_empty);
     }
@@ -57,36 +74,107 @@ public class GalleryActivity extends AppCompatActivity implements ImageAdapter.O
     
     private void setupRecyclerView() {
         imageList = new ArrayList<>();
-        imageAdapter = new ImageAdapter(this, imageList, this);
+        imageAdapter = new ImageAdapter(this, this);
         
         GridLayoutManager layoutManager = new GridLayoutManager(this, 3);
         recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(imageAdapter);
+        
+        // 월 제목과 빠른 스크롤 막대
+        timelineHeader = new TimelineHeaderDecoration(this);
+        recyclerView.addItemDecoration(timelineHeader);
+        timelineScrubber.attach(recyclerView);
     }
     
     private void loadImages() {
-        showLoading(true);
+        // 처음 로드할 때만 진행 표시 (이후에는 변경분만 반영)
+        if (syncedVersion < 0) {
+            showLoading(true);
+        }
         
-        new Thread(() -> {
-            try {
-                List<ImageData> images = ImageUtils.getAllImages(this);
+        PhotoRepository.getInstance(this).sync(syncedVersion, this,
+            changes -> {
+                changes.applyTo(imageList, false);
+                updateTimeline(changes);
+                syncedVersion = changes.getVersion();
                 
-                runOnUiThread(() -> {
-                    imageList.clear();
-                    imageList.addAll(images);
-                    imageAdapter.notifyDataSetChanged();
-                    
-                    showLoading(false);
-                    showEmptyState(images.isEmpty());
-                });
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    Toast.makeText(this, getString(R.string.error_loading_image), 
-                        Toast.LENGTH_SHORT).show();
-                });
+                showLoading(false);
+                if (searchResults != null) {
+                    // 바뀐 이미지가 검색 결과에 들어오거나 빠질 수 있으므로 다시 검색
+                    search();
+                } else {
+                    showList();
+                }
+            },
+            e -> {
+                showLoading(false);
+                Toast.makeText(this, getString(R.string.error_loading_image), 
+                    Toast.LENGTH_SHORT).show();
+            });
+    }
+    
+    /**
+     * 목록 변경분을 타임라인 색인에 반영 (전체 목록을 다시 정렬하지 않음)
+     */
+    private void updateTimeline(MediaSyncManager.Changes changes) {
+        if (changes.isReset()) {
+            timeline.clear();
+            for (ImageData imageData : changes.getSnapshot()) {
+                timeline.put(imageData.getMediaId(), imageData.getDateTaken());
             }
-        }).start();
+            return;
+        }
+        for (Long mediaId : changes.getDeletedIds()) {
+            timeline.remove(mediaId);
+        }
+        for (ImageData imageData : changes.getInserted()) {
+            timeline.put(imageData.getMediaId(), imageData.getDateTaken());
+        }
+        for (ImageData imageData : changes.getUpdated()) {
+            timeline.put(imageData.getMediaId(), imageData.getDateTaken());
+        }
+    }
+    
+    /**
+     * 검색어 변경 (빈 검색어면 전체 목록으로)
+     */
+    private void setSearchQuery(String query) {
+        searchQuery = query.trim();
+        if (searchQuery.isEmpty()) {
+            searchResults = null;
+            showList();
+        } else {
+            search();
+        }
+    }
+    
+    private void search() {
+        String query = searchQuery;
+        PhotoRepository.getInstance(this).search(query, this,
+            results -> {
+                // 그 사이 검색어가 바뀌었으면 무시
+                if (query.equals(searchQuery)) {
+                    searchResults = results;
+                    showList();
+                }
+            },
+            e -> Toast.makeText(this, getString(R.string.error_loading_image), 
+                Toast.LENGTH_SHORT).show());
+    }
+    
+    /**
+     * 전체 목록이나 검색 결과를 표시 (어댑터는 복사본과 비교해 바뀐 칸만 다시 그림)
+     */
+    private void showList() {
+        List<ImageData> shown = searchResults != null ? searchResults : imageList;
+        imageAdapter.submitList(new ArrayList<>(shown));
+        // 검색 결과의 위치는 타임라인 색인과 맞지 않으므로 숨김
+        TimelineIndex shownTimeline = searchResults != null ? null : timeline;
+        timelineHeader.setTimeline(shownTimeline);
+        timelineScrubber.setTimeline(shownTimeline);
+        recyclerView.invalidate();
+        textEmpty.setText(searchResults != null ? R.string.no_search_results : R.string.no_images);
+        showEmptyState(shown.isEmpty());
     }
     
     private void showLoading(boolean show) {
@@ -102,9 +190,35 @@ public class GalleryActivity extends AppCompatActivity implements ImageAdapter.O
     public void onImageClick(ImageData imageData) {
         Intent intent = new Intent(this, ImageDetailActivity.class);
         intent.putExtra("image_path", imageData.getImagePath());
+        intent.putExtra("date_modified", imageData.getDateModified());
+        // 상세 화면에서 같은 순서의 목록을 넘겨 볼 때 시작 위치
+        intent.putExtra("position", Collections.binarySearch(imageList, imageData, ImageData.NEWEST_FIRST));
         startActivity(intent);
     }
     
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.gallery_menu, menu);
+        
+        SearchView searchView = (SearchView) menu.findItem(R.id.action_search).getActionView();
+        searchView.setQueryHint(getString(R.string.search_hint));
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                searchView.clearFocus();
+                return true;
+            }
+            
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                // 입력할 때마다 검색 (색인 조회라 짧음)
+                setSearchQuery(newText);
+                return true;
+            }
+        });
+        return true;
+    }
+    
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
@@ -117,7 +231,7 @@ public class GalleryActivity extends AppCompatActivity implements ImageAdapter.O
     @Override
     protected void onResume() {
         super.onResume();
-        // 갤러리로 돌아올 때 이미지 목록 새로고침
+        // 갤러리로 돌아올 때 변경된 이미지만 반영
         loadImages();
     }
 }
@@ -1,7 +1,6 @@
 package com.example.myapplication;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
@@ -15,21 +14,25 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.viewpager2.widget.ViewPager2;
 
+import com.example.myapplication.adapter.DetailPagerAdapter;
 import com.example.myapplication.model.GPSData;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.FileUtils;
-import com.example.myapplication.utils.GPSUtils;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.model.ImageMetadata;
+import com.example.myapplication.utils.ImagePrefetcher;
+import com.example.myapplication.utils.PhotoRepository;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 public class ImageDetailActivity extends AppCompatActivity {
     
-    private ImageView imageViewDetail;
+    private ViewPager2 viewPagerDetail;
     private ImageView iconGPS;
     private TextView textFileSize;
     private TextView textResolution;
@@ -39,22 +42,51 @@ public class ImageDetailActivity extends AppCompatActivity {
     private EditText editTextDescription;
     private Button buttonSaveDescription;
     
+    // 넘겨 볼 목록과 지금 보이는 이미지
+    private List<ImageData> imageList;
     private ImageData imageData;
     private String imagePath;
+    // 지금 보이는 페이지에서 읽은 메타데이터 (EXIF 촬영 시각 표시용, 읽기 전이면 null)
+    private ImageMetadata pageMetadata;
+    private DetailPagerAdapter pagerAdapter;
+    // 이웃 이미지 미리 불러오기 (화면을 닫을 때 취소하고 비트맵 반납)
+    private ImagePrefetcher prefetcher;
+    private PhotoRepository photoRepository;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_image_detail);
         
+        photoRepository = PhotoRepository.getInstance(this);
+        
         initViews();
         setupToolbar();
         loadImageData();
         setupClickListeners();
     }
     
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // 백그라운드에서 프로세스가 정리되기 전에 저장한 설명을 디스크에 씀
+        photoRepository.flushDescriptions();
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // 보여 주던 비트맵과 미리 불러온 비트맵을 반납해 다음 상세 화면의 디코딩에 재사용
+        if (pagerAdapter != null) {
+            pagerAdapter.release();
+        }
+        if (prefetcher != null) {
+            prefetcher.release();
+        }
+    }
+    
     private void initViews() {
-        imageViewDetail = findViewById(R.id.image_view_detail);
+        viewPagerDetail = findViewById(R.id.view_pager_detail);
         iconGPS = findViewById(R.id.icon_gps);
         textFileSize = findViewById(R.id.text_file_size);
         textResolution = findViewById(R.id.text_resolution);
@@ -77,51 +109,85 @@ public class ImageDetailActivity extends AppCompatActivity {
     
     private void loadImageData() {
         Intent intent = getIntent();
-        imagePath = intent.getStringExtra("image_path");
+        String startPath = intent.getStringExtra("image_path");
         
-        if (imagePath == null || imagePath.isEmpty()) {
+        if (startPath == null || startPath.isEmpty()) {
             Toast.makeText(this, getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
         
-        // 이미지 데이터 생성
-        imageData = new ImageData(imagePath);
+        // 갤러리와 같은 순서의 목록에서 좌우로 넘겨 봄 (목록에 없으면 이 이미지 하나만)
+        imageList = photoRepository.getCachedSnapshot();
+        int position = findPosition(imageList, startPath, intent.getIntExtra("position", 0));
+        if (position < 0) {
+            // 수정 시각은 그리드 썸네일을 캐시에서 찾는 데 사용
+            ImageData single = new ImageData(startPath);
+            single.setDateModified(intent.getLongExtra("date_modified", 0));
+            imageList = Collections.singletonList(single);
+            position = 0;
+        }
         
-        // 이미지 로드
-        loadImage();
+        int screenWidth = getResources().getDisplayMetrics().widthPixels;
+        int screenHeight = getResources().getDisplayMetrics().heightPixels;
+        prefetcher = new ImagePrefetcher(screenWidth, screenHeight);
+        pagerAdapter = new DetailPagerAdapter(this, imageList, prefetcher, (pageImage, metadata) -> {
+            // 지금 보이는 페이지의 메타데이터가 채워지면 정보 갱신
+            if (pageImage == imageData) {
+                pageMetadata = metadata;
+                displayImageInfo();
+                displayGPSInfo();
+            }
+        });
+        viewPagerDetail.setAdapter(pagerAdapter);
+        viewPagerDetail.setCurrentItem(position, false);
+        viewPagerDetail.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                showPage(position);
+            }
+        });
+        showPage(position);
+    }
+    
+    /**
+     * 목록에서 이미지 위치 찾기 (전달받은 위치를 먼저 확인, 없으면 -1)
+     */
+    private static int findPosition(List<ImageData> images, String path, int hint) {
+        if (hint >= 0 && hint < images.size() && images.get(hint).getImagePath().equals(path)) {
+            return hint;
+        }
+        for (int i = 0; i < images.size(); i++) {
+            if (images.get(i).getImagePath().equals(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void showPage(int position) {
+        ImageData pageImage = imageList.get(position);
+        if (pageImage == imageData) {
+            return;
+        }
+        imageData = pageImage;
+        imagePath = pageImage.getImagePath();
+        pageMetadata = null;
         
-        // 이미지 정보 표시
+        // 이미지 정보 표시 (해상도/촬영 날짜/GPS 는 메타데이터를 읽은 뒤 갱신)
         displayImageInfo();
-        
-        // GPS 정보 표시
         displayGPSInfo();
         
-        // 설명 로드
-        loadDescription();
-    }
-    
-    private void loadImage() {
-        new Thread(() -> {
-            try {
-                // 화면 크기에 맞는 이미지 로드
-                int screenWidth = getResources().getDisplayMetrics().widthPixels;
-                int screenHeight = getResources().getDisplayMetrics().heightPixels;
-                
-                Bitmap bitmap = ImageUtils.loadImageForDisplay(imagePath, screenWidth, screenHeight);
-                
-                if (bitmap != null) {
-                    runOnUiThread(() -> {
-                        imageViewDetail.setImageBitmap(bitmap);
-                    });
-                }
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    Toast.makeText(this, getString(R.string.error_loading_image), 
-                        Toast.LENGTH_SHORT).show();
-                });
-            }
-        }).start();
+        // 설명 로드 (미리 읽어 둔 설명이 있으면 바로 표시)
+        if (imageData.isResolved(ImageData.FIELD_DESCRIPTION)) {
+            editTextDescription.setText(imageData.getDescription());
+        } else {
+            editTextDescription.setText("");
+            loadDescription();
+        }
+        
+        // 다음으로 넘길 이웃 이미지를 미리 불러옴
+        prefetcher.update(imageList, position);
     }
     
     private void displayImageInfo() {
@@ -133,10 +199,12 @@ public class ImageDetailActivity extends AppCompatActivity {
         textFileSize.setText(imageData.getFormattedFileSize());
         textResolution.setText(imageData.getResolution());
         
-        // 촬영 날짜 포맷팅
-        if (imageData.getDateTaken() > 0) {
+        // 촬영 날짜 포맷팅 (EXIF 촬영 시각이 있으면 우선, 없으면 MediaStore 값)
+        long dateTaken = pageMetadata != null && pageMetadata.getDateTaken() > 0
+            ? pageMetadata.getDateTaken() : imageData.getDateTaken();
+        if (dateTaken > 0) {
             SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-            String dateString = sdf.format(new Date(imageData.getDateTaken()));
+            String dateString = sdf.format(new Date(dateTaken));
             textDateTaken.setText(dateString);
         } else {
             textDateTaken.setText("알 수 없음");
@@ -144,9 +212,7 @@ public class ImageDetailActivity extends AppCompatActivity {
     }
     
     private void displayGPSInfo() {
-        // GPS 정보 추출
-        GPSData gpsData = GPSUtils.extractGPSFromExif(imagePath);
-        imageData.setGpsData(gpsData);
+        GPSData gpsData = imageData.getGpsData();
         
         if (gpsData.hasGPS() && gpsData.isValid()) {
             iconGPS.setVisibility(android.view.View.VISIBLE);
@@ -159,17 +225,14 @@ public class ImageDetailActivity extends AppCompatActivity {
     }
     
     private void loadDescription() {
-        new Thread(() -> {
-            try {
-                String description = FileUtils.readTextFile(imageData.getDescriptionFilePath());
-                
-                runOnUiThread(() -> {
-                    editTextDescription.setText(description);
-                });
-            } catch (Exception e) {
-                // 설명 파일이 없거나 읽기 실패한 경우 무시
+        ImageData target = imageData;
+        // 설명이 없으면 빈 문자열
+        photoRepository.loadDescription(target, this, description -> {
+            // 읽는 동안 다른 페이지로 넘겼으면 무시
+            if (target == imageData) {
+                editTextDescription.setText(description);
             }
-        }).start();
+        });
     }
     
     private void setupClickListeners() {
@@ -190,26 +253,18 @@ public class ImageDetailActivity extends AppCompatActivity {
     private void saveDescription() {
         String description = editTextDescription.getText().toString().trim();
         
-        new Thread(() -> {
-            try {
-                boolean success = FileUtils.saveTextFile(imageData.getDescriptionFilePath(), description);
-                
-                runOnUiThread(() -> {
-                    if (success) {
-                        Toast.makeText(this, getString(R.string.description_saved), 
-                            Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(this, getString(R.string.description_save_failed), 
-                            Toast.LENGTH_SHORT).show();
-                    }
-                });
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    Toast.makeText(this, getString(R.string.error_saving_file), 
+        photoRepository.saveDescription(imageData, description, this,
+            success -> {
+                if (success) {
+                    Toast.makeText(this, getString(R.string.description_saved), 
                         Toast.LENGTH_SHORT).show();
-                });
-            }
-        }).start();
+                } else {
+                    Toast.makeText(this, getString(R.string.description_save_failed), 
+                        Toast.LENGTH_SHORT).show();
+                }
+            },
+            e -> Toast.makeText(this, getString(R.string.error_saving_file), 
+                Toast.LENGTH_SHORT).show());
     }
     
     @Override
@@ -1,6 +1,7 @@
 package com.example.myapplication;
 
 import android.Manifest;
+import android.content.ComponentCallbacks2;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.widget.Toast;
@@ -14,6 +15,7 @@ import androidx.fragment.app.FragmentActivity;
 import androidx.viewpager2.adapter.FragmentStateAdapter;
 import androidx.viewpager2.widget.ViewPager2;
 
+import com.example.myapplication.utils.ThumbnailCache;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
@@ -124,6 +126,15 @@ public class MainActivity extends AppCompatActivity {
         }
     }
     
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // 백그라운드로 가서 메모리가 부족해지면 썸네일 메모리 캐시를 비운다 (디스크 캐시는 유지)
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            ThumbnailCache.getInstance(this).clearMemory();
+        }
+    }
+    
     /**
      * ViewPager2 어댑터
      */
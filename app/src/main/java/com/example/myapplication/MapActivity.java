@@ -2,6 +2,9 @@ package com.example.myapplication;
 
 import android.content.Intent;
 import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
@@ -12,26 +15,44 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.adapter.MapImageAdapter;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.GeoIndex;
+import com.example.myapplication.utils.ImageEnricher;
+import com.example.myapplication.utils.MarkerClusterer;
+import com.example.myapplication.utils.MarkerIconLoader;
+import com.example.myapplication.utils.PhotoRepository;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
+import com.google.android.gms.maps.model.BitmapDescriptor;
 import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MapActivity extends AppCompatActivity implements OnMapReadyCallback, 
-    MapImageAdapter.OnMapImageClickListener {
+    MapImageAdapter.OnMapImageClickListener, ImageEnricher.OnImageEnrichedListener,
+    MarkerIconLoader.OnIconReadyListener {
+    
+    // 화면 밖으로 조금 옮겨도 마커가 그대로 있도록 보이는 영역보다 넓게 계산
+    private static final double VIEWPORT_PADDING_RATIO = 0.25;
+    // GPS 가 연달아 확인될 때 클러스터를 한 번만 다시 계산하기 위한 지연 (ms)
+    private static final long REFRESH_DELAY_MS = 300;
     
     private GoogleMap googleMap;
     private RecyclerView recyclerViewMapImages;
@@ -39,7 +60,21 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
     private TextView textEmpty;
     private MapImageAdapter mapImageAdapter;
     private List<ImageData> gpsImageList;
-    private List<Marker> markers;
+    private int syncedVersion = -1;
+    
+    // 색인 갱신과 클러스터 계산은 이 스레드에서 순서대로 실행
+    private final ExecutorService clusterExecutor = Executors.newSingleThreadExecutor();
+    private final GeoIndex geoIndex = new GeoIndex();
+    private final MarkerClusterer clusterer = new MarkerClusterer();
+    private final Map<Long, ImageData> imagesById = new HashMap<>();
+    // 클러스터 키 → 현재 지도에 있는 마커
+    private final Map<Long, Marker> markersByKey = new HashMap<>();
+    private final Map<String, BitmapDescriptor> clusterIcons = new HashMap<>();
+    private MarkerIconLoader markerIconLoader;
+    private final Runnable refreshClustersRunnable = this::refreshClusters;
+    private int clusterRequest = 0;
+    // 목록에서 선택한 이미지 (해당 마커가 만들어지면 정보 창 표시)
+    private long pendingInfoWindowId = -1;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,7 +85,44 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
         setupToolbar();
         setupMapFragment();
         setupRecyclerView();
+        markerIconLoader = MarkerIconLoader.getInstance(this);
         loadGPSImages();
+        
+        // 백그라운드에서 GPS 가 확인되는 이미지를 바로 목록과 지도에 추가
+        ImageEnricher.getInstance(this).addListener(this);
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        ImageEnricher.getInstance(this).removeListener(this);
+        markerIconLoader.cancel(this);
+        recyclerViewMapImages.removeCallbacks(refreshClustersRunnable);
+        clusterExecutor.shutdownNow();
+    }
+    
+    @Override
+    public void onImageEnriched(ImageData imageData) {
+        if (!imageData.hasGPS()) {
+            return;
+        }
+        
+        int position = Collections.binarySearch(gpsImageList, imageData, ImageData.NEWEST_FIRST);
+        if (position < 0) {
+            position = -position - 1;
+            gpsImageList.add(position, imageData);
+            mapImageAdapter.submitList(new ArrayList<>(gpsImageList));
+            showEmptyState(false);
+            
+            imagesById.put(imageData.getMediaId(), imageData);
+            long mediaId = imageData.getMediaId();
+            double latitude = imageData.getGpsData().getLatitude();
+            double longitude = imageData.getGpsData().getLongitude();
+            clusterExecutor.execute(() -> geoIndex.insert(mediaId, latitude, longitude));
+            
+            recyclerViewMapImages.removeCallbacks(refreshClustersRunnable);
+            recyclerViewMapImages.postDelayed(refreshClustersRunnable, REFRESH_DELAY_MS);
+        }
     }
     
     private void initViews() {
@@ -79,8 +151,7 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
     
     private void setupRecyclerView() {
         gpsImageList = new ArrayList<>();
-        markers = new ArrayList<>();
-        mapImageAdapter = new MapImageAdapter(this, gpsImageList, this);
+        mapImageAdapter = new MapImageAdapter(this, this);
         
         LinearLayoutManager layoutManager = new LinearLayoutManager(this, 
             LinearLayoutManager.HORIZONTAL, false);
@@ -89,34 +160,35 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
     }
     
     private void loadGPSImages() {
-        showLoading(true);
+        // 처음 로드할 때만 진행 표시 (이후에는 변경분만 반영)
+        if (syncedVersion < 0) {
+            showLoading(true);
+        }
         
-        new Thread(() -> {
-            try {
-                List<ImageData> allImages = ImageUtils.getAllImages(this);
-                List<ImageData> gpsImages = ImageUtils.getImagesWithGPS(allImages);
+        PhotoRepository.getInstance(this).sync(syncedVersion, this,
+            changes -> {
+                boolean firstLoad = syncedVersion < 0;
+                changes.applyTo(gpsImageList, true);
+                // 어댑터는 복사본과 비교해 바뀐 칸만 다시 그림
+                mapImageAdapter.submitList(new ArrayList<>(gpsImageList));
+                syncedVersion = changes.getVersion();
                 
-                runOnUiThread(() -> {
-                    gpsImageList.clear();
-                    gpsImageList.addAll(gpsImages);
-                    mapImageAdapter.notifyDataSetChanged();
-                    
-                    showLoading(false);
-                    showEmptyState(gpsImages.isEmpty());
-                    
-                    // 지도에 마커 추가
-                    if (googleMap != null) {
-                        addMarkersToMap(gpsImages);
-                    }
-                });
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    Toast.makeText(this, getString(R.string.error_loading_image), 
-                        Toast.LENGTH_SHORT).show();
-                });
-            }
-        }).start();
+                showLoading(false);
+                showEmptyState(gpsImageList.isEmpty());
+                
+                // 변경이 있을 때만 색인과 마커 갱신
+                if (!changes.isEmpty()) {
+                    rebuildIndex();
+                }
+                if (firstLoad) {
+                    moveCameraToFirstImage();
+                }
+            },
+            e -> {
+                showLoading(false);
+                Toast.makeText(this, getString(R.string.error_loading_image), 
+                    Toast.LENGTH_SHORT).show();
+            });
     }
     
     @Override
@@ -129,77 +201,236 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
         
         // 마커 클릭 리스너
         googleMap.setOnMarkerClickListener(marker -> {
-            // 마커 클릭 시 해당 이미지 선택
-            String imagePath = (String) marker.getTag();
-            if (imagePath != null) {
-                selectImageInList(imagePath);
+            MarkerClusterer.Cluster cluster = (MarkerClusterer.Cluster) marker.getTag();
+            if (cluster == null) {
+                return true;
+            }
+            
+            if (cluster.isSingle()) {
+                // 마커 클릭 시 해당 이미지 선택
+                selectImageInList(cluster.getRepresentativeId());
+            } else {
+                // 클러스터는 확대해서 펼침
+                googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(
+                    marker.getPosition(), googleMap.getCameraPosition().zoom + 2));
             }
             return true;
         });
         
-        // GPS 이미지가 로드되었으면 마커 추가
+        // 카메라가 멈출 때마다 보이는 영역의 클러스터만 다시 계산
+        googleMap.setOnCameraIdleListener(this::refreshClusters);
+        
+        // GPS 이미지가 로드되었으면 첫 위치로 이동
         if (!gpsImageList.isEmpty()) {
-            addMarkersToMap(gpsImageList);
+            moveCameraToFirstImage();
         }
     }
     
-    private void addMarkersToMap(List<ImageData> images) {
-        if (googleMap == null) return;
+    /**
+     * 동기화된 목록으로 공간 색인을 다시 만듦
+     */
+    private void rebuildIndex() {
+        imagesById.clear();
+        for (ImageData imageData : gpsImageList) {
+            imagesById.put(imageData.getMediaId(), imageData);
+        }
         
-        // 기존 마커 제거
-        for (Marker marker : markers) {
-            marker.remove();
+        List<ImageData> snapshot = new ArrayList<>(gpsImageList);
+        clusterExecutor.execute(() -> geoIndex.bulkLoad(snapshot));
+        refreshClusters();
+    }
+    
+    private void moveCameraToFirstImage() {
+        if (googleMap == null || gpsImageList.isEmpty()) {
+            return;
         }
-        markers.clear();
         
-        LatLng firstLocation = null;
+        ImageData first = gpsImageList.get(0);
+        LatLng location = new LatLng(
+            first.getGpsData().getLatitude(),
+            first.getGpsData().getLongitude()
+        );
+        googleMap.moveCamera(CameraUpdateFactory.newLatLngZoom(location, 10));
+    }
+    
+    /**
+     * 현재 카메라 영역의 클러스터를 백그라운드에서 계산한 뒤 바뀐 마커만 반영
+     */
+    private void refreshClusters() {
+        if (googleMap == null || isFinishing()) {
+            return;
+        }
         
-        for (ImageData imageData : images) {
-            if (imageData.hasGPS()) {
-                LatLng location = new LatLng(
-                    imageData.getGpsData().getLatitude(),
-                    imageData.getGpsData().getLongitude()
-                );
-                
-                if (firstLocation == null) {
-                    firstLocation = location;
-                }
-                
-                // 썸네일 생성
-                Bitmap thumbnail = ImageUtils.createThumbnail(imageData.getImagePath(), 100);
-                
-                MarkerOptions markerOptions = new MarkerOptions()
-                    .position(location)
-                    .title(imageData.getImageName());
-                
-                if (thumbnail != null) {
-                    markerOptions.icon(BitmapDescriptorFactory.fromBitmap(thumbnail));
+        LatLngBounds bounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+        float zoom = googleMap.getCameraPosition().zoom;
+        
+        double latPadding = (bounds.northeast.latitude - bounds.southwest.latitude) * VIEWPORT_PADDING_RATIO;
+        double south = Math.max(-90, bounds.southwest.latitude - latPadding);
+        double north = Math.min(90, bounds.northeast.latitude + latPadding);
+        
+        double west = bounds.southwest.longitude;
+        double east = bounds.northeast.longitude;
+        double lonSpan = west <= east ? east - west : 360 - (west - east);
+        double lonPadding = lonSpan * VIEWPORT_PADDING_RATIO;
+        if (lonSpan + lonPadding * 2 >= 360) {
+            west = -180;
+            east = 180;
+        } else {
+            west = wrapLongitude(west - lonPadding);
+            east = wrapLongitude(east + lonPadding);
+        }
+        
+        int request = ++clusterRequest;
+        double queryWest = west;
+        double queryEast = east;
+        clusterExecutor.execute(() -> {
+            List<MarkerClusterer.Cluster> clusters =
+                clusterer.cluster(geoIndex, south, queryWest, north, queryEast, zoom);
+            runOnUiThread(() -> {
+                // 그 사이 카메라가 다시 움직였으면 버림
+                if (request == clusterRequest && !isFinishing()) {
+                    applyClusters(clusters);
                 }
-                
-                Marker marker = googleMap.addMarker(markerOptions);
+            });
+        });
+    }
+    
+    private static double wrapLongitude(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+    
+    /**
+     * 이전 마커와 클러스터 키를 비교해 바뀐 것만 추가/제거
+     */
+    private void applyClusters(List<MarkerClusterer.Cluster> clusters) {
+        Map<Long, Marker> previous = new HashMap<>(markersByKey);
+        markersByKey.clear();
+        
+        for (MarkerClusterer.Cluster cluster : clusters) {
+            Marker marker = previous.remove(cluster.getKey());
+            MarkerClusterer.Cluster old = marker != null ? (MarkerClusterer.Cluster) marker.getTag() : null;
+            
+            if (old != null && old.getCount() == cluster.getCount()
+                    && old.getRepresentativeId() == cluster.getRepresentativeId()) {
+                // 구성이 같으면 마커를 그대로 둔다
+                marker.setTag(cluster);
+            } else {
                 if (marker != null) {
-                    marker.setTag(imageData.getImagePath());
-                    markers.add(marker);
+                    marker.remove();
+                }
+                marker = addClusterMarker(cluster);
+            }
+            
+            if (marker != null) {
+                markersByKey.put(cluster.getKey(), marker);
+                if (cluster.isSingle() && cluster.getRepresentativeId() == pendingInfoWindowId) {
+                    marker.showInfoWindow();
+                    pendingInfoWindowId = -1;
+                }
+            }
+        }
+        
+        // 화면에서 벗어났거나 다른 클러스터로 합쳐진 마커 제거
+        for (Marker marker : previous.values()) {
+            marker.remove();
+        }
+    }
+    
+    private Marker addClusterMarker(MarkerClusterer.Cluster cluster) {
+        LatLng location = new LatLng(cluster.getLatitude(), cluster.getLongitude());
+        MarkerOptions markerOptions = new MarkerOptions().position(location);
+        
+        if (cluster.isSingle()) {
+            ImageData imageData = imagesById.get(cluster.getRepresentativeId());
+            if (imageData != null) {
+                // 썸네일 아이콘이 캐시에 없으면 자리 표시 아이콘으로 먼저 그리고 나중에 교체
+                BitmapDescriptor icon = markerIconLoader.getCached(imageData);
+                if (icon == null) {
+                    icon = markerIconLoader.getPlaceholder();
+                    markerIconLoader.load(imageData, this);
                 }
+                markerOptions.title(imageData.getImageName()).icon(icon);
             }
+        } else {
+            markerOptions
+                .title(getString(R.string.map_cluster_title, cluster.getCount()))
+                .icon(getClusterIcon(cluster.getCount()))
+                .anchor(0.5f, 0.5f);
         }
         
-        // 첫 번째 위치로 카메라 이동
-        if (firstLocation != null) {
-            googleMap.moveCamera(CameraUpdateFactory.newLatLngZoom(firstLocation, 10));
+        Marker marker = googleMap.addMarker(markerOptions);
+        if (marker != null) {
+            marker.setTag(cluster);
         }
+        return marker;
     }
     
-    private void selectImageInList(String imagePath) {
-        for (int i = 0; i < gpsImageList.size(); i++) {
-            if (gpsImageList.get(i).getImagePath().equals(imagePath)) {
-                mapImageAdapter.setSelectedPosition(i);
-                recyclerViewMapImages.smoothScrollToPosition(i);
+    @Override
+    public void onIconReady(ImageData imageData, BitmapDescriptor icon) {
+        if (isFinishing()) {
+            return;
+        }
+        
+        // 아직 지도에 있는 단일 마커만 교체 (화면에 보이는 마커 수만큼만 확인)
+        for (Marker marker : markersByKey.values()) {
+            MarkerClusterer.Cluster cluster = (MarkerClusterer.Cluster) marker.getTag();
+            if (cluster != null && cluster.isSingle()
+                    && cluster.getRepresentativeId() == imageData.getMediaId()) {
+                marker.setIcon(icon);
                 break;
             }
         }
     }
     
+    /**
+     * 클러스터 개수 원형 아이콘 (같은 표시 문자열이면 재사용)
+     */
+    private BitmapDescriptor getClusterIcon(int count) {
+        String label = count < 1000 ? String.valueOf(count) : "999+";
+        BitmapDescriptor icon = clusterIcons.get(label);
+        if (icon != null) {
+            return icon;
+        }
+        
+        float density = getResources().getDisplayMetrics().density;
+        int size = (int) (40 * density);
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        
+        Paint circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        circlePaint.setColor(ContextCompat.getColor(this, R.color.purple_500));
+        canvas.drawCircle(size / 2f, size / 2f, size / 2f, circlePaint);
+        
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(14 * density);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        float baseline = size / 2f - (textPaint.descent() + textPaint.ascent()) / 2f;
+        canvas.drawText(label, size / 2f, baseline, textPaint);
+        
+        icon = BitmapDescriptorFactory.fromBitmap(bitmap);
+        clusterIcons.put(label, icon);
+        return icon;
+    }
+    
+    private void selectImageInList(long mediaId) {
+        ImageData imageData = imagesById.get(mediaId);
+        if (imageData == null) {
+            return;
+        }
+        
+        int position = mapImageAdapter.setSelectedImage(imageData);
+        if (position >= 0) {
+            recyclerViewMapImages.smoothScrollToPosition(position);
+        }
+    }
+    
     @Override
     public void onMapImageClick(ImageData imageData) {
         if (googleMap != null && imageData.hasGPS()) {
@@ -208,16 +439,9 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
                 imageData.getGpsData().getLongitude()
             );
             
-            // 해당 위치로 카메라 이동
+            // 해당 위치로 카메라 이동 (이동이 끝나 마커가 만들어지면 정보 창 표시)
+            pendingInfoWindowId = imageData.getMediaId();
             googleMap.animateCamera(CameraUpdateFactory.newLatLngZoom(location, 15));
-            
-            // 해당 마커 찾아서 강조
-            for (Marker marker : markers) {
-                if (imageData.getImagePath().equals(marker.getTag())) {
-                    marker.showInfoWindow();
-                    break;
-                }
-            }
         }
     }
     
@@ -242,7 +466,7 @@ public class MapActivity extends AppCompatActivity implements OnMapReadyCallback
     @Override
     protected void onResume() {
         super.onResume();
-        // 지도로 돌아올 때 GPS 이미지 목록 새로고침
+        // 지도로 돌아올 때 변경된 GPS 이미지만 반영
         loadGPSImages();
     }
 }
@@ -0,0 +1,149 @@
+package com.example.myapplication.adapter;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.myapplication.R;
+import com.example.myapplication.model.ImageData;
+import com.example.myapplication.model.ImageMetadata;
+import com.example.myapplication.utils.ImagePrefetcher;
+import com.example.myapplication.utils.ProgressiveImageLoader;
+import com.example.myapplication.view.TiledImageView;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 상세 화면 페이지 어댑터 (ViewPager2)
+ *
+ * 페이지마다 ProgressiveImageLoader 로 이미지를 불러오되, ImagePrefetcher 가 미리 불러 둔 것이 있으면 넘겨받아 바로 보여 준다.
+ */
+public class DetailPagerAdapter extends RecyclerView.Adapter<DetailPagerAdapter.PageViewHolder> {
+
+    private Context context;
+    private List<ImageData> imageList;
+    private ImagePrefetcher prefetcher;
+    private OnPageMetadataListener metadataListener;
+    private int thumbnailSize;
+    private int maxWidth;
+    private int maxHeight;
+    // 바인딩되어 있는 페이지 (화면을 닫을 때 모두 해제)
+    private final Set<PageViewHolder> boundHolders = new HashSet<>();
+
+    public interface OnPageMetadataListener {
+        /**
+         * 페이지 이미지의 메타데이터를 읽었을 때 (EXIF 촬영 시각은 정렬 기준을 바꾸지 않도록 metadata 로만 전달)
+         */
+        void onPageMetadataLoaded(ImageData imageData, ImageMetadata metadata);
+    }
+
+    public DetailPagerAdapter(Context context, List<ImageData> imageList, ImagePrefetcher prefetcher,
+                              OnPageMetadataListener metadataListener) {
+        this.context = context;
+        this.imageList = imageList;
+        this.prefetcher = prefetcher;
+        this.metadataListener = metadataListener;
+        this.thumbnailSize = context.getResources().getDimensionPixelSize(R.dimen.image_thumbnail_size);
+        this.maxWidth = context.getResources().getDisplayMetrics().widthPixels;
+        this.maxHeight = context.getResources().getDisplayMetrics().heightPixels;
+    }
+
+    @NonNull
+    @Override
+    public PageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_detail_page, parent, false);
+        return new PageViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PageViewHolder holder, int position) {
+        holder.bind(imageList.get(position));
+        boundHolders.add(holder);
+    }
+
+    @Override
+    public int getItemCount() {
+        return imageList.size();
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull PageViewHolder holder) {
+        super.onViewRecycled(holder);
+        holder.unbind();
+        boundHolders.remove(holder);
+    }
+
+    /**
+     * 모든 페이지의 로드를 멈추고 비트맵 반납 (화면을 닫을 때 호출)
+     */
+    public void release() {
+        for (PageViewHolder holder : boundHolders) {
+            holder.unbind();
+        }
+        boundHolders.clear();
+    }
+
+    class PageViewHolder extends RecyclerView.ViewHolder {
+        private TiledImageView imageView;
+        private ProgressiveImageLoader loader;
+
+        public PageViewHolder(@NonNull View itemView) {
+            super(itemView);
+            imageView = (TiledImageView) itemView;
+        }
+
+        public void bind(ImageData imageData) {
+            unbind();
+
+            loader = new ProgressiveImageLoader(context, imageData, thumbnailSize, maxWidth, maxHeight,
+                new ProgressiveImageLoader.Listener() {
+                    @Override
+                    public void onMetadataLoaded(ImageMetadata metadata) {
+                        // 목록이 공유하는 객체이므로 정렬 기준(촬영 시각)은 건드리지 않음
+                        imageData.applyMetadata(metadata);
+                        // 확대하면 원본에서 타일을 디코딩
+                        imageView.setImage(imageData.getImagePath(), metadata.getWidth(), metadata.getHeight(),
+                            metadata.getOrientation());
+                        metadataListener.onPageMetadataLoaded(imageData, metadata);
+                    }
+
+                    @Override
+                    public void onImageLoaded(Bitmap bitmap, boolean isFinal) {
+                        imageView.setPreview(bitmap);
+                    }
+
+                    @Override
+                    public void onLoadFailed() {
+                        Toast.makeText(context, context.getString(R.string.error_loading_image),
+                            Toast.LENGTH_SHORT).show();
+                    }
+                });
+
+            // 미리 불러온 것이 있으면 디코딩 없이 바로 표시
+            ImagePrefetcher.Entry prefetched = prefetcher.take(imageData.getImagePath());
+            if (prefetched != null) {
+                loader.startFrom(prefetched.getMetadata(), prefetched.getBitmap());
+            } else {
+                loader.start();
+            }
+        }
+
+        public void unbind() {
+            if (loader == null) {
+                return;
+            }
+            // 뷰에서 먼저 떼어 낸 뒤 보여 주던 비트맵을 반납
+            imageView.recycle();
+            loader.cancel();
+            loader = null;
+        }
+    }
+}
@@ -10,31 +10,68 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
-import com.bumptech.glide.request.RequestOptions;
 import com.example.myapplication.R;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.ImageEnricher;
+import com.example.myapplication.utils.ImageWindow;
+import com.example.myapplication.utils.ThumbnailCache;
 
+import java.util.Collections;
 import java.util.List;
 
-public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHolder> {
+/**
+ * 갤러리 그리드 어댑터
+ *
+ * 목록은 submitList() 로 받은 읽기 전용 스냅샷이며, 이전 목록과의 차이는 백그라운드에서 계산해 바뀐 칸만 다시 그린다.
+ * 항목 ID 는 MediaStore _ID 이므로 갱신 중에도 스크롤 위치와 진행 중인 썸네일 로드가 유지된다.
+ * ImageWindow.Snapshot 을 넘기면 아직 불러오지 않은 위치(null)는 빈 칸으로 그린다.
+ */
+public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHolder>
+    implements ImageEnricher.OnImageEnrichedListener {
     
     private Context context;
-    private List<ImageData> imageList;
+    private final AsyncListDiffer<ImageData> differ =
+        new AsyncListDiffer<>(this, ImageDiffCallback.config());
     private OnImageClickListener clickListener;
+    private ThumbnailCache thumbnailCache;
+    private int thumbnailSize;
+    private ImageEnricher enricher;
     
     public interface OnImageClickListener {
         void onImageClick(ImageData imageData);
     }
     
-    public ImageAdapter(Context context, List<ImageData> imageList, OnImageClickListener clickListener) {
+    public ImageAdapter(Context context, OnImageClickListener clickListener) {
         this.context = context;
-        this.imageList = imageList;
         this.clickListener = clickListener;
+        this.thumbnailCache = ThumbnailCache.getInstance(context);
+        this.thumbnailSize = context.getResources().getDimensionPixelSize(R.dimen.image_thumbnail_size);
+        this.enricher = ImageEnricher.getInstance(context);
+        setHasStableIds(true);
+    }
+    
+    /**
+     * 새 목록 표시 (메인 스레드, 넘긴 목록은 이후에 바꾸면 안 됨)
+     */
+    public void submitList(List<ImageData> images) {
+        differ.submitList(images);
+    }
+    
+    /**
+     * 새 목록 표시 후 반영이 끝나면 commitCallback 호출
+     */
+    public void submitList(List<ImageData> images, Runnable commitCallback) {
+        differ.submitList(images, commitCallback);
+    }
+    
+    /**
+     * 지금 화면에 반영된 목록 (읽기 전용)
+     */
+    public List<ImageData> getCurrentList() {
+        return differ.getCurrentList();
     }
     
     @NonNull
@@ -46,13 +83,59 @@ public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHol
     
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
-        ImageData imageData = imageList.get(position);
+        ImageData imageData = differ.getCurrentList().get(position);
         holder.bind(imageData);
     }
     
     @Override
     public int getItemCount() {
-        return imageList.size();
+        return differ.getCurrentList().size();
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        List<ImageData> images = differ.getCurrentList();
+        if (images instanceof ImageWindow.Snapshot) {
+            // 자리 표시 항목도 불러온 뒤와 같은 ID
+            return ((ImageWindow.Snapshot) images).getMediaId(position);
+        }
+        return images.get(position).getMediaId();
+    }
+    
+    @Override
+    public void onViewRecycled(@NonNull ImageViewHolder holder) {
+        super.onViewRecycled(holder);
+        // 화면에서 사라진 행은 GPS 읽기 우선순위를 낮춘다
+        if (holder.boundImage != null) {
+            enricher.deprioritize(holder.boundImage);
+            holder.boundImage = null;
+        }
+    }
+    
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        enricher.addListener(this);
+    }
+    
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        enricher.removeListener(this);
+        // 화면이 사라지면 이 목록이 요청한 작업은 더 진행하지 않는다
+        enricher.cancel(this);
+    }
+    
+    @Override
+    public void onImageEnriched(ImageData imageData) {
+        // 목록은 ImageData.NEWEST_FIRST 순서이므로 이진 탐색으로 위치를 찾는다
+        List<ImageData> images = differ.getCurrentList();
+        int position = images instanceof ImageWindow.Snapshot
+            ? ((ImageWindow.Snapshot) images).positionOf(imageData)
+            : Collections.binarySearch(images, imageData, ImageData.NEWEST_FIRST);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
     }
     
     class ImageViewHolder extends RecyclerView.ViewHolder {
@@ -61,6 +144,7 @@ public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHol
         private TextView textImageName;
         private TextView textFileSize;
         private ProgressBar progressBar;
+        private ImageData boundImage;
         
         public ImageViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -73,46 +157,50 @@ public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHol
             
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && clickListener != null) {
-                    clickListener.onImageClick(imageList.get(position));
+                if (position == RecyclerView.NO_POSITION || clickListener == null) {
+                    return;
+                }
+                ImageData imageData = differ.getCurrentList().get(position);
+                if (imageData != null) {
+                    clickListener.onImageClick(imageData);
                 }
             });
         }
         
         public void bind(ImageData imageData) {
+            boundImage = imageData;
+            
+            // 아직 불러오지 않은 위치는 빈 칸
+            if (imageData == null) {
+                textImageName.setText(null);
+                textFileSize.setText(null);
+                iconGPS.setVisibility(View.GONE);
+                thumbnailCache.clear(imageViewThumbnail);
+                progressBar.setVisibility(View.GONE);
+                return;
+            }
+            
             // 이미지 이름 설정
             textImageName.setText(imageData.getImageName());
             
             // 파일 크기 설정
             textFileSize.setText(imageData.getFormattedFileSize());
             
-            // GPS 아이콘 표시
+            // GPS 아이콘 표시 (아직 EXIF 를 읽지 않았으면 우선 요청)
             if (imageData.hasGPS()) {
                 iconGPS.setVisibility(View.VISIBLE);
             } else {
                 iconGPS.setVisibility(View.GONE);
+                enricher.requestVisible(ImageAdapter.this, imageData, ImageData.FIELD_GPS);
             }
             
             // 이미지 로드
-            loadImage(imageData.getImagePath());
+            loadImage(imageData);
         }
         
-        private void loadImage(String imagePath) {
-            progressBar.setVisibility(View.VISIBLE);
-            
-            // Glide를 사용한 이미지 로딩
-            RequestOptions options = new RequestOptions()
-                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                .centerCrop()
-                .placeholder(R.color.image_placeholder)
-                .error(R.color.image_placeholder);
-            
-            Glide.with(context)
-                .load(imagePath)
-                .apply(options)
-                .into(imageViewThumbnail);
-            
-            // 로딩 완료 후 프로그레스바 숨기기
+        private void loadImage(ImageData imageData) {
+            // 공유 썸네일 캐시에서 로드 (없으면 백그라운드에서 만든 뒤 표시)
+            thumbnailCache.loadInto(imageData, thumbnailSize, imageViewThumbnail);
             progressBar.setVisibility(View.GONE);
         }
     }
@@ -0,0 +1,38 @@
+package com.example.myapplication.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.myapplication.model.ImageData;
+import com.example.myapplication.utils.TaskScheduler;
+
+/**
+ * 이미지 목록 비교 기준 (AsyncListDiffer)
+ *
+ * 같은 항목인지는 MediaStore _ID 로, 내용이 같은지는 경로/수정 시각/크기(지문)와 GPS 여부로 판단한다.
+ * 백그라운드에서 채워지는 지연 필드는 같은 객체에 바로 쓰이므로 여기서 비교하지 않고 어댑터가 따로 알린다.
+ */
+class ImageDiffCallback extends DiffUtil.ItemCallback<ImageData> {
+
+    /**
+     * 비교는 TaskScheduler 의 VISIBLE 레인에서 (화면 목록 갱신이 기다리는 작업)
+     */
+    static AsyncDifferConfig<ImageData> config() {
+        TaskScheduler scheduler = TaskScheduler.getInstance();
+        return new AsyncDifferConfig.Builder<>(new ImageDiffCallback())
+            .setBackgroundThreadExecutor(command -> scheduler.submit(TaskScheduler.Lane.VISIBLE, command))
+            .build();
+    }
+
+    @Override
+    public boolean areItemsTheSame(@NonNull ImageData oldItem, @NonNull ImageData newItem) {
+        return oldItem.getMediaId() == newItem.getMediaId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull ImageData oldItem, @NonNull ImageData newItem) {
+        return oldItem.matchesFingerprint(newItem.getImagePath(), newItem.getDateModified(), newItem.getFileSize())
+            && oldItem.hasGPS() == newItem.hasGPS();
+    }
+}
@@ -8,31 +8,59 @@ import android.widget.ImageView;
 import android.widget.ProgressBar;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
-import com.bumptech.glide.request.RequestOptions;
 import com.example.myapplication.R;
 import com.example.myapplication.model.ImageData;
+import com.example.myapplication.utils.ThumbnailCache;
 
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * 지도 화면 GPS 이미지 가로 목록 어댑터
+ *
+ * ImageAdapter 와 같이 submitList() 로 받은 스냅샷의 차이만 반영하고, 선택 표시는 위치가 아닌 이미지로 기억해
+ * 목록이 갱신되어 위치가 바뀌어도 같은 이미지에 남는다.
+ */
 public class MapImageAdapter extends RecyclerView.Adapter<MapImageAdapter.MapImageViewHolder> {
     
+    // 선택 표시만 다시 그릴 때의 payload (썸네일은 다시 불러오지 않음)
+    private static final Object PAYLOAD_SELECTION = new Object();
+    
     private Context context;
-    private List<ImageData> imageList;
+    private final AsyncListDiffer<ImageData> differ =
+        new AsyncListDiffer<>(this, ImageDiffCallback.config());
     private OnMapImageClickListener clickListener;
-    private int selectedPosition = -1;
+    private ThumbnailCache thumbnailCache;
+    private int thumbnailSize;
+    private ImageData selectedImage;
     
     public interface OnMapImageClickListener {
         void onMapImageClick(ImageData imageData);
     }
     
-    public MapImageAdapter(Context context, List<ImageData> imageList, OnMapImageClickListener clickListener) {
+    public MapImageAdapter(Context context, OnMapImageClickListener clickListener) {
         this.context = context;
-        this.imageList = imageList;
         this.clickListener = clickListener;
+        this.thumbnailCache = ThumbnailCache.getInstance(context);
+        this.thumbnailSize = context.getResources().getDimensionPixelSize(R.dimen.image_map_thumbnail_size);
+        setHasStableIds(true);
+    }
+    
+    /**
+     * 새 목록 표시 (메인 스레드, 넘긴 목록은 이후에 바꾸면 안 됨)
+     */
+    public void submitList(List<ImageData> images) {
+        differ.submitList(images);
+    }
+    
+    /**
+     * 지금 화면에 반영된 목록 (읽기 전용)
+     */
+    public List<ImageData> getCurrentList() {
+        return differ.getCurrentList();
     }
     
     @NonNull
@@ -44,25 +72,59 @@ public class MapImageAdapter extends RecyclerView.Adapter<MapImageAdapter.MapIma
     
     @Override
     public void onBindViewHolder(@NonNull MapImageViewHolder holder, int position) {
-        ImageData imageData = imageList.get(position);
-        holder.bind(imageData, position == selectedPosition);
+        ImageData imageData = differ.getCurrentList().get(position);
+        holder.bind(imageData, isSelected(imageData));
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull MapImageViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION)) {
+            holder.bindSelection(isSelected(differ.getCurrentList().get(position)));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
     }
     
     @Override
     public int getItemCount() {
-        return imageList.size();
+        return differ.getCurrentList().size();
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getMediaId();
     }
     
-    public void setSelectedPosition(int position) {
-        int oldPosition = selectedPosition;
-        selectedPosition = position;
+    /**
+     * 선택 표시할 이미지 (null 이면 선택 해제)
+     *
+     * @return 지금 목록에서의 위치 (목록에 없으면 -1)
+     */
+    public int setSelectedImage(ImageData imageData) {
+        int oldPosition = indexOf(selectedImage);
+        selectedImage = imageData;
+        int position = indexOf(imageData);
         
         if (oldPosition != -1) {
-            notifyItemChanged(oldPosition);
+            notifyItemChanged(oldPosition, PAYLOAD_SELECTION);
+        }
+        if (position != -1) {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
         }
-        if (selectedPosition != -1) {
-            notifyItemChanged(selectedPosition);
+        return position;
+    }
+    
+    private boolean isSelected(ImageData imageData) {
+        return selectedImage != null && selectedImage.getMediaId() == imageData.getMediaId();
+    }
+    
+    private int indexOf(ImageData imageData) {
+        if (imageData == null) {
+            return -1;
         }
+        // 목록은 ImageData.NEWEST_FIRST 순서이므로 이진 탐색으로 위치를 찾는다
+        int position = Collections.binarySearch(differ.getCurrentList(), imageData, ImageData.NEWEST_FIRST);
+        return position >= 0 ? position : -1;
     }
     
     class MapImageViewHolder extends RecyclerView.ViewHolder {
@@ -80,36 +142,28 @@ public class MapImageAdapter extends RecyclerView.Adapter<MapImageAdapter.MapIma
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && clickListener != null) {
-                    setSelectedPosition(position);
-                    clickListener.onMapImageClick(imageList.get(position));
+                    ImageData imageData = differ.getCurrentList().get(position);
+                    setSelectedImage(imageData);
+                    clickListener.onMapImageClick(imageData);
                 }
             });
         }
         
         public void bind(ImageData imageData, boolean isSelected) {
-            // 선택 상태 표시
-            viewSelected.setVisibility(isSelected ? View.VISIBLE : View.GONE);
+            bindSelection(isSelected);
             
             // 이미지 로드
-            loadImage(imageData.getImagePath());
+            loadImage(imageData);
         }
         
-        private void loadImage(String imagePath) {
-            progressBar.setVisibility(View.VISIBLE);
-            
-            // Glide를 사용한 이미지 로딩
-            RequestOptions options = new RequestOptions()
-                .diskCacheStrategy(DiskCacheStrategy.ALL)
-                .centerCrop()
-                .placeholder(R.color.image_placeholder)
-                .error(R.color.image_placeholder);
-            
-            Glide.with(context)
-                .load(imagePath)
-                .apply(options)
-                .into(imageViewThumbnail);
-            
-            // 로딩 완료 후 프로그레스바 숨기기
+        void bindSelection(boolean isSelected) {
+            // 선택 상태 표시
+            viewSelected.setVisibility(isSelected ? View.VISIBLE : View.GONE);
+        }
+        
+        private void loadImage(ImageData imageData) {
+            // 공유 썸네일 캐시에서 로드 (없으면 백그라운드에서 만든 뒤 표시)
+            thumbnailCache.loadInto(imageData, thumbnailSize, imageViewThumbnail);
             progressBar.setVisibility(View.GONE);
         }
     }
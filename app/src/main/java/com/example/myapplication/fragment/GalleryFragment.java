@@ -19,18 +19,33 @@ import com.example.myapplication.GalleryActivity;
 import com.example.myapplication.R;
 import com.example.myapplication.adapter.ImageAdapter;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.ImagePageLoader;
+import com.example.myapplication.utils.ImageWindow;
+import com.example.myapplication.utils.PhotoRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class GalleryFragment extends Fragment implements ImageAdapter.OnImageClickListener {
     
+    // 3열 기준 약 20줄 (첫 화면 + 한 화면 분량)
+    private static final int PAGE_SIZE = 60;
+    // 화면 앞뒤로 ImageData 를 유지할 페이지 수 (그보다 먼 페이지는 버리고 다시 보이면 읽음)
+    private static final int KEEP_PAGES = 3;
+    
     private RecyclerView recyclerView;
     private ProgressBar progressBar;
     private TextView textEmpty;
     private ImageAdapter imageAdapter;
-    private List<ImageData> imageList;
+    private ImageWindow imageWindow;
+    private GridLayoutManager layoutManager;
+    private ImagePageLoader pageLoader;
+    private PhotoRepository photoRepository;
+    private boolean keysLoading = false;
+    private int syncedVersion = -1;
+    // 마지막으로 페이지를 확인한 화면 범위 (페이지 단위)
+    private int checkedFirstPage = -1;
+    private int checkedLastPage = -1;
     
     @Nullable
     @Override
@@ -40,11 +55,17 @@ public class GalleryFragment extends Fragment implements ImageAdapter.OnImageCli
         
         initViews(view);
         setupRecyclerView();
-        loadImages();
         
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        photoRepository = PhotoRepository.getInstance(requireContext());
+        loadKeys();
+    }
+    
     private void initViews(View view) {
         recyclerView = view.findViewById(R.id.recycler_view_images);
         progressBar = view.findViewById(R.id.progress_bar);
@@ -52,41 +73,138 @@ public class GalleryFragment extends Fragment implements ImageAdapter.OnImageCli
     }
     
     private void setupRecyclerView() {
-        imageList = new ArrayList<>();
-        imageAdapter = new ImageAdapter(getContext(), imageList, this);
+        imageWindow = new ImageWindow(PAGE_SIZE, KEEP_PAGES);
+        imageAdapter = new ImageAdapter(getContext(), this);
+        pageLoader = new ImagePageLoader(requireContext());
+        // 이전 뷰에서 진행 중이던 로드는 뷰와 함께 취소됨
+        keysLoading = false;
+        syncedVersion = -1;
+        checkedFirstPage = -1;
+        checkedLastPage = -1;
         
-        GridLayoutManager layoutManager = new GridLayoutManager(getContext(), 3);
+        layoutManager = new GridLayoutManager(getContext(), 3);
         recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(imageAdapter);
+        
+        // 화면에 가까워진 페이지를 읽고 멀어진 페이지는 버림
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int first = layoutManager.findFirstVisibleItemPosition();
+                int last = layoutManager.findLastVisibleItemPosition();
+                if (first / PAGE_SIZE != checkedFirstPage || last / PAGE_SIZE != checkedLastPage) {
+                    loadVisiblePages();
+                }
+            }
+        });
     }
     
-    private void loadImages() {
-        showLoading(true);
+    /**
+     * 전체 순서(키)만 읽고 첫 화면 페이지 로드
+     *
+     * 동기화 관리자의 전체 목록을 기다리지 않도록 지금 버전만 받아 두고, 이후 변경분은 sync() 로 받는다.
+     * 관리자가 아직 전체 목록을 읽지 않았으면 (-1) 다음에 돌아올 때도 키만 다시 읽는다.
+     */
+    private void loadKeys() {
+        if (keysLoading) {
+            return;
+        }
+        keysLoading = true;
+        if (imageWindow.size() == 0) {
+            showLoading(true);
+        }
         
-        new Thread(() -> {
-            try {
-                List<ImageData> images = ImageUtils.getAllImages(getContext());
-                
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        imageList.clear();
-                        imageList.addAll(images);
-                        imageAdapter.notifyDataSetChanged();
-                        
-                        showLoading(false);
-                        showEmptyState(images.isEmpty());
-                    });
-                }
-            } catch (Exception e) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        showLoading(false);
-                        Toast.makeText(getContext(), 
-                            getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
-                    });
-                }
+        // 키를 읽기 전에 버전을 받아 두면 그 사이의 변경분은 다음 sync() 에서 다시 받음
+        int version = photoRepository.getSyncVersion();
+        photoRepository.load(null, pageLoader::loadKeys, getViewLifecycleOwner(), keys -> {
+            keysLoading = false;
+            imageWindow.setKeys(keys);
+            syncedVersion = version;
+            submitList();
+            loadVisiblePages();
+            
+            showLoading(false);
+            showEmptyState(imageWindow.size() == 0);
+        }, e -> {
+            keysLoading = false;
+            showSyncError(e);
+        });
+    }
+    
+    /**
+     * 화면 앞뒤 페이지 중 아직 읽지 않은 것을 읽고, 멀리 있는 페이지는 버림
+     */
+    private void loadVisiblePages() {
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            // 아직 그려지지 않았으면 첫 페이지부터
+            first = 0;
+            last = 0;
+        }
+        checkedFirstPage = first / PAGE_SIZE;
+        checkedLastPage = last / PAGE_SIZE;
+        
+        if (imageWindow.retain(first, last)) {
+            submitList();
+        }
+        for (int page : imageWindow.requestPages(first, last)) {
+            List<Long> mediaIds = imageWindow.getMissingIds(page);
+            // 화면이 사라지면 결과를 버리고, 아직 시작하지 않은 로드는 취소
+            photoRepository.load(null, () -> pageLoader.loadImages(mediaIds), getViewLifecycleOwner(), images -> {
+                imageWindow.putPage(page, mediaIds, images);
+                submitList();
+            }, e -> {
+                imageWindow.cancelPage(page);
+                Toast.makeText(getContext(), 
+                    getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
+            });
+        }
+    }
+    
+    /**
+     * 지금 창의 읽기 전용 목록을 어댑터에 넘김 (바뀐 칸만 다시 그림)
+     */
+    private void submitList() {
+        imageAdapter.submitList(imageWindow.snapshot());
+    }
+    
+    /**
+     * 마지막 동기화 이후 변경된 이미지만 반영
+     */
+    private void syncChanges() {
+        if (keysLoading) {
+            return;
+        }
+        if (syncedVersion < 0) {
+            // 전체 목록을 읽게 하지 않도록 키만 다시 읽음 (불러 둔 이미지는 바뀌지 않았으면 유지)
+            loadKeys();
+            return;
+        }
+        // 지도 탭과 같은 버전에서 동기화하면 한 번의 조회를 함께 씀
+        photoRepository.sync(syncedVersion, getViewLifecycleOwner(), changes -> {
+            if (changes.isReset()) {
+                // 전체 목록이 바뀌었으면 키만 다시 읽음
+                syncedVersion = -1;
+                loadKeys();
+                return;
             }
-        }).start();
+            List<ImageData> upserts = new ArrayList<>(changes.getInserted());
+            upserts.addAll(changes.getUpdated());
+            imageWindow.applyChanges(upserts, changes.getDeletedIds());
+            syncedVersion = changes.getVersion();
+            submitList();
+            loadVisiblePages();
+            
+            showLoading(false);
+            showEmptyState(imageWindow.size() == 0);
+        }, this::showSyncError);
+    }
+    
+    private void showSyncError(Exception e) {
+        showLoading(false);
+        Toast.makeText(getContext(), 
+            getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
     }
     
     private void showLoading(boolean show) {
@@ -108,7 +226,7 @@ public class GalleryFragment extends Fragment implements ImageAdapter.OnImageCli
     @Override
     public void onResume() {
         super.onResume();
-        // 갤러리로 돌아올 때 이미지 목록 새로고침
-        loadImages();
+        // 갤러리로 돌아올 때 변경된 이미지만 반영
+        syncChanges();
     }
 }
@@ -19,18 +19,22 @@ import com.example.myapplication.MapActivity;
 import com.example.myapplication.R;
 import com.example.myapplication.adapter.MapImageAdapter;
 import com.example.myapplication.model.ImageData;
-import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.ImageEnricher;
+import com.example.myapplication.utils.PhotoRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageClickListener {
+public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageClickListener,
+    ImageEnricher.OnImageEnrichedListener {
     
     private RecyclerView recyclerView;
     private ProgressBar progressBar;
     private TextView textEmpty;
     private MapImageAdapter mapImageAdapter;
     private List<ImageData> gpsImageList;
+    private int syncedVersion = -1;
     
     @Nullable
     @Override
@@ -40,11 +44,40 @@ public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageC
         
         initViews(view);
         setupRecyclerView();
-        loadGPSImages();
+        
+        // 백그라운드에서 GPS 가 확인되는 이미지를 바로 목록에 추가
+        ImageEnricher.getInstance(requireContext()).addListener(this);
         
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        loadGPSImages();
+    }
+    
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        ImageEnricher.getInstance(requireContext()).removeListener(this);
+    }
+    
+    @Override
+    public void onImageEnriched(ImageData imageData) {
+        if (!imageData.hasGPS()) {
+            return;
+        }
+        
+        int position = Collections.binarySearch(gpsImageList, imageData, ImageData.NEWEST_FIRST);
+        if (position < 0) {
+            position = -position - 1;
+            gpsImageList.add(position, imageData);
+            mapImageAdapter.submitList(new ArrayList<>(gpsImageList));
+            showEmptyState(false);
+        }
+    }
+    
     private void initViews(View view) {
         recyclerView = view.findViewById(R.id.recycler_view_map_images);
         progressBar = view.findViewById(R.id.progress_bar);
@@ -53,7 +86,9 @@ public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageC
     
     private void setupRecyclerView() {
         gpsImageList = new ArrayList<>();
-        mapImageAdapter = new MapImageAdapter(getContext(), gpsImageList, this);
+        mapImageAdapter = new MapImageAdapter(getContext(), this);
+        // 새 뷰의 목록은 비어 있으므로 변경분이 아니라 전체 목록부터 받음
+        syncedVersion = -1;
         
         LinearLayoutManager layoutManager = new LinearLayoutManager(getContext(), 
             LinearLayoutManager.HORIZONTAL, false);
@@ -62,33 +97,27 @@ public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageC
     }
     
     private void loadGPSImages() {
-        showLoading(true);
+        // 처음 로드할 때만 진행 표시 (이후에는 변경분만 반영)
+        if (syncedVersion < 0) {
+            showLoading(true);
+        }
         
-        new Thread(() -> {
-            try {
-                List<ImageData> allImages = ImageUtils.getAllImages(getContext());
-                List<ImageData> gpsImages = ImageUtils.getImagesWithGPS(allImages);
+        // 갤러리 탭과 같은 버전에서 동기화하면 한 번의 조회를 함께 씀
+        PhotoRepository.getInstance(requireContext()).sync(syncedVersion, getViewLifecycleOwner(),
+            changes -> {
+                changes.applyTo(gpsImageList, true);
+                // 어댑터는 복사본과 비교해 바뀐 칸만 다시 그림
+                mapImageAdapter.submitList(new ArrayList<>(gpsImageList));
+                syncedVersion = changes.getVersion();
                 
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        gpsImageList.clear();
-                        gpsImageList.addAll(gpsImages);
-                        mapImageAdapter.notifyDataSetChanged();
-                        
-                        showLoading(false);
-                        showEmptyState(gpsImages.isEmpty());
-                    });
-                }
-            } catch (Exception e) {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        showLoading(false);
-                        Toast.makeText(getContext(), 
-                            getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
-                    });
-                }
-            }
-        }).start();
+                showLoading(false);
+                showEmptyState(gpsImageList.isEmpty());
+            },
+            e -> {
+                showLoading(false);
+                Toast.makeText(getContext(), 
+                    getString(R.string.error_loading_image), Toast.LENGTH_SHORT).show();
+            });
     }
     
     private void showLoading(boolean show) {
@@ -110,7 +139,7 @@ public class MapFragment extends Fragment implements MapImageAdapter.OnMapImageC
     @Override
     public void onResume() {
         super.onResume();
-        // 지도로 돌아올 때 GPS 이미지 목록 새로고침
+        // 지도로 돌아올 때 변경된 GPS 이미지만 반영
         loadGPSImages();
     }
 }
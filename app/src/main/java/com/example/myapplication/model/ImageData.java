@@ -1,11 +1,35 @@
 package com.example.myapplication.model;
 
 import java.io.File;
+import java.util.Comparator;
 
 /**
  * 이미지 정보를 저장하는 데이터 클래스
  */
 public class ImageData {
+    /**
+     * 갤러리 정렬 순서 (촬영 날짜 내림차순, 같으면 MediaStore _ID 내림차순)
+     */
+    public static final Comparator<ImageData> NEWEST_FIRST = new Comparator<ImageData>() {
+        @Override
+        public int compare(ImageData a, ImageData b) {
+            if (a.dateTaken != b.dateTaken) {
+                return Long.compare(b.dateTaken, a.dateTaken);
+            }
+            return Long.compare(b.mediaId, a.mediaId);
+        }
+    };
+
+    /**
+     * 지연 로드되는 필드 (EXIF/설명 저장소를 읽어야 알 수 있는 값)
+     */
+    public static final int FIELD_GPS = 1;
+    public static final int FIELD_DESCRIPTION = 1 << 1;
+    public static final int FIELD_ORIENTATION = 1 << 2;
+    public static final int ALL_FIELDS = FIELD_GPS | FIELD_DESCRIPTION | FIELD_ORIENTATION;
+
+    private long mediaId;
+    private long dateModified;
     private String imagePath;
     private String imageName;
     private String description;
@@ -15,6 +39,8 @@ public class ImageData {
     private int width;
     private int height;
     private String mimeType;
+    private int orientation;
+    private volatile int resolvedFields;
 
     public ImageData() {
         this.gpsData = new GPSData();
@@ -27,6 +53,22 @@ public class ImageData {
     }
 
     // Getter and Setter methods
+    public long getMediaId() {
+        return mediaId;
+    }
+
+    public void setMediaId(long mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    public long getDateModified() {
+        return dateModified;
+    }
+
+    public void setDateModified(long dateModified) {
+        this.dateModified = dateModified;
+    }
+
     public String getImagePath() {
         return imagePath;
     }
@@ -50,6 +92,7 @@ public class ImageData {
 
     public void setDescription(String description) {
         this.description = description;
+        this.resolvedFields |= FIELD_DESCRIPTION;
     }
 
     public GPSData getGpsData() {
@@ -58,6 +101,7 @@ public class ImageData {
 
     public void setGpsData(GPSData gpsData) {
         this.gpsData = gpsData;
+        this.resolvedFields |= FIELD_GPS;
     }
 
     public long getDateTaken() {
@@ -100,6 +144,63 @@ public class ImageData {
         this.mimeType = mimeType;
     }
 
+    /**
+     * EXIF 방향 값 (ExifInterface.ORIENTATION_*, 0 이면 알 수 없음)
+     */
+    public int getOrientation() {
+        return orientation;
+    }
+
+    public void setOrientation(int orientation) {
+        this.orientation = orientation;
+        this.resolvedFields |= FIELD_ORIENTATION;
+    }
+
+    public int getResolvedFields() {
+        return resolvedFields;
+    }
+
+    public void setResolvedFields(int resolvedFields) {
+        this.resolvedFields = resolvedFields;
+    }
+
+    /**
+     * 같은 이미지를 나타내는 다른 객체에서 읽힌 지연 필드를 복사
+     */
+    public void copyResolvedFields(ImageData source) {
+        int fields = source.resolvedFields;
+        if ((fields & FIELD_GPS) != 0) {
+            setGpsData(source.gpsData);
+        }
+        if ((fields & FIELD_DESCRIPTION) != 0) {
+            setDescription(source.description);
+        }
+        if ((fields & FIELD_ORIENTATION) != 0) {
+            setOrientation(source.orientation);
+        }
+    }
+
+    /**
+     * 한 번에 읽은 메타데이터로 GPS/방향을 채우고, MediaStore 에 없던 크기를 보충
+     *
+     * 촬영 시각은 목록 정렬 기준이므로 MediaStore 값을 그대로 둔다.
+     */
+    public void applyMetadata(ImageMetadata metadata) {
+        setGpsData(metadata.getGpsData());
+        setOrientation(metadata.getOrientation());
+        if ((width <= 0 || height <= 0) && metadata.hasSize()) {
+            width = metadata.getWidth();
+            height = metadata.getHeight();
+        }
+    }
+
+    /**
+     * 지정한 지연 필드가 모두 읽혔는지 확인
+     */
+    public boolean isResolved(int fields) {
+        return (resolvedFields & fields) == fields;
+    }
+
     /**
      * 이미지가 GPS 정보를 가지고 있는지 확인
      */
@@ -107,6 +208,16 @@ public class ImageData {
         return gpsData != null && gpsData.hasGPS();
     }
 
+    /**
+     * MediaStore 행의 수정 시각/크기/경로가 저장된 값과 같은지 확인
+     */
+    public boolean matchesFingerprint(String imagePath, long dateModified, long fileSize) {
+        return this.dateModified == dateModified
+                && this.fileSize == fileSize
+                && this.imagePath != null
+                && this.imagePath.equals(imagePath);
+    }
+
     /**
      * 설명 텍스트 파일 경로 생성
      */
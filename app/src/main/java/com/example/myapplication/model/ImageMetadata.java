@@ -0,0 +1,74 @@
+package com.example.myapplication.model;
+
+/**
+ * 파일을 한 번 읽어 얻은 이미지 메타데이터 (방향, GPS, 촬영 시각, 크기)
+ */
+public class ImageMetadata {
+    private final int orientation;
+    private final GPSData gpsData;
+    private final long dateTaken;
+    private final int width;
+    private final int height;
+    private final boolean fileMissing;
+
+    public ImageMetadata(int orientation, GPSData gpsData, long dateTaken, int width, int height) {
+        this(orientation, gpsData, dateTaken, width, height, false);
+    }
+
+    private ImageMetadata(int orientation, GPSData gpsData, long dateTaken, int width, int height,
+                          boolean fileMissing) {
+        this.orientation = orientation;
+        this.gpsData = gpsData != null ? gpsData : new GPSData();
+        this.dateTaken = dateTaken;
+        this.width = width;
+        this.height = height;
+        this.fileMissing = fileMissing;
+    }
+
+    /**
+     * 파일이 없어 읽지 못했을 때의 빈 메타데이터
+     */
+    public static ImageMetadata fileMissing() {
+        return new ImageMetadata(0, null, 0, 0, 0, true);
+    }
+
+    /**
+     * EXIF 방향 값 (ExifInterface.ORIENTATION_*, 0 이면 알 수 없음)
+     */
+    public int getOrientation() {
+        return orientation;
+    }
+
+    public GPSData getGpsData() {
+        return gpsData;
+    }
+
+    /**
+     * EXIF 촬영 시각 (0 이면 알 수 없음)
+     */
+    public long getDateTaken() {
+        return dateTaken;
+    }
+
+    /**
+     * 회전 보정 전 저장된 크기 (0 이면 알 수 없음)
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean hasSize() {
+        return width > 0 && height > 0;
+    }
+
+    /**
+     * MediaStore 행은 있지만 파일이 지워졌는지 확인
+     */
+    public boolean isFileMissing() {
+        return fileMissing;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.myapplication.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 재사용할 비트맵 풀
+ *
+ * 더 이상 쓰지 않는 가변(mutable) 비트맵을 할당 크기별 버킷에 모아 두었다가
+ * 디코딩(BitmapFactory.Options.inBitmap)이나 회전/축소 대상 비트맵으로 다시 쓴다.
+ * API 19 부터는 크기가 같지 않아도 할당 크기만 충분하면 재사용할 수 있으므로,
+ * 필요한 크기 이상이면서 두 배를 넘지 않는 가장 작은 버킷에서 꺼낸다.
+ * 풀에 넣은 비트맵은 호출한 쪽에서 더 이상 참조하면 안 된다.
+ */
+public class BitmapPool {
+
+    // 이보다 두 배 넘게 큰 비트맵은 메모리 낭비라 재사용하지 않음
+    private static final int MAX_SIZE_RATIO = 2;
+
+    private static BitmapPool instance;
+
+    private final long maxPoolBytes;
+    // 할당 크기 → 비트맵들
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> buckets = new TreeMap<>();
+    private long pooledBytes;
+    private int hits;
+    private int misses;
+
+    public static synchronized BitmapPool getInstance() {
+        if (instance == null) {
+            // 앱 최대 메모리의 1/8 (화면 크기 비트맵 두 장 정도)
+            instance = new BitmapPool(Runtime.getRuntime().maxMemory() / 8);
+        }
+        return instance;
+    }
+
+    private BitmapPool(long maxPoolBytes) {
+        this.maxPoolBytes = maxPoolBytes;
+    }
+
+    /**
+     * width x height 크기로 바꾼 빈 비트맵 (풀에 없으면 새로 만듦, 그리기 대상용)
+     */
+    public Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = take(byteCountOf(width, height, config));
+        if (bitmap == null) {
+            return Bitmap.createBitmap(width, height, config);
+        }
+
+        bitmap.reconfigure(width, height, config);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * 디코딩 결과를 담을 수 있는 비트맵 (inBitmap 용, 없으면 null)
+     */
+    public Bitmap getForDecode(int width, int height, Bitmap.Config config) {
+        return take(byteCountOf(width, height, config));
+    }
+
+    /**
+     * 다 쓴 비트맵 반납 (가변이 아니거나 풀이 가득 차면 recycle)
+     */
+    public synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+
+        int size = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || size > maxPoolBytes / 2) {
+            bitmap.recycle();
+            return;
+        }
+
+        ArrayDeque<Bitmap> bucket = buckets.get(size);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(size, bucket);
+        }
+        bucket.addLast(bitmap);
+        pooledBytes += size;
+
+        // 넘치면 큰 것부터 버림 (큰 비트맵은 맞는 요청이 드물다)
+        while (pooledBytes > maxPoolBytes && !buckets.isEmpty()) {
+            Map.Entry<Integer, ArrayDeque<Bitmap>> largest = buckets.lastEntry();
+            Bitmap evicted = largest.getValue().pollFirst();
+            if (largest.getValue().isEmpty()) {
+                buckets.remove(largest.getKey());
+            }
+            pooledBytes -= largest.getKey();
+            evicted.recycle();
+        }
+    }
+
+    /**
+     * 풀 비우기 (메모리가 부족할 때 호출)
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Bitmap> bucket : buckets.values()) {
+            for (Bitmap bitmap : bucket) {
+                bitmap.recycle();
+            }
+        }
+        buckets.clear();
+        pooledBytes = 0;
+    }
+
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    private synchronized Bitmap take(int byteCount) {
+        Map.Entry<Integer, ArrayDeque<Bitmap>> entry = buckets.ceilingEntry(byteCount);
+        if (entry == null || entry.getKey() > (long) byteCount * MAX_SIZE_RATIO) {
+            misses++;
+            return null;
+        }
+
+        Bitmap bitmap = entry.getValue().pollFirst();
+        if (entry.getValue().isEmpty()) {
+            buckets.remove(entry.getKey());
+        }
+        pooledBytes -= entry.getKey();
+        hits++;
+        return bitmap;
+    }
+
+    static int byteCountOf(int width, int height, Bitmap.Config config) {
+        return width * height * bytesPerPixel(config);
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        }
+        if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+            return 2;
+        }
+        return 4;
+    }
+}
@@ -45,6 +45,18 @@ public class DateUtils {
         return sdf.format(new Date(timestamp));
     }
     
+    /**
+     * 타임스탬프를 연/월만 표시하는 형식으로 변환 (타임라인 구간 제목)
+     */
+    public static String formatMonth(long timestamp) {
+        if (timestamp <= 0) {
+            return "알 수 없음";
+        }
+        
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy년 M월", Locale.getDefault());
+        return sdf.format(new Date(timestamp));
+    }
+    
     /**
      * 상대적 시간 표시 (예: 2시간 전, 3일 전)
      */
@@ -0,0 +1,382 @@
+package com.example.myapplication.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.myapplication.model.ImageData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 이미지 설명 저장소
+ *
+ * 이미지마다 옆에 두던 .txt 사이드카 파일 대신 설명을 이미지 경로를 키로 SQLite 테이블 하나에 모아 두고,
+ * 처음 조회할 때 전체를 메모리 맵에 올려 이후 조회는 파일을 열지 않고 맵에서 찾는다.
+ * 설명이 있는 이미지는 일부뿐이므로 맵은 작다.
+ * 사이드카 파일은 동기화할 때 importNewSidecars() 로 새로 생긴 것만 옮기며, 다른 앱과 함께 쓰려면
+ * 사이드카 내보내기를 켜 저장할 때마다 .txt 파일도 함께 쓴다 (이미 사이드카가 있는 이미지는 항상 함께 갱신).
+ * 저장은 메모리에 바로 반영하고 디스크 쓰기는 모아서 한 트랜잭션으로 하며, 사이드카는 임시 파일에 쓴 뒤 바꿔 끼운다.
+ * MediaIndex 와 달리 사용자가 쓴 데이터이므로 스키마가 바뀌어도 지우지 않는다.
+ */
+public class DescriptionStore extends SQLiteOpenHelper {
+    private static final String TAG = "DescriptionStore";
+
+    private static final String DATABASE_NAME = "descriptions.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_DESCRIPTIONS = "descriptions";
+    private static final String COL_PATH = "path";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_UPDATED_AT = "updated_at";
+
+    private static final String PREFS_NAME = "description_store";
+    private static final String KEY_EXPORT_SIDECARS = "export_sidecars";
+
+    private static final String SIDECAR_EXTENSION = ".txt";
+
+    // 저장을 모았다가 쓰기까지 기다리는 시간
+    private static final long WRITE_DELAY_MS = 500;
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private static DescriptionStore instance;
+
+    private final SharedPreferences preferences;
+    private final SidecarIndex sidecarIndex = new SidecarIndex(SIDECAR_EXTENSION);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // flush() 를 한 번에 하나만 실행
+    private final Object flushLock = new Object();
+
+    // 아래 필드는 this 잠금 안에서 접근
+    // 경로 → 설명 (처음 조회할 때 전체 로드)
+    private Map<String, String> descriptions;
+    // 아직 디스크에 쓰지 않은 설명 (경로 → 마지막 저장)
+    private final Map<String, PendingWrite> pending = new HashMap<>();
+    private boolean flushScheduled;
+
+    private static class PendingWrite {
+        final String sidecarPath;
+        final String description;
+
+        PendingWrite(String sidecarPath, String description) {
+            this.sidecarPath = sidecarPath;
+            this.description = description;
+        }
+    }
+
+    public static synchronized DescriptionStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new DescriptionStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private DescriptionStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_DESCRIPTIONS + " ("
+                + COL_PATH + " TEXT PRIMARY KEY, "
+                + COL_DESCRIPTION + " TEXT NOT NULL, "
+                + COL_UPDATED_AT + " INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // 첫 버전 (이후 버전에서 설명을 보존하며 변경)
+    }
+
+    /**
+     * 이미지 설명 (없으면 빈 문자열, 백그라운드 스레드에서 호출)
+     */
+    public synchronized String get(String imagePath) {
+        if (imagePath == null) {
+            return "";
+        }
+        String description = loadIfNeeded().get(imagePath);
+        return description != null ? description : "";
+    }
+
+    /**
+     * 목록의 설명을 저장소 값으로 채움 (파일을 열지 않고 메모리 맵 조회만 함, 백그라운드 스레드에서 호출)
+     */
+    public synchronized void resolve(List<ImageData> images) {
+        Map<String, String> current = loadIfNeeded();
+        for (ImageData imageData : images) {
+            String description = current.get(imageData.getImagePath());
+            imageData.setDescription(description != null ? description : "");
+        }
+    }
+
+    /**
+     * 설명 저장 (빈 설명이면 지움, 백그라운드 스레드에서 호출하지만 디스크 쓰기는 기다리지 않음)
+     *
+     * 메모리 맵은 바로 바꾸고 디스크 쓰기는 잠시 모았다가 flush() 에서 한 번에 한다.
+     * 짧은 시간에 같은 이미지를 여러 번 저장하면 마지막 설명만 쓴다.
+     *
+     * @return 저장을 받아들였으면 true (쓰기 실패는 로그를 남기고 다음 flush() 에서 다시 시도)
+     */
+    public boolean put(ImageData imageData, String description) {
+        String imagePath = imageData.getImagePath();
+        if (imagePath == null) {
+            return false;
+        }
+        String value = description != null ? description : "";
+
+        synchronized (this) {
+            if (value.isEmpty()) {
+                loadIfNeeded().remove(imagePath);
+            } else {
+                loadIfNeeded().put(imagePath, value);
+            }
+            pending.put(imagePath, new PendingWrite(imageData.getDescriptionFilePath(), value));
+            if (flushScheduled) {
+                return true;
+            }
+            flushScheduled = true;
+        }
+        mainHandler.postDelayed(this::scheduleFlush, WRITE_DELAY_MS);
+        return true;
+    }
+
+    /**
+     * 밀린 설명 쓰기를 BACKGROUND 레인에 바로 넣음 (화면이 백그라운드로 갈 때 호출)
+     */
+    public void flushAsync() {
+        mainHandler.removeCallbacksAndMessages(null);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        TaskScheduler.getInstance().submit(TaskScheduler.Lane.BACKGROUND, this::flush);
+    }
+
+    /**
+     * 밀린 설명을 한 트랜잭션으로 쓰고 필요한 사이드카 파일을 이어서 씀 (백그라운드 스레드에서 호출)
+     *
+     * @return 모두 썼으면 true
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            Map<String, PendingWrite> batch;
+            synchronized (this) {
+                flushScheduled = false;
+                if (pending.isEmpty()) {
+                    return true;
+                }
+                // 경로 순서로 정렬해 같은 폴더의 사이드카를 이어서 씀
+                batch = new TreeMap<>(pending);
+                pending.clear();
+            }
+
+            try {
+                SQLiteDatabase db = getWritableDatabase();
+                db.beginTransaction();
+                try {
+                    for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+                        String description = entry.getValue().description;
+                        if (description.isEmpty()) {
+                            db.delete(TABLE_DESCRIPTIONS, COL_PATH + " = ?", new String[]{entry.getKey()});
+                        } else {
+                            db.insertWithOnConflict(TABLE_DESCRIPTIONS, null,
+                                toContentValues(entry.getKey(), description), SQLiteDatabase.CONFLICT_REPLACE);
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "설명 저장 오류 (" + batch.size() + "개)", e);
+                requeue(batch);
+                return false;
+            }
+
+            // 다른 앱이 읽던 사이드카가 있으면 내용이 어긋나지 않도록 함께 갱신
+            boolean exportEnabled = isSidecarExportEnabled();
+            for (PendingWrite write : batch.values()) {
+                if (write.sidecarPath == null
+                        || !(exportEnabled || FileUtils.fileExists(write.sidecarPath))) {
+                    continue;
+                }
+                if (!FileUtils.saveTextFile(write.sidecarPath, write.description)) {
+                    Log.w(TAG, "사이드카 파일 쓰기 실패: " + write.sidecarPath);
+                }
+            }
+            return true;
+        }
+    }
+
+    // 실패한 쓰기를 되돌려 놓음 (그 사이 새로 저장한 설명이 있으면 그쪽을 유지)
+    private void requeue(Map<String, PendingWrite> batch) {
+        synchronized (this) {
+            for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+                if (!pending.containsKey(entry.getKey())) {
+                    pending.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        mainHandler.postDelayed(this::scheduleFlush, RETRY_DELAY_MS);
+    }
+
+    public boolean isSidecarExportEnabled() {
+        return preferences.getBoolean(KEY_EXPORT_SIDECARS, false);
+    }
+
+    /**
+     * 저장할 때 .txt 사이드카 파일도 함께 쓸지 설정
+     */
+    public void setSidecarExportEnabled(boolean enabled) {
+        preferences.edit().putBoolean(KEY_EXPORT_SIDECARS, enabled).apply();
+    }
+
+    /**
+     * 저장소의 모든 설명을 사이드카 파일로 내보냄 (백그라운드 스레드에서 호출)
+     *
+     * @return 쓴 파일 수
+     */
+    public int exportSidecars(List<ImageData> images) {
+        int written = 0;
+        for (ImageData imageData : images) {
+            String description = get(imageData.getImagePath());
+            if (!description.isEmpty() && FileUtils.saveTextFile(imageData.getDescriptionFilePath(), description)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 새로 생긴 사이드카 파일을 저장소로 옮김 (동기화할 때, 백그라운드 스레드에서 호출)
+     *
+     * 폴더마다 SidecarIndex 로 지난번 이후 생긴 .txt 만 찾으므로 바뀌지 않은 폴더는 stat 한 번으로 넘어간다.
+     * 처음 호출하면 모든 사이드카가 대상이며, 저장소에 이미 설명이 있는 이미지는 덮어쓰지 않는다.
+     *
+     * @return 옮긴 설명 (이미지 경로 → 설명)
+     */
+    public Map<String, String> importNewSidecars(List<ImageData> images) {
+        // 폴더 → 그 폴더의 이미지
+        Map<String, List<ImageData>> imagesByDirectory = new HashMap<>();
+        for (ImageData imageData : images) {
+            String path = imageData.getImagePath();
+            int separator = path != null ? path.lastIndexOf(File.separatorChar) : -1;
+            if (separator <= 0 || path.lastIndexOf('.') <= separator) {
+                continue;
+            }
+            String directory = path.substring(0, separator);
+            List<ImageData> directoryImages = imagesByDirectory.get(directory);
+            if (directoryImages == null) {
+                directoryImages = new ArrayList<>();
+                imagesByDirectory.put(directory, directoryImages);
+            }
+            directoryImages.add(imageData);
+        }
+
+        Map<String, String> found = new HashMap<>();
+        for (Map.Entry<String, List<ImageData>> entry : imagesByDirectory.entrySet()) {
+            Set<String> sidecarNames = sidecarIndex.refresh(entry.getKey());
+            if (sidecarNames.isEmpty()) {
+                continue;
+            }
+
+            for (ImageData imageData : entry.getValue()) {
+                String sidecarPath = imageData.getDescriptionFilePath();
+                String sidecarName = sidecarPath.substring(sidecarPath.lastIndexOf(File.separatorChar) + 1);
+                if (sidecarNames.contains(sidecarName) && get(imageData.getImagePath()).isEmpty()) {
+                    String description = FileUtils.readTextFile(sidecarPath);
+                    if (!description.isEmpty()) {
+                        found.put(imageData.getImagePath(), description);
+                    }
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            return found;
+        }
+
+        Map<String, String> imported;
+        synchronized (this) {
+            imported = insertMissing(found);
+        }
+        Log.d(TAG, "사이드카 " + imported.size() + "개를 설명 저장소로 옮김");
+        return imported;
+    }
+
+    // this 잠금 안에서 호출, 저장소에 없는 설명만 추가 (추가한 설명 반환)
+    private Map<String, String> insertMissing(Map<String, String> found) {
+        Map<String, String> current = loadIfNeeded();
+        Map<String, String> missing = new HashMap<>();
+        for (Map.Entry<String, String> entry : found.entrySet()) {
+            // 아직 쓰지 않은 저장(삭제 포함)이 있으면 그쪽이 우선
+            if (!current.containsKey(entry.getKey()) && !pending.containsKey(entry.getKey())) {
+                missing.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (missing.isEmpty()) {
+            return missing;
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Map.Entry<String, String> entry : missing.entrySet()) {
+                db.insertWithOnConflict(TABLE_DESCRIPTIONS, null, toContentValues(entry.getKey(), entry.getValue()),
+                    SQLiteDatabase.CONFLICT_IGNORE);
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "사이드카 가져오기 오류", e);
+            return new HashMap<>();
+        } finally {
+            db.endTransaction();
+        }
+
+        current.putAll(missing);
+        return missing;
+    }
+
+    // this 잠금 안에서 호출
+    private Map<String, String> loadIfNeeded() {
+        if (descriptions != null) {
+            return descriptions;
+        }
+
+        descriptions = new HashMap<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_DESCRIPTIONS,
+                new String[]{COL_PATH, COL_DESCRIPTION}, null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                descriptions.put(cursor.getString(0), cursor.getString(1));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "설명 저장소 로드 오류", e);
+        }
+        return descriptions;
+    }
+
+    private static ContentValues toContentValues(String imagePath, String description) {
+        ContentValues values = new ContentValues();
+        values.put(COL_PATH, imagePath);
+        values.put(COL_DESCRIPTION, description);
+        values.put(COL_UPDATED_AT, System.currentTimeMillis());
+        return values;
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.myapplication.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Calendar;
+
+/**
+ * JPEG EXIF 에서 GPS, 방향, 촬영 시각과 이미지 크기만 읽는 경량 파서
+ *
+ * ExifInterface 는 파일 전체 태그를 문자열로 만들어 두지만, 여기서는 APP1 세그먼트만 읽어
+ * IFD0 → GPS/Exif IFD 포인터를 직접 따라가며 필요한 값만 기본형으로 변환하고, SOF 에서 크기를 읽는다.
+ * 읽기 버퍼는 스레드마다 재사용하므로 호출당 할당이 없다. Android API 를 쓰지 않아 JVM 에서 테스트할 수 있다.
+ */
+public final class ExifParser {
+
+    // ExifInterface.ORIENTATION_UNDEFINED 와 같은 값
+    public static final int ORIENTATION_UNDEFINED = 0;
+
+    // APP1 세그먼트 최대 길이 (길이 필드 2바이트)
+    private static final int MAX_SEGMENT_LENGTH = 0xFFFF;
+
+    private static final int MARKER_SOI = 0xFFD8;
+    private static final int MARKER_APP1 = 0xFFE1;
+    private static final int MARKER_SOS = 0xFFDA;
+    private static final int MARKER_EOI = 0xFFD9;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_GPS_IFD_POINTER = 0x8825;
+    private static final int TAG_EXIF_IFD_POINTER = 0x8769;
+    private static final int TAG_DATETIME_ORIGINAL = 0x9003;
+    private static final int TAG_GPS_LATITUDE_REF = 0x0001;
+    private static final int TAG_GPS_LATITUDE = 0x0002;
+    private static final int TAG_GPS_LONGITUDE_REF = 0x0003;
+    private static final int TAG_GPS_LONGITUDE = 0x0004;
+    private static final int TAG_GPS_ALTITUDE_REF = 0x0005;
+    private static final int TAG_GPS_ALTITUDE = 0x0006;
+
+    private static final int TYPE_BYTE = 1;
+    private static final int TYPE_ASCII = 2;
+    private static final int TYPE_SHORT = 3;
+    private static final int TYPE_LONG = 4;
+    private static final int TYPE_RATIONAL = 5;
+
+    // 손상된 파일에서 IFD 를 끝없이 읽지 않도록 제한
+    private static final int MAX_IFD_ENTRIES = 512;
+
+    private static final ThreadLocal<ByteBuffer> SEGMENT_BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(MAX_SEGMENT_LENGTH);
+        }
+    };
+
+    /**
+     * 파싱 결과 (호출자가 재사용할 수 있도록 값만 담음)
+     */
+    public static final class Result {
+        public boolean hasGPS;
+        public double latitude;
+        public double longitude;
+        public boolean hasAltitude;
+        public double altitude;
+        public int orientation;
+        // 촬영 시각 (기기 시간대 기준 밀리초, 0 이면 알 수 없음)
+        public long dateTaken;
+        public int width;
+        public int height;
+
+        public void clear() {
+            hasGPS = false;
+            latitude = 0;
+            longitude = 0;
+            hasAltitude = false;
+            altitude = 0;
+            orientation = ORIENTATION_UNDEFINED;
+            dateTaken = 0;
+            width = 0;
+            height = 0;
+        }
+    }
+
+    private ExifParser() {
+    }
+
+    /**
+     * 파일에서 EXIF 와 이미지 크기 읽기
+     *
+     * 마커 헤더만 읽으며 세그먼트를 건너뛰다가 Exif APP1 본문만 버퍼로 읽고, SOF 에서 크기를 읽은 뒤 멈춘다.
+     *
+     * @return JPEG 구조를 SOF 까지 읽었으면 true (JPEG 가 아니거나 손상되었으면 false, 이때는 ExifInterface 로 다시 읽는다)
+     */
+    public static boolean parse(String imagePath, Result result) throws IOException {
+        result.clear();
+        try (FileInputStream inputStream = new FileInputStream(imagePath);
+             FileChannel channel = inputStream.getChannel()) {
+            ByteBuffer buffer = SEGMENT_BUFFER.get();
+            long size = channel.size();
+
+            buffer.clear().limit(2);
+            if (!readFully(channel, buffer, 0) || (buffer.getShort(0) & 0xFFFF) != MARKER_SOI) {
+                return false;
+            }
+
+            long position = 2;
+            while (position + 4 <= size) {
+                buffer.clear().limit(4);
+                if (!readFully(channel, buffer, position)) {
+                    return false;
+                }
+                int marker = buffer.getShort(0) & 0xFFFF;
+                int length = buffer.getShort(2) & 0xFFFF;
+                if ((marker & 0xFF00) != 0xFF00 || marker == MARKER_SOS || marker == MARKER_EOI || length < 2) {
+                    return false;
+                }
+
+                if (isSofMarker(marker)) {
+                    buffer.clear().limit(5);
+                    return readFully(channel, buffer, position + 4) && readSof(buffer, 0, result);
+                }
+
+                if (marker == MARKER_APP1 && length > 8) {
+                    buffer.clear().limit(length - 2);
+                    if (!readFully(channel, buffer, position + 4)) {
+                        return false;
+                    }
+                    // 버퍼를 다음 세그먼트에 재사용하므로 바로 해석한다
+                    if (isExifHeader(buffer, 0)) {
+                        buffer.position(6);
+                        if (!parseTiff(buffer.slice(), result)) {
+                            return false;
+                        }
+                    }
+                }
+                position += 2 + length;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 메모리에 있는 JPEG 바이트에서 EXIF 와 이미지 크기 읽기
+     */
+    public static boolean parse(byte[] jpeg, Result result) {
+        result.clear();
+        ByteBuffer buffer = ByteBuffer.wrap(jpeg);
+        if (jpeg.length < 4 || (buffer.getShort(0) & 0xFFFF) != MARKER_SOI) {
+            return false;
+        }
+
+        int position = 2;
+        while (position + 4 <= jpeg.length) {
+            int marker = buffer.getShort(position) & 0xFFFF;
+            int length = buffer.getShort(position + 2) & 0xFFFF;
+            if ((marker & 0xFF00) != 0xFF00 || marker == MARKER_SOS || marker == MARKER_EOI || length < 2
+                    || position + 2 + length > jpeg.length) {
+                return false;
+            }
+
+            if (isSofMarker(marker)) {
+                return readSof(buffer, position + 4, result);
+            }
+            if (marker == MARKER_APP1 && length > 8 && isExifHeader(buffer, position + 4)) {
+                ByteBuffer tiff = ByteBuffer.wrap(jpeg, position + 10, length - 8).slice();
+                if (!parseTiff(tiff, result)) {
+                    return false;
+                }
+            }
+            position += 2 + length;
+        }
+        return false;
+    }
+
+    // SOF0~SOF15 (DHT, JPG, DAC 제외)
+    private static boolean isSofMarker(int marker) {
+        return marker >= 0xFFC0 && marker <= 0xFFCF
+                && marker != 0xFFC4 && marker != 0xFFC8 && marker != 0xFFCC;
+    }
+
+    /**
+     * SOF 본문 (정밀도 1바이트, 높이 2바이트, 너비 2바이트)
+     */
+    private static boolean readSof(ByteBuffer buffer, int offset, Result result) {
+        if (buffer.limit() < offset + 5) {
+            return false;
+        }
+        result.height = buffer.getShort(offset + 1) & 0xFFFF;
+        result.width = buffer.getShort(offset + 3) & 0xFFFF;
+        return true;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    // "Exif\0\0"
+    private static boolean isExifHeader(ByteBuffer buffer, int offset) {
+        return buffer.limit() >= offset + 6
+                && buffer.get(offset) == 'E' && buffer.get(offset + 1) == 'x'
+                && buffer.get(offset + 2) == 'i' && buffer.get(offset + 3) == 'f'
+                && buffer.get(offset + 4) == 0 && buffer.get(offset + 5) == 0;
+    }
+
+    /**
+     * TIFF 헤더부터 IFD0 과 GPS IFD 를 읽음 (offset 은 모두 TIFF 헤더 기준)
+     */
+    private static boolean parseTiff(ByteBuffer tiff, Result result) {
+        int limit = tiff.limit();
+        if (limit < 8) {
+            return false;
+        }
+
+        int byteOrder = tiff.getShort(0) & 0xFFFF;
+        if (byteOrder == 0x4949) {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (byteOrder == 0x4D4D) {
+            tiff.order(ByteOrder.BIG_ENDIAN);
+        } else {
+            return false;
+        }
+        if ((tiff.getShort(2) & 0xFFFF) != 42) {
+            return false;
+        }
+
+        int ifd0 = tiff.getInt(4);
+        int entryCount = readEntryCount(tiff, ifd0);
+        if (entryCount < 0) {
+            return false;
+        }
+
+        int gpsIfd = -1;
+        int exifIfd = -1;
+        for (int i = 0; i < entryCount; i++) {
+            int entry = ifd0 + 2 + i * 12;
+            int tag = tiff.getShort(entry) & 0xFFFF;
+            if (tag == TAG_ORIENTATION) {
+                result.orientation = readShortOrLong(tiff, entry);
+            } else if (tag == TAG_GPS_IFD_POINTER) {
+                gpsIfd = tiff.getInt(entry + 8);
+            } else if (tag == TAG_EXIF_IFD_POINTER) {
+                exifIfd = tiff.getInt(entry + 8);
+            }
+        }
+
+        if (gpsIfd > 0) {
+            parseGps(tiff, gpsIfd, result);
+        }
+        if (exifIfd > 0) {
+            parseExifIfd(tiff, exifIfd, result);
+        }
+        return true;
+    }
+
+    private static void parseExifIfd(ByteBuffer tiff, int exifIfd, Result result) {
+        int entryCount = readEntryCount(tiff, exifIfd);
+        for (int i = 0; i < entryCount; i++) {
+            int entry = exifIfd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == TAG_DATETIME_ORIGINAL) {
+                result.dateTaken = readDateTime(tiff, entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * "yyyy:MM:dd HH:mm:ss" 를 문자열 생성 없이 기기 시간대 기준 밀리초로 변환 (형식이 다르면 0)
+     */
+    private static long readDateTime(ByteBuffer tiff, int entry) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        int count = tiff.getInt(entry + 4);
+        int offset = tiff.getInt(entry + 8);
+        if (type != TYPE_ASCII || count < 19 || offset < 0 || offset + 19 > tiff.limit()) {
+            return 0;
+        }
+
+        int year = readDigits(tiff, offset, 4);
+        int month = readDigits(tiff, offset + 5, 2);
+        int day = readDigits(tiff, offset + 8, 2);
+        int hour = readDigits(tiff, offset + 11, 2);
+        int minute = readDigits(tiff, offset + 14, 2);
+        int second = readDigits(tiff, offset + 17, 2);
+        if (year <= 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return 0;
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        return calendar.getTimeInMillis();
+    }
+
+    // 숫자가 아니면 -1
+    private static int readDigits(ByteBuffer tiff, int offset, int length) {
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = tiff.get(offset + i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void parseGps(ByteBuffer tiff, int gpsIfd, Result result) {
+        int entryCount = readEntryCount(tiff, gpsIfd);
+        if (entryCount < 0) {
+            return;
+        }
+
+        int latRef = 0;
+        int lonRef = 0;
+        int altRef = 0;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double altitude = Double.NaN;
+
+        for (int i = 0; i < entryCount; i++) {
+            int entry = gpsIfd + 2 + i * 12;
+            int tag = tiff.getShort(entry) & 0xFFFF;
+            switch (tag) {
+                case TAG_GPS_LATITUDE_REF:
+                    latRef = readAsciiChar(tiff, entry);
+                    break;
+                case TAG_GPS_LATITUDE:
+                    latitude = readDegrees(tiff, entry);
+                    break;
+                case TAG_GPS_LONGITUDE_REF:
+                    lonRef = readAsciiChar(tiff, entry);
+                    break;
+                case TAG_GPS_LONGITUDE:
+                    longitude = readDegrees(tiff, entry);
+                    break;
+                case TAG_GPS_ALTITUDE_REF:
+                    altRef = readByte(tiff, entry);
+                    break;
+                case TAG_GPS_ALTITUDE:
+                    altitude = readRational(tiff, entry, 0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // ExifInterface 와 마찬가지로 위도/경도와 방향 기호가 모두 있어야 유효
+        if (Double.isNaN(latitude) || Double.isNaN(longitude) || latRef == 0 || lonRef == 0) {
+            return;
+        }
+
+        result.hasGPS = true;
+        result.latitude = latRef == 'S' ? -latitude : latitude;
+        result.longitude = lonRef == 'W' ? -longitude : longitude;
+        if (!Double.isNaN(altitude)) {
+            result.hasAltitude = true;
+            // 1 이면 해수면 아래
+            result.altitude = altRef == 1 ? -altitude : altitude;
+        }
+    }
+
+    /**
+     * IFD 항목 수 읽기 (범위를 벗어나면 -1)
+     */
+    private static int readEntryCount(ByteBuffer tiff, int ifdOffset) {
+        if (ifdOffset < 8 || ifdOffset + 2 > tiff.limit()) {
+            return -1;
+        }
+        int count = tiff.getShort(ifdOffset) & 0xFFFF;
+        if (count > MAX_IFD_ENTRIES || ifdOffset + 2 + count * 12 > tiff.limit()) {
+            return -1;
+        }
+        return count;
+    }
+
+    private static int readShortOrLong(ByteBuffer tiff, int entry) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        if (type == TYPE_SHORT) {
+            return tiff.getShort(entry + 8) & 0xFFFF;
+        } else if (type == TYPE_LONG) {
+            return tiff.getInt(entry + 8);
+        }
+        return ORIENTATION_UNDEFINED;
+    }
+
+    // 값이 4바이트 이하면 항목 안에 바로 들어 있다
+    private static int readAsciiChar(ByteBuffer tiff, int entry) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        return type == TYPE_ASCII ? tiff.get(entry + 8) & 0xFF : 0;
+    }
+
+    private static int readByte(ByteBuffer tiff, int entry) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        return type == TYPE_BYTE ? tiff.get(entry + 8) & 0xFF : 0;
+    }
+
+    /**
+     * 도/분/초 RATIONAL 3개를 십진 도로 변환
+     */
+    private static double readDegrees(ByteBuffer tiff, int entry) {
+        double degrees = readRational(tiff, entry, 0);
+        double minutes = readRational(tiff, entry, 1);
+        double seconds = readRational(tiff, entry, 2);
+        return degrees + minutes / 60.0 + seconds / 3600.0;
+    }
+
+    /**
+     * RATIONAL 배열의 index 번째 값 (형식이 맞지 않으면 NaN)
+     */
+    private static double readRational(ByteBuffer tiff, int entry, int index) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        int count = tiff.getInt(entry + 4);
+        if (type != TYPE_RATIONAL || index >= count) {
+            return Double.NaN;
+        }
+
+        int offset = tiff.getInt(entry + 8) + index * 8;
+        if (offset < 0 || offset + 8 > tiff.limit()) {
+            return Double.NaN;
+        }
+        long numerator = tiff.getInt(offset) & 0xFFFFFFFFL;
+        long denominator = tiff.getInt(offset + 4) & 0xFFFFFFFFL;
+        if (denominator == 0) {
+            return Double.NaN;
+        }
+        return (double) numerator / denominator;
+    }
+}
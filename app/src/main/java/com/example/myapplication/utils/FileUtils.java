@@ -10,7 +10,6 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -57,31 +56,36 @@ public class FileUtils {
 
     /**
      * 텍스트 파일 저장
+     *
+     * 같은 폴더의 임시 파일에 쓰고 fsync 한 뒤 이름을 바꿔 끼우므로 도중에 중단되어도 반쯤 쓴 파일이 남지 않는다.
      */
     public static boolean saveTextFile(String filePath, String content) {
         if (filePath == null || filePath.isEmpty()) {
             return false;
         }
 
+        File file = new File(filePath);
+        File parentDir = file.getParentFile();
+        // 디렉토리가 존재하지 않으면 생성
+        if (parentDir != null && !parentDir.isDirectory() && !parentDir.mkdirs()) {
+            Log.e(TAG, "디렉토리 생성 실패: " + parentDir);
+            return false;
+        }
+
+        // 확장자가 다르므로 사이드카 목록에 잡히지 않음
+        File tempFile = new File(parentDir, "." + file.getName() + ".tmp");
         try {
-            File file = new File(filePath);
-            
-            // 디렉토리가 존재하지 않으면 생성
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
+            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                fos.write(content.getBytes(StandardCharsets.UTF_8));
+                fos.getFD().sync();
             }
-
-            try (FileOutputStream fos = new FileOutputStream(file);
-                 OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
-
-                osw.write(content);
-                osw.flush();
-                return true;
-
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("이름 변경 실패: " + tempFile);
             }
+            return true;
         } catch (IOException e) {
             Log.e(TAG, "파일 저장 오류: " + filePath, e);
+            tempFile.delete();
             return false;
         }
     }
@@ -4,8 +4,14 @@ import android.media.ExifInterface;
 import android.util.Log;
 
 import com.example.myapplication.model.GPSData;
+import com.example.myapplication.model.ImageMetadata;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * GPS 관련 유틸리티 클래스
@@ -13,19 +19,54 @@ import java.io.IOException;
 public class GPSUtils {
     private static final String TAG = "GPSUtils";
 
+    // 배치 하나가 스케줄러에 한꺼번에 넣는 최대 작업 수 (나머지는 앞 작업이 끝나야 제출)
+    private static final int MAX_IN_FLIGHT_PER_BATCH = 8;
+
+    /**
+     * 일괄 추출 결과 콜백 (작업 스레드에서 호출)
+     */
+    public interface OnMetadataExtractedListener {
+        void onMetadataExtracted(int index, String imagePath, ImageMetadata metadata);
+    }
+
     /**
      * EXIF 데이터에서 GPS 정보 추출
      */
     public static GPSData extractGPSFromExif(String imagePath) {
-        GPSData gpsData = new GPSData();
-        
         if (imagePath == null || imagePath.isEmpty()) {
-            return gpsData;
+            return new GPSData();
+        }
+
+        try {
+            // JPEG 는 경량 파서로 읽고, 그 외 형식이나 손상된 파일만 ExifInterface 로 읽는다
+            ExifParser.Result result = new ExifParser.Result();
+            if (ExifParser.parse(imagePath, result)) {
+                return toGPSData(result);
+            }
+            return extractGPSFromExif(new ExifInterface(imagePath));
+        } catch (IOException e) {
+            Log.e(TAG, "EXIF 데이터 읽기 오류: " + imagePath, e);
+            return new GPSData();
+        }
+    }
+
+    /**
+     * ExifParser 결과를 GPSData 로 변환
+     */
+    public static GPSData toGPSData(ExifParser.Result result) {
+        if (!result.hasGPS) {
+            return new GPSData();
         }
+        return new GPSData(result.latitude, result.longitude, (float) result.altitude);
+    }
+
+    /**
+     * 이미 열린 EXIF 에서 GPS 정보 추출 (다른 태그와 함께 읽을 때 파일을 다시 열지 않음)
+     */
+    public static GPSData extractGPSFromExif(ExifInterface exifInterface) {
+        GPSData gpsData = new GPSData();
 
         try {
-            ExifInterface exifInterface = new ExifInterface(imagePath);
-            
             // GPS 태그 존재 여부 확인
             if (!exifInterface.hasAttribute(ExifInterface.TAG_GPS_LATITUDE) ||
                 !exifInterface.hasAttribute(ExifInterface.TAG_GPS_LONGITUDE)) {
@@ -58,15 +99,126 @@ public class GPSUtils {
 
             Log.d(TAG, "GPS 정보 추출 성공: " + latitude + ", " + longitude);
 
-        } catch (IOException e) {
-            Log.e(TAG, "EXIF 데이터 읽기 오류: " + imagePath, e);
         } catch (Exception e) {
-            Log.e(TAG, "GPS 데이터 파싱 오류: " + imagePath, e);
+            Log.e(TAG, "GPS 데이터 파싱 오류", e);
         }
 
         return gpsData;
     }
 
+    /**
+     * 여러 이미지의 메타데이터(GPS, 방향, 촬영 시각, 크기)를 TaskScheduler BACKGROUND 레인에서 병렬로 추출
+     *
+     * 결과는 끝나는 순서대로 listener 에 전달된다. 배치마다 동시에 제출하는 작업 수를
+     * 제한해 큰 목록도 큐에 한꺼번에 쌓이지 않으며, cancel() 로 남은 작업을 중단할 수 있다.
+     */
+    public static ExtractionBatch extractAll(List<String> imagePaths, OnMetadataExtractedListener listener) {
+        return extractAll(imagePaths, TaskScheduler.Lane.BACKGROUND, listener);
+    }
+
+    /**
+     * 지정한 레인에서 일괄 추출 (화면에 보이는 행이 있으면 VISIBLE)
+     */
+    public static ExtractionBatch extractAll(List<String> imagePaths, TaskScheduler.Lane lane,
+                                             OnMetadataExtractedListener listener) {
+        ExtractionBatch batch = new ExtractionBatch(TaskScheduler.getInstance(), lane, imagePaths, listener);
+        batch.start();
+        return batch;
+    }
+
+    /**
+     * extractAll() 로 시작한 일괄 추출 작업
+     */
+    public static class ExtractionBatch {
+        private final TaskScheduler scheduler;
+        private final TaskScheduler.Lane lane;
+        private final List<String> imagePaths;
+        private final OnMetadataExtractedListener listener;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final CountDownLatch finished;
+        private volatile boolean cancelled = false;
+
+        ExtractionBatch(TaskScheduler scheduler, TaskScheduler.Lane lane, List<String> imagePaths,
+                        OnMetadataExtractedListener listener) {
+            this.scheduler = scheduler;
+            this.lane = lane;
+            this.imagePaths = new ArrayList<>(imagePaths);
+            this.listener = listener;
+            this.finished = new CountDownLatch(this.imagePaths.size());
+        }
+
+        void start() {
+            int initial = Math.min(MAX_IN_FLIGHT_PER_BATCH, imagePaths.size());
+            for (int i = 0; i < initial; i++) {
+                submitNext();
+            }
+        }
+
+        /**
+         * 다음 경로 하나를 제출 (작업이 끝날 때마다 호출되어 동시 작업 수를 유지)
+         */
+        private void submitNext() {
+            while (true) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= imagePaths.size()) {
+                    return;
+                }
+
+                // 취소된 뒤에는 남은 경로를 실행하지 않고 완료 처리만 한다
+                if (cancelled) {
+                    finished.countDown();
+                    continue;
+                }
+
+                scheduler.submit(lane, () -> {
+                    try {
+                        if (!cancelled) {
+                            String imagePath = imagePaths.get(index);
+                            ImageMetadata metadata = ImageUtils.readMetadata(imagePath);
+                            if (!cancelled) {
+                                listener.onMetadataExtracted(index, imagePath, metadata);
+                            }
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "일괄 메타데이터 추출 오류", e);
+                    } finally {
+                        finished.countDown();
+                        submitNext();
+                    }
+                });
+                return;
+            }
+        }
+
+        /**
+         * 아직 시작하지 않은 작업 취소 (실행 중인 작업의 결과도 전달하지 않음)
+         */
+        public void cancel() {
+            cancelled = true;
+            // 제출되지 않은 경로를 모두 완료 처리해 await() 가 실행 중인 작업만 기다리게 한다
+            submitNext();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return finished.getCount() == 0;
+        }
+
+        /**
+         * 모든 작업이 끝나거나 취소될 때까지 대기
+         */
+        public void await() throws InterruptedException {
+            finished.await();
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return finished.await(timeout, unit);
+        }
+    }
+
     /**
      * DMS (도분초) 형식을 DD (십진도) 형식으로 변환
      */
@@ -76,15 +228,17 @@ public class GPSUtils {
         }
 
         try {
-            String[] parts = dms.split(",");
-            if (parts.length != 3) {
+            // "d/1,m/1,s/100" 형식을 문자열 분할 없이 읽는다
+            int first = dms.indexOf(',');
+            int second = first < 0 ? -1 : dms.indexOf(',', first + 1);
+            if (second < 0 || dms.indexOf(',', second + 1) >= 0) {
                 return 0.0;
             }
 
             // 도, 분, 초 추출
-            double degrees = Double.parseDouble(parts[0].split("/")[0]) / Double.parseDouble(parts[0].split("/")[1]);
-            double minutes = Double.parseDouble(parts[1].split("/")[0]) / Double.parseDouble(parts[1].split("/")[1]);
-            double seconds = Double.parseDouble(parts[2].split("/")[0]) / Double.parseDouble(parts[2].split("/")[1]);
+            double degrees = parseRational(dms, 0, first);
+            double minutes = parseRational(dms, first + 1, second);
+            double seconds = parseRational(dms, second + 1, dms.length());
 
             double dd = degrees + (minutes / 60.0) + (seconds / 3600.0);
 
@@ -101,6 +255,18 @@ public class GPSUtils {
         }
     }
 
+    /**
+     * "분자/분모" 구간을 숫자로 변환
+     */
+    private static double parseRational(String value, int start, int end) {
+        int slash = value.indexOf('/', start);
+        if (slash < 0 || slash >= end) {
+            throw new NumberFormatException(value);
+        }
+        return Double.parseDouble(value.substring(start, slash).trim())
+                / Double.parseDouble(value.substring(slash + 1, end).trim());
+    }
+
     /**
      * 두 GPS 좌표 간의 거리 계산 (미터 단위)
      */
@@ -0,0 +1,515 @@
+package com.example.myapplication.utils;
+
+import com.example.myapplication.model.GPSData;
+import com.example.myapplication.model.ImageData;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GPS 좌표 공간 인덱스 (위도/경도 격자 버킷)
+ *
+ * 좌표와 ID 는 기본형 배열에 저장하고, 각 격자 칸은 해당 칸에 속한 슬롯 번호 배열을 가진다.
+ * 영역 조회는 겹치는 칸만, 최근접 조회는 가까운 칸부터 고리 모양으로 넓혀 가며 확인한다.
+ * Android API 를 쓰지 않으므로 JVM 에서 테스트할 수 있다.
+ */
+public class GeoIndex {
+
+    // 기본 격자 크기 (약 28km, 도시 단위 화면에서 칸 몇 개만 확인하도록)
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.25;
+
+    // GPSUtils.calculateDistance 와 같은 지구 반지름 (미터)
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double cellSize;
+    private final int latCells;
+    private final int lonCells;
+
+    // 슬롯별 값 (0 ~ size-1 까지 빈틈 없이 사용)
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private int[] slotCells = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // ID → 슬롯, 칸 번호 → 버킷
+    private final LongIntHashMap slotById = new LongIntHashMap();
+    private final LongIntHashMap bucketByCell = new LongIntHashMap();
+    private int[][] buckets = new int[INITIAL_CAPACITY][];
+    private int[] bucketSizes = new int[INITIAL_CAPACITY];
+    private int[] bucketCells = new int[INITIAL_CAPACITY];
+    private int bucketCount = 0;
+
+    public GeoIndex() {
+        this(DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public GeoIndex(double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0) || cellSizeDegrees > 180) {
+            throw new IllegalArgumentException("잘못된 격자 크기: " + cellSizeDegrees);
+        }
+        this.cellSize = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(long id) {
+        return slotById.get(id) >= 0;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        slotById.clear();
+        bucketByCell.clear();
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = null;
+        }
+        bucketCount = 0;
+    }
+
+    /**
+     * 기존 내용을 지우고 한 번에 채움 (배열 크기를 미리 맞춰 재할당을 줄임)
+     */
+    public synchronized void bulkLoad(long[] ids, double[] latitudes, double[] longitudes) {
+        if (ids.length != latitudes.length || ids.length != longitudes.length) {
+            throw new IllegalArgumentException("배열 길이가 다릅니다");
+        }
+        clear();
+        ensureCapacity(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            insertLocked(ids[i], latitudes[i], longitudes[i]);
+        }
+    }
+
+    /**
+     * GPS 가 있는 이미지만 MediaStore ID 로 색인
+     */
+    public synchronized void bulkLoad(List<ImageData> images) {
+        clear();
+        ensureCapacity(images.size());
+        for (ImageData imageData : images) {
+            if (imageData.hasGPS()) {
+                GPSData gpsData = imageData.getGpsData();
+                insertLocked(imageData.getMediaId(), gpsData.getLatitude(), gpsData.getLongitude());
+            }
+        }
+    }
+
+    /**
+     * 좌표 추가 (같은 ID 가 있으면 위치를 옮김)
+     */
+    public synchronized void insert(long id, double latitude, double longitude) {
+        insertLocked(id, latitude, longitude);
+    }
+
+    /**
+     * 좌표 제거
+     *
+     * @return 색인에 있었으면 true
+     */
+    public synchronized boolean remove(long id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) {
+            return false;
+        }
+        removeFromBucket(slotCells[slot], slot);
+
+        // 마지막 슬롯을 빈자리로 옮겨 배열을 빈틈 없이 유지
+        int last = size - 1;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            latitudes[slot] = latitudes[last];
+            longitudes[slot] = longitudes[last];
+            slotCells[slot] = slotCells[last];
+            slotById.put(ids[slot], slot);
+            replaceInBucket(slotCells[slot], last, slot);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * 영역 조회 결과를 받는 콜백 (좌표를 다시 찾지 않도록 함께 전달)
+     */
+    public interface PointVisitor {
+        void visit(long id, double latitude, double longitude);
+    }
+
+    /**
+     * 영역 안의 ID 조회 (west > east 면 날짜 변경선을 넘는 영역)
+     */
+    public long[] queryBoundingBox(double south, double west, double north, double east) {
+        LongArray result = new LongArray();
+        queryBoundingBox(south, west, north, east, (id, latitude, longitude) -> result.add(id));
+        return result.toArray();
+    }
+
+    /**
+     * 영역 안의 점을 visitor 에 전달 (잠금을 잡은 채 호출하므로 visitor 에서 색인을 바꾸면 안 된다)
+     */
+    public synchronized void queryBoundingBox(double south, double west, double north, double east,
+                                              PointVisitor visitor) {
+        if (size == 0 || south > north) {
+            return;
+        }
+
+        int fromLat = latCell(south);
+        int toLat = latCell(north);
+        // 경계값 180 이 0번 칸으로 돌아가지 않도록 영역 조회에서는 범위를 자른다
+        int fromLon = clampedLonCell(west);
+        int toLon = clampedLonCell(east);
+        boolean wraps = west > east;
+        int lonSpan = wraps ? Math.min(lonCells, (lonCells - fromLon) + toLon + 1) : toLon - fromLon + 1;
+        long cellsInBox = (long) (toLat - fromLat + 1) * lonSpan;
+
+        if (cellsInBox > bucketCount) {
+            // 화면이 넓으면 칸을 모두 훑는 것보다 채워진 버킷만 확인하는 편이 빠르다
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                collectInBox(bucket, south, west, north, east, wraps, visitor);
+            }
+        } else {
+            for (int lat = fromLat; lat <= toLat; lat++) {
+                for (int i = 0; i < lonSpan; i++) {
+                    int lon = (fromLon + i) % lonCells;
+                    int bucket = bucketByCell.get(lat * lonCells + lon);
+                    if (bucket >= 0) {
+                        collectInBox(bucket, south, west, north, east, wraps, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 가까운 순서로 최대 k 개의 ID 조회 (거리는 GPSUtils.calculateDistance 기준)
+     */
+    public synchronized long[] nearest(double latitude, double longitude, int k) {
+        if (k <= 0 || size == 0) {
+            return new long[0];
+        }
+        k = Math.min(k, size);
+
+        // 거리 오름차순으로 유지하는 후보 목록
+        long[] bestIds = new long[k];
+        double[] bestDistances = new double[k];
+        int found = 0;
+
+        int centerLat = latCell(latitude);
+        int centerLon = lonCell(longitude);
+
+        for (int ring = 0; ; ring++) {
+            // 고리가 경도 방향으로 한 바퀴를 넘으면 같은 칸을 다시 만나므로, 그만큼 점이 드문 경우라 전체를 확인한다
+            if (2 * ring + 1 > lonCells) {
+                found = 0;
+                for (int slot = 0; slot < size; slot++) {
+                    double distance = GPSUtils.calculateDistance(
+                        latitude, longitude, latitudes[slot], longitudes[slot]);
+                    if (found < k) {
+                        found = insertSorted(bestIds, bestDistances, found, ids[slot], distance);
+                    } else if (distance < bestDistances[k - 1]) {
+                        insertSorted(bestIds, bestDistances, k - 1, ids[slot], distance);
+                    }
+                }
+                break;
+            }
+
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                int lat = centerLat + dLat;
+                if (lat < 0 || lat >= latCells) {
+                    continue;
+                }
+                boolean edgeRow = dLat == -ring || dLat == ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int dLon = -ring; dLon <= ring; dLon += Math.max(step, 1)) {
+                    int lon = Math.floorMod(centerLon + dLon, lonCells);
+                    int bucket = bucketByCell.get(lat * lonCells + lon);
+                    if (bucket < 0) {
+                        continue;
+                    }
+
+                    int[] slots = buckets[bucket];
+                    for (int i = 0; i < bucketSizes[bucket]; i++) {
+                        int slot = slots[i];
+                        double distance = GPSUtils.calculateDistance(
+                            latitude, longitude, latitudes[slot], longitudes[slot]);
+                        if (found < k) {
+                            found = insertSorted(bestIds, bestDistances, found, ids[slot], distance);
+                        } else if (distance < bestDistances[k - 1]) {
+                            insertSorted(bestIds, bestDistances, k - 1, ids[slot], distance);
+                        }
+                    }
+                }
+            }
+
+            // 지금까지 확인한 블록 바깥의 점은 모두 이 거리보다 멀다
+            if (found == k && bestDistances[k - 1] <= minDistanceOutsideRing(latitude, ring)) {
+                break;
+            }
+        }
+
+        return bestIds;
+    }
+
+    /**
+     * 중심 칸에서 ring 칸 떨어진 블록 바깥에 있는 점까지의 최소 거리 (하한)
+     */
+    private double minDistanceOutsideRing(double latitude, int ring) {
+        double degrees = ring * cellSize;
+        // 위도 방향: 블록 경계까지 최소 ring 칸
+        double latBound = Math.toRadians(degrees) * EARTH_RADIUS_METERS;
+        // 경도 방향: 경도 차가 degrees 이상인 점까지의 최소 거리 (자오선 대원까지의 거리)
+        double lonRadians = Math.toRadians(Math.min(degrees, 90));
+        double lonBound = Math.asin(Math.min(1, Math.cos(Math.toRadians(latitude)) * Math.sin(lonRadians)))
+                * EARTH_RADIUS_METERS;
+        return Math.min(latBound, lonBound);
+    }
+
+    private static int insertSorted(long[] bestIds, double[] bestDistances, int count, long id, double distance) {
+        int position = count;
+        while (position > 0 && bestDistances[position - 1] > distance) {
+            bestIds[position] = bestIds[position - 1];
+            bestDistances[position] = bestDistances[position - 1];
+            position--;
+        }
+        bestIds[position] = id;
+        bestDistances[position] = distance;
+        return count + 1;
+    }
+
+    private void collectInBox(int bucket, double south, double west, double north, double east,
+                              boolean wraps, PointVisitor visitor) {
+        int[] slots = buckets[bucket];
+        for (int i = 0; i < bucketSizes[bucket]; i++) {
+            int slot = slots[i];
+            double lat = latitudes[slot];
+            double lon = longitudes[slot];
+            boolean inLon = wraps ? (lon >= west || lon <= east) : (lon >= west && lon <= east);
+            if (inLon && lat >= south && lat <= north) {
+                visitor.visit(ids[slot], lat, lon);
+            }
+        }
+    }
+
+    private void insertLocked(long id, double latitude, double longitude) {
+        if (slotById.get(id) >= 0) {
+            remove(id);
+        }
+        ensureCapacity(size + 1);
+
+        int slot = size++;
+        int cell = latCell(latitude) * lonCells + lonCell(longitude);
+        ids[slot] = id;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        slotCells[slot] = cell;
+        slotById.put(id, slot);
+        addToBucket(cell, slot);
+    }
+
+    private int latCell(double latitude) {
+        int cell = (int) Math.floor((latitude + 90) / cellSize);
+        return Math.max(0, Math.min(latCells - 1, cell));
+    }
+
+    private int lonCell(double longitude) {
+        int cell = (int) Math.floor((longitude + 180) / cellSize);
+        return Math.floorMod(cell, lonCells);
+    }
+
+    private int clampedLonCell(double longitude) {
+        int cell = (int) Math.floor((longitude + 180) / cellSize);
+        return Math.max(0, Math.min(lonCells - 1, cell));
+    }
+
+    private void addToBucket(int cell, int slot) {
+        int bucket = bucketByCell.get(cell);
+        if (bucket < 0) {
+            if (bucketCount == buckets.length) {
+                int capacity = bucketCount * 2;
+                buckets = Arrays.copyOf(buckets, capacity);
+                bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+                bucketCells = Arrays.copyOf(bucketCells, capacity);
+            }
+            bucket = bucketCount++;
+            buckets[bucket] = new int[4];
+            bucketSizes[bucket] = 0;
+            bucketCells[bucket] = cell;
+            bucketByCell.put(cell, bucket);
+        }
+
+        int[] slots = buckets[bucket];
+        if (bucketSizes[bucket] == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+            buckets[bucket] = slots;
+        }
+        slots[bucketSizes[bucket]++] = slot;
+    }
+
+    private void removeFromBucket(int cell, int slot) {
+        int bucket = bucketByCell.get(cell);
+        int[] slots = buckets[bucket];
+        int count = bucketSizes[bucket];
+        for (int i = 0; i < count; i++) {
+            if (slots[i] == slot) {
+                slots[i] = slots[count - 1];
+                bucketSizes[bucket] = count - 1;
+                break;
+            }
+        }
+
+        // 빈 버킷은 마지막 버킷과 자리를 바꿔 제거 (전체 조회 시 빈 버킷을 훑지 않도록)
+        if (bucketSizes[bucket] == 0) {
+            bucketByCell.remove(cell);
+            int last = bucketCount - 1;
+            if (bucket != last) {
+                buckets[bucket] = buckets[last];
+                bucketSizes[bucket] = bucketSizes[last];
+                bucketCells[bucket] = bucketCells[last];
+                bucketByCell.put(bucketCells[bucket], bucket);
+            }
+            buckets[last] = null;
+            bucketCount--;
+        }
+    }
+
+    private void replaceInBucket(int cell, int oldSlot, int newSlot) {
+        int bucket = bucketByCell.get(cell);
+        int[] slots = buckets[bucket];
+        for (int i = 0; i < bucketSizes[bucket]; i++) {
+            if (slots[i] == oldSlot) {
+                slots[i] = newSlot;
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        latitudes = Arrays.copyOf(latitudes, newCapacity);
+        longitudes = Arrays.copyOf(longitudes, newCapacity);
+        slotCells = Arrays.copyOf(slotCells, newCapacity);
+    }
+
+    /**
+     * 조회 결과용 가변 long 배열
+     */
+    private static class LongArray {
+        private long[] values = new long[16];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * long → int 해시 맵 (선형 탐사, 박싱 없음, 없는 키는 -1)
+     */
+    static class LongIntHashMap {
+        private long[] keys = new long[16];
+        private int[] values = new int[16];
+        private boolean[] used = new boolean[16];
+        private int size = 0;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        /**
+         * @return 제거한 값, 없으면 -1
+         */
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                return -1;
+            }
+            int removed = values[i];
+
+            // 뒤따르는 항목을 당겨 탐사 사슬이 끊기지 않게 한다
+            int gap = i;
+            for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            used[gap] = false;
+            size--;
+            return removed;
+        }
+
+        void clear() {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.myapplication.model.ImageData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ImageData 지연 필드(GPS, 설명, 방향) 로더
+ *
+ * 화면에 바인딩된 행은 visible 큐에, 나머지는 background 큐에 넣고
+ * visible 큐를 먼저(가장 최근에 바인딩된 행부터) 처리한다.
+ * 요청은 CHUNK_SIZE 개씩 묶어 GPSUtils.extractAll() 로 병렬 처리하며 (보이는 행이 있으면 VISIBLE 레인), 묶음 사이마다
+ * visible 큐를 다시 확인하므로 스크롤 중인 행이 긴 백그라운드 작업 뒤에 밀리지 않는다.
+ * 읽은 값은 ImageData 에 채우고 MediaIndex 에 모아서 저장한 뒤 리스너에 알린다.
+ */
+public class ImageEnricher {
+    private static final String TAG = "ImageEnricher";
+
+    // 한 번에 병렬 처리할 요청 수 (작을수록 visible 요청이 빨리 끼어든다)
+    private static final int CHUNK_SIZE = 16;
+    // 파일 헤더를 읽어야 하는 필드
+    private static final int EXIF_FIELDS = ImageData.FIELD_GPS | ImageData.FIELD_ORIENTATION;
+    // 인덱스에 한 번에 저장할 최대 개수
+    private static final int FLUSH_BATCH_SIZE = 50;
+
+    /**
+     * 지연 필드가 채워졌을 때 메인 스레드에서 호출
+     */
+    public interface OnImageEnrichedListener {
+        void onImageEnriched(ImageData imageData);
+    }
+
+    private static ImageEnricher instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<OnImageEnrichedListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Request> visibleQueue = new ArrayDeque<>();
+    private final ArrayDeque<Request> backgroundQueue = new ArrayDeque<>();
+    private final Map<Long, Request> pending = new HashMap<>();
+    // 현재 처리 중인 묶음 (cancel() 에서 확인)
+    private List<Request> runningChunk = new ArrayList<>();
+    private GPSUtils.ExtractionBatch runningBatch;
+
+    public static synchronized ImageEnricher getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageEnricher(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ImageEnricher(Context context) {
+        this.appContext = context;
+
+        Thread dispatcher = new Thread(this::runDispatcher, TAG);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void addListener(OnImageEnrichedListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OnImageEnrichedListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 화면에 보이는 행의 필드 요청 (다른 요청보다 먼저 처리)
+     */
+    public void requestVisible(Object owner, ImageData imageData, int fields) {
+        synchronized (lock) {
+            enqueue(owner, imageData, fields, true);
+        }
+    }
+
+    /**
+     * 백그라운드 필드 요청 (보이는 행이 없을 때 처리)
+     */
+    public void requestBackground(Object owner, List<ImageData> images, int fields) {
+        synchronized (lock) {
+            for (ImageData imageData : images) {
+                enqueue(owner, imageData, fields, false);
+            }
+        }
+    }
+
+    /**
+     * 화면에서 사라진 행을 background 큐로 내림
+     */
+    public void deprioritize(ImageData imageData) {
+        synchronized (lock) {
+            Request request = pending.get(imageData.getMediaId());
+            if (request != null && request.visible) {
+                visibleQueue.remove(request);
+                request.visible = false;
+                backgroundQueue.addLast(request);
+            }
+        }
+    }
+
+    /**
+     * owner 가 요청한 작업 취소 (화면이 사라질 때 호출)
+     *
+     * 다른 owner 도 요청한 이미지는 계속 처리하고, 실행 중인 묶음의 owner 가 모두 빠지면 묶음을 중단한다.
+     */
+    public void cancel(Object owner) {
+        synchronized (lock) {
+            for (Iterator<Request> it = pending.values().iterator(); it.hasNext(); ) {
+                Request request = it.next();
+                if (request.owners.remove(owner) && request.owners.isEmpty()) {
+                    it.remove();
+                    (request.visible ? visibleQueue : backgroundQueue).remove(request);
+                }
+            }
+
+            boolean orphaned = !runningChunk.isEmpty();
+            for (Request request : runningChunk) {
+                request.owners.remove(owner);
+                if (!request.owners.isEmpty()) {
+                    orphaned = false;
+                }
+            }
+            if (orphaned && runningBatch != null) {
+                runningBatch.cancel();
+            }
+        }
+    }
+
+    private void enqueue(Object owner, ImageData imageData, int fields, boolean visible) {
+        if (imageData.isResolved(fields)) {
+            return;
+        }
+
+        Request request = pending.get(imageData.getMediaId());
+        if (request != null) {
+            request.fields |= fields;
+            request.owners.add(owner);
+            // 같은 이미지를 다른 목록이 별도 객체로 들고 있으면 함께 채운다
+            if (imageData != request.imageData && !request.targets.contains(imageData)) {
+                request.targets.add(imageData);
+            }
+            if (visible) {
+                // 이미 대기 중이면 visible 큐 맨 앞으로 올린다
+                (request.visible ? visibleQueue : backgroundQueue).remove(request);
+                request.visible = true;
+                visibleQueue.addFirst(request);
+            }
+            return;
+        }
+
+        request = new Request(imageData, fields, visible);
+        request.owners.add(owner);
+        pending.put(imageData.getMediaId(), request);
+        if (visible) {
+            visibleQueue.addFirst(request);
+        } else {
+            backgroundQueue.addLast(request);
+        }
+        lock.notifyAll();
+    }
+
+    private void runDispatcher() {
+        List<ImageData> unsaved = new ArrayList<>();
+
+        while (true) {
+            List<Request> chunk;
+            try {
+                // 모아 둔 결과가 있으면 기다리지 않고 빈 묶음을 받아 저장부터 한다
+                chunk = takeChunk(!unsaved.isEmpty());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            for (Request request : processChunk(chunk)) {
+                unsaved.add(request.imageData);
+            }
+
+            if (chunk.isEmpty() || unsaved.size() >= FLUSH_BATCH_SIZE) {
+                MediaIndex.getInstance(appContext).updateEnrichment(unsaved);
+                unsaved.clear();
+            }
+        }
+    }
+
+    /**
+     * visible 큐부터 최대 CHUNK_SIZE 개를 꺼냄 (큐가 비었으면 대기, returnIfIdle 이면 빈 목록 반환)
+     */
+    private List<Request> takeChunk(boolean returnIfIdle) throws InterruptedException {
+        synchronized (lock) {
+            while (visibleQueue.isEmpty() && backgroundQueue.isEmpty()) {
+                if (returnIfIdle) {
+                    return new ArrayList<>();
+                }
+                lock.wait();
+            }
+
+            List<Request> chunk = new ArrayList<>();
+            while (chunk.size() < CHUNK_SIZE && !visibleQueue.isEmpty()) {
+                chunk.add(visibleQueue.pollFirst());
+            }
+            while (chunk.size() < CHUNK_SIZE && !backgroundQueue.isEmpty()) {
+                chunk.add(backgroundQueue.pollFirst());
+            }
+
+            for (Request request : chunk) {
+                pending.remove(request.imageData.getMediaId());
+                // 처리 중에 다른 스레드가 바꾸지 못하도록 현재 값을 복사
+                request.runFields = request.fields;
+                request.runTargets = new ArrayList<>(request.targets);
+            }
+            runningChunk = chunk;
+            return chunk;
+        }
+    }
+
+    /**
+     * 묶음 처리 (EXIF 필드는 병렬 일괄 추출로 한 번에 읽고, 설명은 각 결과에 이어서 읽음)
+     *
+     * @return 값을 채운 요청 목록 (취소된 요청 제외)
+     */
+    private List<Request> processChunk(List<Request> chunk) {
+        List<Request> exifRequests = new ArrayList<>();
+        List<String> exifPaths = new ArrayList<>();
+        List<Request> completed = new ArrayList<>();
+        boolean visible = false;
+
+        for (Request request : chunk) {
+            visible |= request.visible;
+            if ((request.runFields & EXIF_FIELDS) != 0) {
+                exifRequests.add(request);
+                exifPaths.add(request.imageData.getImagePath());
+            } else {
+                resolveDescription(request);
+                complete(request);
+                completed.add(request);
+            }
+        }
+
+        if (!exifRequests.isEmpty()) {
+            List<Request> extracted = new ArrayList<>();
+            // 보이는 행이 섞인 묶음은 화면 썸네일과 같은 레인에서 처리
+            TaskScheduler.Lane lane = visible ? TaskScheduler.Lane.VISIBLE : TaskScheduler.Lane.BACKGROUND;
+            GPSUtils.ExtractionBatch batch = GPSUtils.extractAll(exifPaths, lane, (index, imagePath, metadata) -> {
+                Request request = exifRequests.get(index);
+                if (metadata.isFileMissing()) {
+                    // 파일이 지워진 행은 다음 변경분에서 목록에서 빠짐
+                    MediaSyncManager.getInstance(appContext).reportMissing(request.imageData);
+                }
+                // GPS 와 방향은 같은 읽기에서 나오므로 요청하지 않은 쪽도 함께 채운다
+                request.imageData.applyMetadata(metadata);
+                resolveDescription(request);
+                complete(request);
+                synchronized (extracted) {
+                    extracted.add(request);
+                }
+            });
+            synchronized (lock) {
+                runningBatch = batch;
+            }
+
+            try {
+                batch.await();
+            } catch (InterruptedException e) {
+                batch.cancel();
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (extracted) {
+                completed.addAll(extracted);
+            }
+        }
+
+        synchronized (lock) {
+            runningBatch = null;
+            runningChunk = new ArrayList<>();
+        }
+        return completed;
+    }
+
+    private void resolveDescription(Request request) {
+        ImageData imageData = request.imageData;
+        if ((request.runFields & ImageData.FIELD_DESCRIPTION) != 0
+                && !imageData.isResolved(ImageData.FIELD_DESCRIPTION)) {
+            imageData.setDescription(DescriptionStore.getInstance(appContext).get(imageData.getImagePath()));
+        }
+    }
+
+    private void complete(Request request) {
+        for (ImageData target : request.runTargets) {
+            target.copyResolvedFields(request.imageData);
+        }
+
+        ImageData imageData = request.imageData;
+        mainHandler.post(() -> {
+            for (OnImageEnrichedListener listener : listeners) {
+                listener.onImageEnriched(imageData);
+            }
+        });
+    }
+
+    private static class Request {
+        final ImageData imageData;
+        final List<ImageData> targets = new ArrayList<>();
+        final Set<Object> owners = new HashSet<>();
+        int fields;
+        boolean visible;
+
+        // takeChunk() 시점에 고정한 값
+        int runFields;
+        List<ImageData> runTargets;
+
+        Request(ImageData imageData, int fields, boolean visible) {
+            this.imageData = imageData;
+            this.fields = fields;
+            this.visible = visible;
+        }
+    }
+}
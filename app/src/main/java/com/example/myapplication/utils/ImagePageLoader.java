@@ -0,0 +1,68 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.provider.MediaStore;
+
+import com.example.myapplication.model.ImageData;
+
+import java.util.List;
+
+/**
+ * 갤러리 페이지 단위 로더 (ImageWindow 와 함께 사용)
+ *
+ * 처음에는 _ID/촬영 날짜/수정 시각 세 열만 읽어 전체 순서를 정하고 (ImageData 를 만들지 않음),
+ * 화면 근처 페이지의 행만 _ID 로 조회해 ImageData 를 만든다.
+ * 정렬 순서는 ImageData.NEWEST_FIRST 와 같다 (DATE_TAKEN 이 없는 행은 마지막).
+ */
+public class ImagePageLoader {
+
+    private final Context appContext;
+
+    public ImagePageLoader(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    /**
+     * 전체 목록의 키 읽기 (백그라운드 스레드에서 호출)
+     */
+    public ImageWindow.Keys loadKeys() {
+        String[] projection = {
+            MediaStore.Images.Media._ID,
+            MediaStore.Images.Media.DATE_TAKEN,
+            MediaStore.Images.Media.DATE_MODIFIED
+        };
+
+        try (Cursor cursor = appContext.getContentResolver().query(
+                MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
+                projection,
+                MediaStore.Images.Media.DATA + " IS NOT NULL",
+                null,
+                MediaStore.Images.Media.DATE_TAKEN + " DESC, " + MediaStore.Images.Media._ID + " DESC")) {
+
+            if (cursor == null) {
+                throw new IllegalStateException("MediaStore 조회 실패");
+            }
+
+            MediaSyncManager syncManager = MediaSyncManager.getInstance(appContext);
+            ImageWindow.Keys keys = new ImageWindow.Keys(cursor.getCount());
+            while (cursor.moveToNext()) {
+                // 썸네일/EXIF 를 읽다가 파일이 없다고 확인된 행은 제외
+                if (!syncManager.isMissing(cursor.getLong(0))) {
+                    keys.add(cursor.getLong(0), cursor.getLong(1), cursor.getLong(2));
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * 지정한 이미지 읽기 (백그라운드 스레드에서 호출, ImageWindow.getMissingIds() 의 결과를 넘김)
+     */
+    public List<ImageData> loadImages(List<Long> mediaIds) {
+        List<ImageData> images = ImageUtils.getImagesByIds(appContext, mediaIds, true);
+        // 인덱스의 설명은 캐시일 뿐이므로 설명 저장소 값으로 덮어씀
+        DescriptionStore.getInstance(appContext).resolve(images);
+        return images;
+    }
+}
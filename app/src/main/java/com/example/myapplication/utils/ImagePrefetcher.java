@@ -0,0 +1,209 @@
+package com.example.myapplication.utils;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.myapplication.model.ImageData;
+import com.example.myapplication.model.ImageMetadata;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 상세 화면에서 넘겨 볼 이웃 이미지 미리 불러오기
+ *
+ * 현재 위치 앞뒤 distance 장의 메타데이터와 화면 해상도 비트맵을 TaskScheduler PREFETCH 레인에서 우선순위 순서로 읽어 둔다.
+ * 가까운 이미지가 먼저이고 같은 거리면 앞으로 넘기는 쪽이 먼저다. 위치가 바뀌면 범위를 벗어난 대기 작업은 건너뛰고
+ * 이미 만든 비트맵은 BitmapPool 에 반납한다. 페이지가 바인딩될 때 take() 로 넘겨받으면 디코딩 없이 바로 보인다.
+ */
+public class ImagePrefetcher {
+    private static final String TAG = "ImagePrefetcher";
+
+    // 현재 위치에서 앞뒤로 미리 불러올 장 수
+    public static final int DEFAULT_DISTANCE = 2;
+
+    /**
+     * 미리 불러온 결과 (take() 로 받으면 비트맵은 받은 쪽이 소유)
+     */
+    public static class Entry {
+        private final ImageMetadata metadata;
+        private final Bitmap bitmap;
+
+        Entry(ImageMetadata metadata, Bitmap bitmap) {
+            this.metadata = metadata;
+            this.bitmap = bitmap;
+        }
+
+        public ImageMetadata getMetadata() {
+            return metadata;
+        }
+
+        public Bitmap getBitmap() {
+            return bitmap;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final BitmapPool bitmapPool = BitmapPool.getInstance();
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+    private final int distance;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    // 아래 필드는 메인 스레드에서만 접근
+    private final Map<String, Entry> ready = new HashMap<>();
+    private final Map<String, Task> queued = new HashMap<>();
+    private boolean released;
+
+    public ImagePrefetcher(int maxWidth, int maxHeight) {
+        this(DEFAULT_DISTANCE, maxWidth, maxHeight);
+    }
+
+    public ImagePrefetcher(int distance, int maxWidth, int maxHeight) {
+        this.distance = distance;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    /**
+     * 현재 위치가 바뀌었을 때 호출 (메인 스레드)
+     */
+    public void update(List<ImageData> images, int position) {
+        if (released) {
+            return;
+        }
+
+        // 경로 → 우선순위 (작을수록 먼저), 경로 → 이미지
+        Map<String, Integer> window = new LinkedHashMap<>();
+        Map<String, ImageData> windowImages = new HashMap<>();
+        for (int offset = 1; offset <= distance; offset++) {
+            addToWindow(window, windowImages, images, position + offset, offset * 2 - 1);
+            addToWindow(window, windowImages, images, position - offset, offset * 2);
+        }
+
+        // 범위를 벗어난 것 정리
+        for (Iterator<Map.Entry<String, Entry>> it = ready.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Entry> entry = it.next();
+            if (!window.containsKey(entry.getKey())) {
+                bitmapPool.put(entry.getValue().bitmap);
+                it.remove();
+            }
+        }
+        for (Iterator<Map.Entry<String, Task>> it = queued.entrySet().iterator(); it.hasNext(); ) {
+            Task task = it.next().getValue();
+            Integer priority = window.get(task.imageData.getImagePath());
+            // 아직 시작하지 않은 작업도 빼고 아래에서 새 우선순위 순서로 다시 넣음
+            if (priority == null || priority != task.priority || task.scheduled.isQueued()) {
+                task.cancel();
+                it.remove();
+            }
+        }
+
+        // 레인 안에서는 넣은 순서대로 실행되므로 우선순위 순서(window 순서)로 넣음
+        for (Map.Entry<String, Integer> entry : window.entrySet()) {
+            String path = entry.getKey();
+            if (ready.containsKey(path) || queued.containsKey(path)) {
+                continue;
+            }
+            Task task = new Task(windowImages.get(path), entry.getValue());
+            queued.put(path, task);
+            task.scheduled = scheduler.submit(TaskScheduler.Lane.PREFETCH, task);
+        }
+    }
+
+    /**
+     * 미리 불러온 결과 넘겨받기 (메인 스레드, 없으면 null)
+     */
+    public Entry take(String imagePath) {
+        return ready.remove(imagePath);
+    }
+
+    /**
+     * 대기 작업을 취소하고 비트맵 반납 (화면을 닫을 때 호출)
+     */
+    public void release() {
+        released = true;
+        for (Task task : queued.values()) {
+            task.cancel();
+        }
+        queued.clear();
+        for (Entry entry : ready.values()) {
+            bitmapPool.put(entry.bitmap);
+        }
+        ready.clear();
+    }
+
+    private static void addToWindow(Map<String, Integer> window, Map<String, ImageData> windowImages,
+                                    List<ImageData> images, int index, int priority) {
+        if (index >= 0 && index < images.size()) {
+            ImageData imageData = images.get(index);
+            window.put(imageData.getImagePath(), priority);
+            windowImages.put(imageData.getImagePath(), imageData);
+        }
+    }
+
+    // 메인 스레드에서 호출
+    private void onLoaded(Task task, ImageMetadata metadata, Bitmap bitmap) {
+        String path = task.imageData.getImagePath();
+        if (queued.get(path) == task) {
+            queued.remove(path);
+        }
+        if (task.cancelled || released || metadata == null) {
+            bitmapPool.put(bitmap);
+            return;
+        }
+
+        // 정보 영역에 바로 쓸 수 있도록 목록의 ImageData 에도 채움
+        task.imageData.applyMetadata(metadata);
+        if (bitmap != null) {
+            ready.put(path, new Entry(metadata, bitmap));
+        }
+    }
+
+    private class Task implements Runnable {
+        final ImageData imageData;
+        final int priority;
+        volatile boolean cancelled;
+        // 메인 스레드에서만 접근
+        TaskScheduler.Task scheduled;
+
+        Task(ImageData imageData, int priority) {
+            this.imageData = imageData;
+            this.priority = priority;
+        }
+
+        // 메인 스레드에서 호출, 아직 시작하지 않았으면 레인에서 빼고 실행 중이면 결과를 버림
+        void cancel() {
+            cancelled = true;
+            scheduled.cancel();
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            String path = imageData.getImagePath();
+            ImageMetadata metadata = null;
+            Bitmap bitmap = null;
+            try {
+                metadata = ImageUtils.readMetadata(path);
+                if (!cancelled) {
+                    bitmap = ImageUtils.loadImageForDisplay(path, metadata, maxWidth, maxHeight);
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "미리 불러오기 실패: " + path, e);
+            }
+
+            ImageMetadata result = metadata;
+            Bitmap resultBitmap = bitmap;
+            mainHandler.post(() -> onLoaded(this, result, resultBitmap));
+        }
+    }
+}
@@ -5,7 +5,9 @@ import android.content.Context;
 import android.database.Cursor;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.Paint;
 import android.media.ExifInterface;
 import android.net.Uri;
 import android.provider.MediaStore;
@@ -13,10 +15,20 @@ import android.util.Log;
 
 import com.example.myapplication.model.GPSData;
 import com.example.myapplication.model.ImageData;
+import com.example.myapplication.model.ImageMetadata;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * 이미지 관련 유틸리티 클래스
@@ -24,32 +36,100 @@ import java.util.List;
 public class ImageUtils {
     private static final String TAG = "ImageUtils";
 
+    private static final String[] IMAGE_PROJECTION = {
+        MediaStore.Images.Media._ID,
+        MediaStore.Images.Media.DATA,
+        MediaStore.Images.Media.DISPLAY_NAME,
+        MediaStore.Images.Media.SIZE,
+        MediaStore.Images.Media.DATE_TAKEN,
+        MediaStore.Images.Media.DATE_MODIFIED,
+        MediaStore.Images.Media.WIDTH,
+        MediaStore.Images.Media.HEIGHT,
+        MediaStore.Images.Media.MIME_TYPE
+    };
+
+    // ImageData.NEWEST_FIRST 와 같은 순서
+    private static final String IMAGE_SORT_ORDER =
+        MediaStore.Images.Media.DATE_TAKEN + " DESC, " + MediaStore.Images.Media._ID + " DESC";
+
+    // SQLite 바인딩 변수 최대 개수(999) 이하로 IN 절을 나눈다
+    private static final int MAX_IDS_PER_QUERY = 500;
+
     /**
      * 갤러리에서 모든 이미지 가져오기
+     *
+     * MediaIndex 에 저장된 항목 중 지문(수정 시각/크기/경로)이 같은 것은 그대로 사용하고,
+     * 새로 생기거나 바뀐 이미지는 컬럼 값만 채운다 (EXIF/설명은 ImageEnricher 가 지연 로드).
      */
     public static List<ImageData> getAllImages(Context context) {
         List<ImageData> imageList = new ArrayList<>();
-        
-        String[] projection = {
-            MediaStore.Images.Media._ID,
-            MediaStore.Images.Media.DATA,
-            MediaStore.Images.Media.DISPLAY_NAME,
-            MediaStore.Images.Media.SIZE,
-            MediaStore.Images.Media.DATE_TAKEN,
-            MediaStore.Images.Media.WIDTH,
-            MediaStore.Images.Media.HEIGHT,
-            MediaStore.Images.Media.MIME_TYPE
-        };
+        List<ImageData> changed = new ArrayList<>();
+
+        MediaIndex mediaIndex = MediaIndex.getInstance(context);
+        Map<Long, ImageData> indexed = mediaIndex.loadAll();
 
         String selection = MediaStore.Images.Media.DATA + " IS NOT NULL";
-        String sortOrder = MediaStore.Images.Media.DATE_TAKEN + " DESC";
+        if (queryImages(context, selection, null, indexed, imageList, changed)) {
+            // 인덱스에 남은 항목은 MediaStore 에서 사라진 이미지
+            mediaIndex.applyChanges(changed, indexed.keySet());
+        }
+
+        return imageList;
+    }
+
+    /**
+     * 지정한 MediaStore _ID 의 이미지 읽기
+     *
+     * useIndex 가 false 면 인덱스를 보지 않고 새 항목으로 만든다 (변경분 동기화용).
+     * 결과는 ImageData.NEWEST_FIRST 순서로 정렬된다.
+     */
+    public static List<ImageData> getImagesByIds(Context context, Collection<Long> mediaIds, boolean useIndex) {
+        List<ImageData> imageList = new ArrayList<>();
+        List<ImageData> changed = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(mediaIds);
+
+        MediaIndex mediaIndex = MediaIndex.getInstance(context);
+        Map<Long, ImageData> indexed = useIndex
+            ? mediaIndex.loadByIds(ids)
+            : new HashMap<Long, ImageData>();
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+
+            StringBuilder selection = new StringBuilder(MediaStore.Images.Media.DATA)
+                .append(" IS NOT NULL AND ")
+                .append(MediaStore.Images.Media._ID)
+                .append(" IN (");
+            String[] selectionArgs = new String[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                selection.append(i == 0 ? "?" : ",?");
+                selectionArgs[i] = String.valueOf(chunk.get(i));
+            }
+            selection.append(")");
+
+            queryImages(context, selection.toString(), selectionArgs, indexed, imageList, changed);
+        }
+
+        mediaIndex.applyChanges(changed, new ArrayList<Long>());
+        Collections.sort(imageList, ImageData.NEWEST_FIRST);
+        return imageList;
+    }
 
+    /**
+     * MediaStore 조회 결과를 ImageData 로 변환
+     *
+     * indexed 에서 지문이 같은 항목은 재사용하고 꺼낸 항목은 맵에서 제거한다.
+     * 새로 읽은 항목은 changed 에도 추가된다. 조회 실패 시 false 를 반환한다.
+     */
+    private static boolean queryImages(Context context, String selection, String[] selectionArgs,
+                                       Map<Long, ImageData> indexed, List<ImageData> imageList,
+                                       List<ImageData> changed) {
         try (Cursor cursor = context.getContentResolver().query(
                 MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
-                projection,
+                IMAGE_PROJECTION,
                 selection,
-                null,
-                sortOrder)) {
+                selectionArgs,
+                IMAGE_SORT_ORDER)) {
 
             if (cursor != null) {
                 int idColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media._ID);
@@ -57,38 +137,47 @@ public class ImageUtils {
                 int nameColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.DISPLAY_NAME);
                 int sizeColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.SIZE);
                 int dateColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.DATE_TAKEN);
+                int modifiedColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.DATE_MODIFIED);
                 int widthColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.WIDTH);
                 int heightColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.HEIGHT);
                 int mimeColumn = cursor.getColumnIndexOrThrow(MediaStore.Images.Media.MIME_TYPE);
 
                 while (cursor.moveToNext()) {
+                    long mediaId = cursor.getLong(idColumn);
                     String imagePath = cursor.getString(dataColumn);
-                    if (imagePath != null && new java.io.File(imagePath).exists()) {
-                        ImageData imageData = new ImageData(imagePath);
-                        imageData.setImageName(cursor.getString(nameColumn));
-                        imageData.setFileSize(cursor.getLong(sizeColumn));
-                        imageData.setDateTaken(cursor.getLong(dateColumn));
-                        imageData.setWidth(cursor.getInt(widthColumn));
-                        imageData.setHeight(cursor.getInt(heightColumn));
-                        imageData.setMimeType(cursor.getString(mimeColumn));
-
-                        // GPS 정보 추출
-                        GPSData gpsData = GPSUtils.extractGPSFromExif(imagePath);
-                        imageData.setGpsData(gpsData);
-
-                        // 설명 파일 로드
-                        String description = FileUtils.readTextFile(imageData.getDescriptionFilePath());
-                        imageData.setDescription(description);
+                    long dateModified = cursor.getLong(modifiedColumn);
+                    long fileSize = cursor.getLong(sizeColumn);
 
+                    ImageData imageData = indexed.remove(mediaId);
+                    if (imageData != null && imageData.matchesFingerprint(imagePath, dateModified, fileSize)) {
                         imageList.add(imageData);
+                        continue;
                     }
+
+                    if (imagePath == null) {
+                        continue;
+                    }
+
+                    // 컬럼 값만 읽고 GPS/설명/방향은 ImageEnricher 가 필요할 때 채운다
+                    imageData = new ImageData(imagePath);
+                    imageData.setMediaId(mediaId);
+                    imageData.setImageName(cursor.getString(nameColumn));
+                    imageData.setFileSize(fileSize);
+                    imageData.setDateTaken(cursor.getLong(dateColumn));
+                    imageData.setDateModified(dateModified);
+                    imageData.setWidth(cursor.getInt(widthColumn));
+                    imageData.setHeight(cursor.getInt(heightColumn));
+                    imageData.setMimeType(cursor.getString(mimeColumn));
+
+                    imageList.add(imageData);
+                    changed.add(imageData);
                 }
             }
+            return cursor != null;
         } catch (Exception e) {
             Log.e(TAG, "이미지 목록 가져오기 오류", e);
+            return false;
         }
-
-        return imageList;
     }
 
     /**
@@ -105,71 +194,243 @@ public class ImageUtils {
     }
 
     /**
-     * 이미지 썸네일 생성
+     * 이미지 메타데이터 읽기 (방향, GPS, 촬영 시각, 크기를 파일 한 번 열어 함께 읽음)
+     *
+     * JPEG 는 ExifParser 로 헤더만 읽고, 그 외 형식이나 손상된 파일은 ExifInterface 와 크기 디코딩으로 읽는다.
+     */
+    public static ImageMetadata readMetadata(String imagePath) {
+        try {
+            ExifParser.Result result = new ExifParser.Result();
+            if (ExifParser.parse(imagePath, result)) {
+                int orientation = result.orientation != ExifParser.ORIENTATION_UNDEFINED
+                        ? result.orientation : ExifInterface.ORIENTATION_NORMAL;
+                return new ImageMetadata(orientation, GPSUtils.toGPSData(result),
+                        result.dateTaken, result.width, result.height);
+            }
+        } catch (FileNotFoundException e) {
+            // 호출한 쪽에서 MediaSyncManager.reportMissing() 으로 목록에서 뺌
+            Log.w(TAG, "파일 없음: " + imagePath);
+            return ImageMetadata.fileMissing();
+        } catch (IOException e) {
+            Log.e(TAG, "메타데이터 읽기 오류: " + imagePath, e);
+            return new ImageMetadata(ExifInterface.ORIENTATION_UNDEFINED, new GPSData(), 0, 0, 0);
+        }
+
+        int orientation = ExifInterface.ORIENTATION_UNDEFINED;
+        GPSData gpsData = new GPSData();
+        long dateTaken = 0;
+        try {
+            ExifInterface exifInterface = new ExifInterface(imagePath);
+            orientation = exifInterface.getAttributeInt(
+                ExifInterface.TAG_ORIENTATION,
+                ExifInterface.ORIENTATION_NORMAL
+            );
+            gpsData = GPSUtils.extractGPSFromExif(exifInterface);
+            dateTaken = parseExifDateTime(exifInterface.getAttribute(ExifInterface.TAG_DATETIME_ORIGINAL));
+        } catch (Exception e) {
+            Log.e(TAG, "EXIF 읽기 오류: " + imagePath, e);
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(imagePath, options);
+
+        return new ImageMetadata(orientation, gpsData, dateTaken, options.outWidth, options.outHeight);
+    }
+
+    private static long parseExifDateTime(String dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        try {
+            Date date = new SimpleDateFormat("yyyy:MM:dd HH:mm:ss", Locale.US).parse(dateTime);
+            return date != null ? date.getTime() : 0;
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 이미지 썸네일 생성 (짧은 변이 maxSize 가 되도록 줄임, centerCrop 표시용)
      */
     public static Bitmap createThumbnail(String imagePath, int maxSize) {
+        return createThumbnail(imagePath, readMetadata(imagePath), maxSize);
+    }
+
+    /**
+     * 목록 항목의 썸네일 생성 (인덱스에 저장된 방향/크기가 있으면 파일 헤더를 다시 읽지 않음)
+     */
+    public static Bitmap createThumbnail(ImageData imageData, int maxSize) {
+        if (!imageData.isResolved(ImageData.FIELD_ORIENTATION)
+                || imageData.getWidth() <= 0 || imageData.getHeight() <= 0) {
+            imageData.applyMetadata(readMetadata(imageData.getImagePath()));
+        }
+        return decodeSampled(imageData.getImagePath(), imageData.getWidth(), imageData.getHeight(),
+                imageData.getOrientation(), maxSize, maxSize, true, Bitmap.Config.RGB_565);
+    }
+
+    /**
+     * 미리 읽은 메타데이터로 썸네일 생성
+     */
+    public static Bitmap createThumbnail(String imagePath, ImageMetadata metadata, int maxSize) {
+        return decodeSampled(imagePath, metadata.getWidth(), metadata.getHeight(),
+                metadata.getOrientation(), maxSize, maxSize, true, Bitmap.Config.RGB_565);
+    }
+
+    /**
+     * 요청 크기로 디코딩한 뒤 회전 보정
+     *
+     * inSampleSize(2의 거듭제곱)로 먼저 줄이고 남은 비율은 inDensity/inTargetDensity 로 디코딩 중에 맞춰,
+     * 2의 거듭제곱 단위로 크게 디코딩한 뒤 다시 줄이지 않고 바로 요청 크기의 비트맵을 만든다.
+     * fill 이면 짧은 변을, 아니면 긴 변을 요청 크기에 맞춘다 (확대는 하지 않음).
+     * 크기를 이미 알고 있으면 크기만 읽는 디코딩을 건너뛰어 파일을 한 번만 연다.
+     * 디코딩과 회전 모두 BitmapPool 의 비트맵을 재사용한다.
+     */
+    private static Bitmap decodeSampled(String imagePath, int imageWidth, int imageHeight, int orientation,
+                                        int reqWidth, int reqHeight, boolean fill, Bitmap.Config config) {
         try {
             BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            BitmapFactory.decodeFile(imagePath, options);
+            if (imageWidth <= 0 || imageHeight <= 0) {
+                options.inJustDecodeBounds = true;
+                BitmapFactory.decodeFile(imagePath, options);
+                imageWidth = options.outWidth;
+                imageHeight = options.outHeight;
+            }
+
+            if (imageWidth <= 0 || imageHeight <= 0) {
+                return null;
+            }
+
+            // 90/270도 회전해서 보여 줄 이미지는 요청 크기도 돌려서 비교
+            if (orientation == ExifInterface.ORIENTATION_ROTATE_90
+                    || orientation == ExifInterface.ORIENTATION_ROTATE_270) {
+                int swap = reqWidth;
+                reqWidth = reqHeight;
+                reqHeight = swap;
+            }
 
-            // 이미지 크기 계산
-            int imageHeight = options.outHeight;
-            int imageWidth = options.outWidth;
-            String imageType = options.outMimeType;
+            // 최종 크기
+            float scale = fill
+                    ? Math.max((float) reqWidth / imageWidth, (float) reqHeight / imageHeight)
+                    : Math.min((float) reqWidth / imageWidth, (float) reqHeight / imageHeight);
+            scale = Math.min(scale, 1f);
+            int targetWidth = Math.max(1, Math.round(imageWidth * scale));
+            int targetHeight = Math.max(1, Math.round(imageHeight * scale));
 
-            // 샘플 크기 계산
-            options.inSampleSize = calculateInSampleSize(imageWidth, imageHeight, maxSize, maxSize);
+            // 샘플 크기 계산 (최종 크기보다 작아지지 않는 가장 큰 2의 거듭제곱)
+            options.inSampleSize = calculateInSampleSize(imageWidth, imageHeight, targetWidth, targetHeight);
             options.inJustDecodeBounds = false;
-            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            options.inPreferredConfig = config;
+            options.inMutable = true;
+
+            // 샘플링 후 남은 비율은 디코딩하면서 줄임
+            int decodedWidth = divideRoundUp(imageWidth, options.inSampleSize);
+            int decodedHeight = divideRoundUp(imageHeight, options.inSampleSize);
+            if (decodedWidth > targetWidth) {
+                options.inScaled = true;
+                options.inDensity = decodedWidth;
+                options.inTargetDensity = targetWidth;
+                // 디코더와 같은 방식으로 반올림한 결과 크기
+                float densityScale = (float) targetWidth / decodedWidth;
+                decodedWidth = targetWidth;
+                decodedHeight = Math.max(1, (int) (decodedHeight * densityScale + 0.5f));
+            }
 
-            Bitmap bitmap = BitmapFactory.decodeFile(imagePath, options);
+            Bitmap bitmap = decodeWithPool(imagePath, options, decodedWidth, decodedHeight);
             if (bitmap != null) {
+                // 밀도 값은 크기 조절에만 쓴 것이므로 표시할 때 다시 늘어나지 않게 지움
+                bitmap.setDensity(Bitmap.DENSITY_NONE);
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "디코딩 " + imageWidth + "x" + imageHeight + " → " + bitmap.getWidth() + "x"
+                            + bitmap.getHeight() + " (sample " + options.inSampleSize + ", "
+                            + bitmap.getAllocationByteCount() / 1024 + "KB)");
+                }
                 // 회전 보정
-                bitmap = rotateImageIfRequired(bitmap, imagePath);
+                bitmap = rotateImageIfRequired(bitmap, orientation);
             }
 
             return bitmap;
         } catch (Exception e) {
-            Log.e(TAG, "썸네일 생성 오류: " + imagePath, e);
+            Log.e(TAG, "이미지 디코딩 오류: " + imagePath, e);
             return null;
         }
     }
 
     /**
-     * 이미지 회전 보정
+     * 풀의 비트맵에 디코딩 (맞는 비트맵이 없거나 재사용에 실패하면 새로 할당)
      */
-    private static Bitmap rotateImageIfRequired(Bitmap bitmap, String imagePath) {
-        try {
-            ExifInterface exifInterface = new ExifInterface(imagePath);
-            int orientation = exifInterface.getAttributeInt(
-                ExifInterface.TAG_ORIENTATION,
-                ExifInterface.ORIENTATION_NORMAL
-            );
+    private static Bitmap decodeWithPool(String imagePath, BitmapFactory.Options options, int width, int height) {
+        BitmapPool pool = BitmapPool.getInstance();
+        options.inBitmap = pool.getForDecode(width, height, options.inPreferredConfig);
+        if (options.inBitmap == null) {
+            return BitmapFactory.decodeFile(imagePath, options);
+        }
 
-            switch (orientation) {
-                case ExifInterface.ORIENTATION_ROTATE_90:
-                    return rotateBitmap(bitmap, 90);
-                case ExifInterface.ORIENTATION_ROTATE_180:
-                    return rotateBitmap(bitmap, 180);
-                case ExifInterface.ORIENTATION_ROTATE_270:
-                    return rotateBitmap(bitmap, 270);
-                default:
-                    return bitmap;
+        try {
+            Bitmap bitmap = BitmapFactory.decodeFile(imagePath, options);
+            if (bitmap == null) {
+                pool.put(options.inBitmap);
             }
-        } catch (IOException e) {
-            Log.e(TAG, "이미지 회전 보정 오류: " + imagePath, e);
             return bitmap;
+        } catch (IllegalArgumentException e) {
+            // 알파가 있는 PNG 처럼 설정과 다르게 디코딩되면 크기가 모자랄 수 있음
+            pool.put(options.inBitmap);
+            options.inBitmap = null;
+            return BitmapFactory.decodeFile(imagePath, options);
+        }
+    }
+
+    private static int divideRoundUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * 이미지 회전 보정
+     */
+    private static Bitmap rotateImageIfRequired(Bitmap bitmap, int orientation) {
+        int degrees = getRotationDegrees(orientation);
+        return degrees != 0 ? rotateBitmap(bitmap, degrees) : bitmap;
+    }
+
+    /**
+     * EXIF 방향 값을 표시할 때의 시계 방향 회전 각도로 변환
+     */
+    public static int getRotationDegrees(int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                return 90;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                return 180;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                return 270;
+            default:
+                return 0;
         }
     }
 
     /**
-     * 비트맵 회전
+     * 비트맵 회전 (풀의 비트맵에 그리고 원본은 풀에 반납)
      */
     private static Bitmap rotateBitmap(Bitmap bitmap, int degrees) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        boolean swap = degrees == 90 || degrees == 270;
+        int rotatedWidth = swap ? height : width;
+        int rotatedHeight = swap ? width : height;
+        Bitmap.Config config = bitmap.getConfig() != null ? bitmap.getConfig() : Bitmap.Config.ARGB_8888;
+
+        BitmapPool pool = BitmapPool.getInstance();
+        Bitmap rotated = pool.get(rotatedWidth, rotatedHeight, config);
+
+        // 가운데를 기준으로 돌린 뒤 새 크기의 가운데로 옮김
         Matrix matrix = new Matrix();
-        matrix.postRotate(degrees);
-        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        matrix.setRotate(degrees, width / 2f, height / 2f);
+        matrix.postTranslate((rotatedWidth - width) / 2f, (rotatedHeight - height) / 2f);
+
+        Canvas canvas = new Canvas(rotated);
+        canvas.drawBitmap(bitmap, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+        pool.put(bitmap);
+        return rotated;
     }
 
     /**
@@ -194,28 +455,15 @@ public class ImageUtils {
      * 이미지 확대/축소를 위한 비트맵 로드
      */
     public static Bitmap loadImageForDisplay(String imagePath, int maxWidth, int maxHeight) {
-        try {
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            BitmapFactory.decodeFile(imagePath, options);
-
-            int imageWidth = options.outWidth;
-            int imageHeight = options.outHeight;
-
-            options.inSampleSize = calculateInSampleSize(imageWidth, imageHeight, maxWidth, maxHeight);
-            options.inJustDecodeBounds = false;
-            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-
-            Bitmap bitmap = BitmapFactory.decodeFile(imagePath, options);
-            if (bitmap != null) {
-                bitmap = rotateImageIfRequired(bitmap, imagePath);
-            }
+        return loadImageForDisplay(imagePath, readMetadata(imagePath), maxWidth, maxHeight);
+    }
 
-            return bitmap;
-        } catch (Exception e) {
-            Log.e(TAG, "이미지 로드 오류: " + imagePath, e);
-            return null;
-        }
+    /**
+     * 미리 읽은 메타데이터로 화면용 비트맵 로드 (maxWidth x maxHeight 안에 맞춤)
+     */
+    public static Bitmap loadImageForDisplay(String imagePath, ImageMetadata metadata, int maxWidth, int maxHeight) {
+        return decodeSampled(imagePath, metadata.getWidth(), metadata.getHeight(),
+                metadata.getOrientation(), maxWidth, maxHeight, false, Bitmap.Config.ARGB_8888);
     }
 
     /**
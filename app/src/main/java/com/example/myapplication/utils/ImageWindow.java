@@ -0,0 +1,355 @@
+package com.example.myapplication.utils;
+
+import com.example.myapplication.model.ImageData;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 화면 근처만 불러 두는 갤러리 목록
+ *
+ * 전체 순서는 _ID/촬영 날짜/수정 시각만 담은 배열(이미지 한 장에 24바이트)로 들고 있고,
+ * ImageData 는 화면 근처 페이지만 불러 두었다가 화면에서 멀어지면 버린다.
+ * 불러오지 않은 위치는 null(자리 표시)이지만 위치와 항목 ID 는 그대로이므로 스크롤 위치가 흔들리지 않는다.
+ * 정렬 순서는 ImageData.NEWEST_FIRST 와 같다. 메인 스레드에서만 사용한다.
+ */
+public class ImageWindow {
+
+    /**
+     * 전체 목록의 키 (ImagePageLoader.loadKeys() 가 채움)
+     */
+    public static final class Keys {
+        private long[] mediaIds;
+        private long[] datesTaken;
+        private long[] datesModified;
+        private int size;
+
+        public Keys(int capacity) {
+            capacity = Math.max(capacity, 16);
+            mediaIds = new long[capacity];
+            datesTaken = new long[capacity];
+            datesModified = new long[capacity];
+        }
+
+        /**
+         * @param dateTaken 촬영 시각 (없으면 0)
+         */
+        public void add(long mediaId, long dateTaken, long dateModified) {
+            if (size == mediaIds.length) {
+                mediaIds = Arrays.copyOf(mediaIds, size * 2);
+                datesTaken = Arrays.copyOf(datesTaken, size * 2);
+                datesModified = Arrays.copyOf(datesModified, size * 2);
+            }
+            mediaIds[size] = mediaId;
+            datesTaken[size] = dateTaken;
+            datesModified[size] = dateModified;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    private final int pageSize;
+    // 화면 앞뒤로 ImageData 를 유지할 페이지 수
+    private final int keepPages;
+
+    // 정렬된 키 (한 번 넘긴 배열은 바꾸지 않고 새로 만들어 Snapshot 과 공유)
+    private long[] mediaIds = new long[0];
+    private long[] datesTaken = new long[0];
+    private long[] datesModified = new long[0];
+    // MediaStore _ID → 불러 둔 이미지
+    private final Map<Long, ImageData> loaded = new HashMap<>();
+    // 읽는 중인 페이지
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // 읽었지만 조회되지 않은 행 (다음 키 갱신 전까지 다시 요청하지 않음)
+    private final Set<Long> unavailable = new HashSet<>();
+    private Snapshot snapshot;
+
+    public ImageWindow(int pageSize, int keepPages) {
+        this.pageSize = pageSize;
+        this.keepPages = keepPages;
+    }
+
+    public int size() {
+        return mediaIds.length;
+    }
+
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * 전체 키를 새로 받음 (불러 둔 이미지 중 위치와 수정 시각이 그대로인 것은 유지)
+     */
+    public void setKeys(Keys keys) {
+        long[] ids = Arrays.copyOf(keys.mediaIds, keys.size);
+        long[] taken = Arrays.copyOf(keys.datesTaken, keys.size);
+        long[] modified = Arrays.copyOf(keys.datesModified, keys.size);
+        if (!isSorted(ids, taken)) {
+            sort(ids, taken, modified);
+        }
+        mediaIds = ids;
+        datesTaken = taken;
+        datesModified = modified;
+
+        Iterator<ImageData> iterator = loaded.values().iterator();
+        while (iterator.hasNext()) {
+            ImageData imageData = iterator.next();
+            int position = positionOf(imageData);
+            if (position < 0 || datesModified[position] != imageData.getDateModified()) {
+                iterator.remove();
+            }
+        }
+        loadingPages.clear();
+        unavailable.clear();
+        snapshot = null;
+    }
+
+    /**
+     * 동기화 변경분 반영 (수정/추가된 이미지는 바로 불러 둔 것으로 취급)
+     */
+    public void applyChanges(Collection<ImageData> upserts, Collection<Long> deletedIds) {
+        Set<Long> removed = new HashSet<>(deletedIds);
+        for (ImageData imageData : upserts) {
+            removed.add(imageData.getMediaId());
+        }
+
+        List<ImageData> added = new ArrayList<>(upserts);
+        Collections.sort(added, ImageData.NEWEST_FIRST);
+
+        // 지운 키를 빼면서 추가할 키를 정렬 위치에 끼워 넣음 (한 번 훑기)
+        int capacity = mediaIds.length + added.size();
+        long[] ids = new long[capacity];
+        long[] taken = new long[capacity];
+        long[] modified = new long[capacity];
+        int count = 0;
+        int next = 0;
+        for (int i = 0; i <= mediaIds.length; i++) {
+            while (next < added.size() && (i == mediaIds.length
+                    || compare(added.get(next).getDateTaken(), added.get(next).getMediaId(),
+                               datesTaken[i], mediaIds[i]) < 0)) {
+                ImageData imageData = added.get(next++);
+                ids[count] = imageData.getMediaId();
+                taken[count] = imageData.getDateTaken();
+                modified[count] = imageData.getDateModified();
+                count++;
+            }
+            if (i < mediaIds.length && !removed.contains(mediaIds[i])) {
+                ids[count] = mediaIds[i];
+                taken[count] = datesTaken[i];
+                modified[count] = datesModified[i];
+                count++;
+            }
+        }
+        mediaIds = Arrays.copyOf(ids, count);
+        datesTaken = Arrays.copyOf(taken, count);
+        datesModified = Arrays.copyOf(modified, count);
+
+        for (Long mediaId : removed) {
+            loaded.remove(mediaId);
+        }
+        for (ImageData imageData : added) {
+            loaded.put(imageData.getMediaId(), imageData);
+        }
+        // 위치가 밀렸으므로 읽는 중인 페이지는 결과가 오면 ID 로만 반영
+        loadingPages.clear();
+        unavailable.clear();
+        snapshot = null;
+    }
+
+    /**
+     * first ~ last 위치 앞뒤 한 페이지까지 아직 불러오지 않은 페이지를 읽는 중으로 표시하고 반환
+     */
+    public List<Integer> requestPages(int first, int last) {
+        List<Integer> pages = new ArrayList<>();
+        if (mediaIds.length == 0) {
+            return pages;
+        }
+        int firstPage = Math.max(0, first - pageSize) / pageSize;
+        int lastPage = Math.min(mediaIds.length - 1, Math.max(last, 0) + pageSize) / pageSize;
+        for (int page = firstPage; page <= lastPage; page++) {
+            if (!loadingPages.contains(page) && !getMissingIds(page).isEmpty()) {
+                loadingPages.add(page);
+                pages.add(page);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * 페이지에서 아직 불러오지 않은 이미지의 _ID
+     */
+    public List<Long> getMissingIds(int page) {
+        List<Long> ids = new ArrayList<>();
+        int end = Math.min(mediaIds.length, (page + 1) * pageSize);
+        for (int i = page * pageSize; i < end; i++) {
+            if (!loaded.containsKey(mediaIds[i]) && !unavailable.contains(mediaIds[i])) {
+                ids.add(mediaIds[i]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 읽은 페이지 반영 (그 사이 목록에서 빠진 이미지는 버림)
+     *
+     * @param requestedIds 요청했던 _ID (조회되지 않은 행은 다시 요청하지 않음)
+     */
+    public void putPage(int page, List<Long> requestedIds, List<ImageData> images) {
+        loadingPages.remove(page);
+        Set<Long> missing = new HashSet<>(requestedIds);
+        for (ImageData imageData : images) {
+            missing.remove(imageData.getMediaId());
+            if (positionOf(imageData) >= 0) {
+                loaded.put(imageData.getMediaId(), imageData);
+            }
+        }
+        unavailable.addAll(missing);
+        snapshot = null;
+    }
+
+    /**
+     * 읽기에 실패한 페이지를 다시 요청할 수 있도록 표시 해제
+     */
+    public void cancelPage(int page) {
+        loadingPages.remove(page);
+    }
+
+    /**
+     * first ~ last 위치에서 keepPages 페이지보다 멀리 있는 이미지를 버림
+     *
+     * @return 버린 것이 있으면 true
+     */
+    public boolean retain(int first, int last) {
+        int from = first - keepPages * pageSize;
+        int to = last + keepPages * pageSize;
+        boolean evicted = false;
+        Iterator<ImageData> iterator = loaded.values().iterator();
+        while (iterator.hasNext()) {
+            int position = positionOf(iterator.next());
+            if (position < from || position > to) {
+                iterator.remove();
+                evicted = true;
+            }
+        }
+        if (evicted) {
+            snapshot = null;
+        }
+        return evicted;
+    }
+
+    /**
+     * 목록에서 이미지 위치 (없으면 -1)
+     */
+    public int positionOf(ImageData imageData) {
+        return search(mediaIds, datesTaken, imageData.getDateTaken(), imageData.getMediaId());
+    }
+
+    /**
+     * 어댑터에 넘길 읽기 전용 목록 (이후 창이 바뀌어도 그대로)
+     */
+    public Snapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(mediaIds, datesTaken, new HashMap<>(loaded));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 한 시점의 창 (불러오지 않은 위치는 null)
+     */
+    public static final class Snapshot extends AbstractList<ImageData> {
+        private final long[] mediaIds;
+        private final long[] datesTaken;
+        private final Map<Long, ImageData> loaded;
+
+        Snapshot(long[] mediaIds, long[] datesTaken, Map<Long, ImageData> loaded) {
+            this.mediaIds = mediaIds;
+            this.datesTaken = datesTaken;
+            this.loaded = loaded;
+        }
+
+        @Override
+        public ImageData get(int position) {
+            return loaded.get(mediaIds[position]);
+        }
+
+        @Override
+        public int size() {
+            return mediaIds.length;
+        }
+
+        public long getMediaId(int position) {
+            return mediaIds[position];
+        }
+
+        /**
+         * 목록에서 이미지 위치 (없으면 -1)
+         */
+        public int positionOf(ImageData imageData) {
+            return search(mediaIds, datesTaken, imageData.getDateTaken(), imageData.getMediaId());
+        }
+    }
+
+    // ImageData.NEWEST_FIRST 와 같은 순서 (촬영 날짜 내림차순, 같으면 _ID 내림차순)
+    private static int compare(long dateA, long idA, long dateB, long idB) {
+        if (dateA != dateB) {
+            return Long.compare(dateB, dateA);
+        }
+        return Long.compare(idB, idA);
+    }
+
+    private static int search(long[] ids, long[] dates, long date, long id) {
+        int low = 0;
+        int high = ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = compare(dates[mid], ids[mid], date, id);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSorted(long[] ids, long[] dates) {
+        for (int i = 1; i < ids.length; i++) {
+            if (compare(dates[i - 1], ids[i - 1], dates[i], ids[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 촬영 날짜가 0 인 행과 NULL 인 행은 MediaStore 정렬이 다르므로 필요할 때만 다시 정렬
+    private static void sort(long[] ids, long[] dates, long[] modified) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        long[] oldIds = ids.clone();
+        long[] oldDates = dates.clone();
+        long[] oldModified = modified.clone();
+        Arrays.sort(order, (a, b) -> compare(oldDates[a], oldIds[a], oldDates[b], oldIds[b]));
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = oldIds[order[i]];
+            dates[i] = oldDates[order[i]];
+            modified[i] = oldModified[order[i]];
+        }
+    }
+}
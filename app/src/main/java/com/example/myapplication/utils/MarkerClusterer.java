@@ -0,0 +1,134 @@
+package com.example.myapplication.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 지도 줌 단계별 마커 클러스터 계산
+ *
+ * 화면 영역 안의 점만 GeoIndex 에서 꺼내 Web Mercator 픽셀 격자로 묶는다.
+ * 격자 칸은 정수 줌 단계와 칸 좌표로 정해지므로 같은 줌에서 지도를 옮겨도 클러스터 키가 유지되어,
+ * 이전 결과와 키를 비교해 바뀐 마커만 다시 만들 수 있다. Android API 를 쓰지 않으므로 JVM 에서 테스트할 수 있다.
+ */
+public class MarkerClusterer {
+
+    // 256px 타일 기준 클러스터 칸 크기
+    public static final int DEFAULT_CELL_SIZE_PX = 96;
+    // Google Maps 최대 줌 (이 이상이면 칸 좌표가 키 범위를 넘는다)
+    private static final int MAX_ZOOM = 21;
+    private static final int TILE_SIZE = 256;
+
+    /**
+     * 같은 격자 칸에 모인 점들
+     */
+    public static class Cluster {
+        private final long key;
+        private double latitudeSum;
+        private double longitudeSum;
+        private int count;
+        private long representativeId;
+
+        Cluster(long key) {
+            this.key = key;
+        }
+
+        /**
+         * 줌 단계와 칸 좌표로 정해지는 키 (같은 키면 같은 클러스터)
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * 포함된 점들의 평균 위치
+         */
+        public double getLatitude() {
+            return latitudeSum / count;
+        }
+
+        public double getLongitude() {
+            return longitudeSum / count;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * 클러스터를 대표하는 ID (가장 큰 ID, 즉 가장 최근에 추가된 이미지)
+         */
+        public long getRepresentativeId() {
+            return representativeId;
+        }
+
+        public boolean isSingle() {
+            return count == 1;
+        }
+
+        void add(long id, double latitude, double longitude) {
+            if (count == 0 || id > representativeId) {
+                representativeId = id;
+            }
+            latitudeSum += latitude;
+            longitudeSum += longitude;
+            count++;
+        }
+    }
+
+    private final int cellSizePx;
+
+    public MarkerClusterer() {
+        this(DEFAULT_CELL_SIZE_PX);
+    }
+
+    public MarkerClusterer(int cellSizePx) {
+        if (cellSizePx <= 0) {
+            throw new IllegalArgumentException("잘못된 격자 크기: " + cellSizePx);
+        }
+        this.cellSizePx = cellSizePx;
+    }
+
+    /**
+     * 영역 안의 점을 줌 단계에 맞게 묶음 (백그라운드 스레드에서 호출)
+     */
+    public List<Cluster> cluster(GeoIndex index, double south, double west, double north, double east, float zoom) {
+        int zoomLevel = Math.max(0, Math.min(MAX_ZOOM, (int) Math.floor(zoom)));
+        double worldSize = (double) TILE_SIZE * (1L << zoomLevel);
+        double cellsPerWorld = worldSize / cellSizePx;
+
+        List<Cluster> clusters = new ArrayList<>();
+        GeoIndex.LongIntHashMap clusterByKey = new GeoIndex.LongIntHashMap();
+
+        index.queryBoundingBox(south, west, north, east, (id, latitude, longitude) -> {
+            long cellX = (long) Math.floor(projectX(longitude) * cellsPerWorld);
+            long cellY = (long) Math.floor(projectY(latitude) * cellsPerWorld);
+            long key = ((long) zoomLevel << 48) | (cellY << 24) | cellX;
+
+            int position = clusterByKey.get(key);
+            Cluster cluster;
+            if (position < 0) {
+                cluster = new Cluster(key);
+                clusterByKey.put(key, clusters.size());
+                clusters.add(cluster);
+            } else {
+                cluster = clusters.get(position);
+            }
+            cluster.add(id, latitude, longitude);
+        });
+        return clusters;
+    }
+
+    // 경도 → 0~1 (Web Mercator)
+    private static double projectX(double longitude) {
+        double x = (longitude + 180) / 360;
+        return Math.min(Math.max(x, 0), Math.nextDown(1.0));
+    }
+
+    // 위도 → 0~1 (Web Mercator, 극지방은 지도 끝으로 자름)
+    private static double projectY(double latitude) {
+        double sin = Math.sin(Math.toRadians(latitude));
+        sin = Math.min(Math.max(sin, -0.9999), 0.9999);
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return Math.min(Math.max(y, 0), Math.nextDown(1.0));
+    }
+}
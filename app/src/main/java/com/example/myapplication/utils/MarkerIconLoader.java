@@ -0,0 +1,220 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.myapplication.R;
+import com.example.myapplication.model.ImageData;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지도 마커 썸네일 아이콘 로더
+ *
+ * 썸네일은 ThumbnailCache 에서 받아 TaskScheduler 의 VISIBLE 레인에서 아이콘으로 만들고, 만들어진 BitmapDescriptor 는
+ * 경로 + 수정 시각을 키로 LRU 에 보관해 지도를 다시 열거나 클러스터가 다시 풀릴 때 재사용한다.
+ * 아이콘이 준비되기 전에는 같은 크기의 자리 표시 아이콘을 쓰고, 준비되면 메인 스레드에서 리스너에 알린다.
+ * 같은 이미지를 여러 번 요청하면 디코딩은 한 번만 한다.
+ */
+public class MarkerIconLoader {
+    private static final String TAG = "MarkerIconLoader";
+
+    // 마커 아이콘 한 변 (px)
+    public static final int ICON_SIZE_PX = 100;
+    // 보관할 최대 아이콘 수 (아이콘 하나가 약 40KB)
+    private static final int MAX_CACHED_ICONS = 300;
+    private static final int BORDER_PX = 4;
+
+    /**
+     * 아이콘이 준비되었을 때 메인 스레드에서 호출
+     */
+    public interface OnIconReadyListener {
+        void onIconReady(ImageData imageData, BitmapDescriptor icon);
+    }
+
+    private static MarkerIconLoader instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+    private final ThumbnailCache thumbnailCache;
+    private final LruCache<String, BitmapDescriptor> iconCache = new LruCache<>(MAX_CACHED_ICONS);
+    // 디코딩 중인 키 → 기다리는 요청 (메인 스레드에서만 접근)
+    private final Map<String, List<PendingRequest>> pending = new HashMap<>();
+    // 디코딩 중인 키 → 스케줄러 작업 (메인 스레드에서만 접근)
+    private final Map<String, TaskScheduler.Task> decodeTasks = new HashMap<>();
+    private BitmapDescriptor placeholder;
+
+    public static synchronized MarkerIconLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new MarkerIconLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private MarkerIconLoader(Context context) {
+        this.appContext = context;
+        this.thumbnailCache = ThumbnailCache.getInstance(context);
+    }
+
+    /**
+     * 캐시 키 (파일이 바뀌면 수정 시각이 달라져 새로 디코딩)
+     */
+    public static String keyOf(ImageData imageData) {
+        return imageData.getImagePath() + "@" + imageData.getDateModified();
+    }
+
+    /**
+     * 캐시에 있는 아이콘 (없으면 null)
+     */
+    public BitmapDescriptor getCached(ImageData imageData) {
+        return iconCache.get(keyOf(imageData));
+    }
+
+    /**
+     * 아이콘이 준비될 때까지 쓸 자리 표시 아이콘 (메인 스레드에서 호출)
+     */
+    public BitmapDescriptor getPlaceholder() {
+        if (placeholder == null) {
+            Bitmap bitmap = Bitmap.createBitmap(ICON_SIZE_PX, ICON_SIZE_PX, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(bitmap);
+            canvas.drawColor(ContextCompat.getColor(appContext, R.color.white));
+
+            Paint paint = new Paint();
+            paint.setColor(ContextCompat.getColor(appContext, R.color.image_placeholder));
+            canvas.drawRect(BORDER_PX, BORDER_PX, ICON_SIZE_PX - BORDER_PX, ICON_SIZE_PX - BORDER_PX, paint);
+
+            placeholder = BitmapDescriptorFactory.fromBitmap(bitmap);
+        }
+        return placeholder;
+    }
+
+    /**
+     * 아이콘 요청 (메인 스레드에서 호출)
+     *
+     * 캐시에 있으면 바로 알리고, 없으면 백그라운드에서 만든 뒤 알린다.
+     */
+    public void load(ImageData imageData, OnIconReadyListener listener) {
+        String key = keyOf(imageData);
+        BitmapDescriptor cached = iconCache.get(key);
+        if (cached != null) {
+            listener.onIconReady(imageData, cached);
+            return;
+        }
+
+        List<PendingRequest> waiting = pending.get(key);
+        if (waiting != null) {
+            waiting.add(new PendingRequest(imageData, listener));
+            setLane(key, TaskScheduler.Lane.VISIBLE);
+            return;
+        }
+
+        waiting = new ArrayList<>();
+        waiting.add(new PendingRequest(imageData, listener));
+        pending.put(key, waiting);
+        decodeTasks.put(key, scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> decode(key, imageData)));
+    }
+
+    /**
+     * listener 가 기다리던 요청 취소 (화면이 사라질 때 호출)
+     *
+     * 디코딩은 취소하지 않고 결과를 캐시에만 넣되, 아무도 기다리지 않는 대기 작업은 BACKGROUND 레인으로 내린다.
+     */
+    public void cancel(OnIconReadyListener listener) {
+        for (Map.Entry<String, List<PendingRequest>> entry : pending.entrySet()) {
+            List<PendingRequest> waiting = entry.getValue();
+            for (int i = waiting.size() - 1; i >= 0; i--) {
+                if (waiting.get(i).listener == listener) {
+                    waiting.remove(i);
+                }
+            }
+            if (waiting.isEmpty()) {
+                setLane(entry.getKey(), TaskScheduler.Lane.BACKGROUND);
+            }
+        }
+    }
+
+    // 작업이 이미 끝나 목록에서 빠졌으면 무시
+    private void setLane(String key, TaskScheduler.Lane lane) {
+        TaskScheduler.Task task = decodeTasks.get(key);
+        if (task != null) {
+            task.setLane(lane);
+        }
+    }
+
+    private void decode(String key, ImageData imageData) {
+        Bitmap icon = null;
+        try {
+            // 썸네일은 공유 캐시의 것이므로 다 쓰면 반납만 한다
+            Bitmap thumbnail = thumbnailCache.acquire(imageData, ICON_SIZE_PX);
+            if (thumbnail != null) {
+                try {
+                    icon = createIconBitmap(thumbnail);
+                } finally {
+                    thumbnailCache.release(thumbnail);
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "마커 아이콘 생성 실패: " + imageData.getImagePath(), e);
+        }
+
+        Bitmap result = icon;
+        mainHandler.post(() -> {
+            decodeTasks.remove(key);
+            List<PendingRequest> waiting = pending.remove(key);
+            if (result == null) {
+                return;
+            }
+
+            BitmapDescriptor descriptor = BitmapDescriptorFactory.fromBitmap(result);
+            iconCache.put(key, descriptor);
+            if (waiting != null) {
+                for (PendingRequest request : waiting) {
+                    request.listener.onIconReady(request.imageData, descriptor);
+                }
+            }
+        });
+    }
+
+    /**
+     * 썸네일 가운데를 잘라 테두리가 있는 정사각형 아이콘으로 만듦
+     */
+    private Bitmap createIconBitmap(Bitmap thumbnail) {
+        int side = Math.min(thumbnail.getWidth(), thumbnail.getHeight());
+        int left = (thumbnail.getWidth() - side) / 2;
+        int top = (thumbnail.getHeight() - side) / 2;
+
+        Bitmap icon = Bitmap.createBitmap(ICON_SIZE_PX, ICON_SIZE_PX, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(icon);
+        canvas.drawColor(ContextCompat.getColor(appContext, R.color.white));
+        canvas.drawBitmap(thumbnail,
+            new Rect(left, top, left + side, top + side),
+            new Rect(BORDER_PX, BORDER_PX, ICON_SIZE_PX - BORDER_PX, ICON_SIZE_PX - BORDER_PX),
+            new Paint(Paint.FILTER_BITMAP_FLAG));
+        return icon;
+    }
+
+    private static class PendingRequest {
+        final ImageData imageData;
+        final OnIconReadyListener listener;
+
+        PendingRequest(ImageData imageData, OnIconReadyListener listener) {
+            this.imageData = imageData;
+            this.listener = listener;
+        }
+    }
+}
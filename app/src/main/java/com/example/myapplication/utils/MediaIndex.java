@@ -0,0 +1,263 @@
+package com.example.myapplication.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.myapplication.model.GPSData;
+import com.example.myapplication.model.ImageData;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기기 내 이미지 메타데이터 인덱스
+ *
+ * MediaStore _ID 를 키로, DATE_MODIFIED/SIZE 를 지문으로 사용해 이미 추출한
+ * GPS 정보와 설명을 보관한다. 지문이 같은 행은 파일을 다시 열지 않는다.
+ * resolved_fields 는 ImageData.FIELD_* 중 실제로 읽은 필드를 나타낸다.
+ */
+public class MediaIndex extends SQLiteOpenHelper {
+    private static final String TAG = "MediaIndex";
+
+    private static final String DATABASE_NAME = "media_index.db";
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String TABLE_IMAGES = "images";
+    private static final String COL_MEDIA_ID = "media_id";
+    private static final String COL_PATH = "path";
+    private static final String COL_NAME = "name";
+    private static final String COL_SIZE = "size";
+    private static final String COL_DATE_TAKEN = "date_taken";
+    private static final String COL_DATE_MODIFIED = "date_modified";
+    private static final String COL_WIDTH = "width";
+    private static final String COL_HEIGHT = "height";
+    private static final String COL_MIME_TYPE = "mime_type";
+    private static final String COL_HAS_GPS = "has_gps";
+    private static final String COL_LATITUDE = "latitude";
+    private static final String COL_LONGITUDE = "longitude";
+    private static final String COL_ALTITUDE = "altitude";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_ORIENTATION = "orientation";
+    private static final String COL_RESOLVED_FIELDS = "resolved_fields";
+
+    // SQLite 바인딩 변수 최대 개수(999) 이하로 IN 절을 나눈다
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private static MediaIndex instance;
+
+    public static synchronized MediaIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new MediaIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private MediaIndex(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_IMAGES + " ("
+                + COL_MEDIA_ID + " INTEGER PRIMARY KEY, "
+                + COL_PATH + " TEXT NOT NULL, "
+                + COL_NAME + " TEXT, "
+                + COL_SIZE + " INTEGER, "
+                + COL_DATE_TAKEN + " INTEGER, "
+                + COL_DATE_MODIFIED + " INTEGER, "
+                + COL_WIDTH + " INTEGER, "
+                + COL_HEIGHT + " INTEGER, "
+                + COL_MIME_TYPE + " TEXT, "
+                + COL_HAS_GPS + " INTEGER, "
+                + COL_LATITUDE + " REAL, "
+                + COL_LONGITUDE + " REAL, "
+                + COL_ALTITUDE + " REAL, "
+                + COL_DESCRIPTION + " TEXT, "
+                + COL_ORIENTATION + " INTEGER, "
+                + COL_RESOLVED_FIELDS + " INTEGER)");
+        db.execSQL("CREATE INDEX idx_images_path ON " + TABLE_IMAGES + "(" + COL_PATH + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // 인덱스는 MediaStore 에서 언제든 다시 만들 수 있으므로 새로 생성
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_IMAGES);
+        onCreate(db);
+    }
+
+    /**
+     * 인덱스 전체를 MediaStore _ID 기준 맵으로 로드
+     */
+    public Map<Long, ImageData> loadAll() {
+        Map<Long, ImageData> entries = new HashMap<>();
+
+        try (Cursor cursor = getReadableDatabase().query(TABLE_IMAGES,
+                null, null, null, null, null, null)) {
+            readEntries(cursor, entries);
+        } catch (Exception e) {
+            Log.e(TAG, "인덱스 로드 오류", e);
+        }
+
+        return entries;
+    }
+
+    /**
+     * 지정한 _ID 의 항목만 로드 (페이지 단위 조회용)
+     */
+    public Map<Long, ImageData> loadByIds(List<Long> mediaIds) {
+        Map<Long, ImageData> entries = new HashMap<>();
+
+        for (int from = 0; from < mediaIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = mediaIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, mediaIds.size()));
+
+            StringBuilder selection = new StringBuilder(COL_MEDIA_ID).append(" IN (");
+            String[] selectionArgs = new String[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                selection.append(i == 0 ? "?" : ",?");
+                selectionArgs[i] = String.valueOf(chunk.get(i));
+            }
+            selection.append(")");
+
+            try (Cursor cursor = getReadableDatabase().query(TABLE_IMAGES,
+                    null, selection.toString(), selectionArgs, null, null, null)) {
+                readEntries(cursor, entries);
+            } catch (Exception e) {
+                Log.e(TAG, "인덱스 로드 오류", e);
+            }
+        }
+
+        return entries;
+    }
+
+    private static void readEntries(Cursor cursor, Map<Long, ImageData> entries) {
+        int idColumn = cursor.getColumnIndexOrThrow(COL_MEDIA_ID);
+        int pathColumn = cursor.getColumnIndexOrThrow(COL_PATH);
+        int nameColumn = cursor.getColumnIndexOrThrow(COL_NAME);
+        int sizeColumn = cursor.getColumnIndexOrThrow(COL_SIZE);
+        int dateTakenColumn = cursor.getColumnIndexOrThrow(COL_DATE_TAKEN);
+        int dateModifiedColumn = cursor.getColumnIndexOrThrow(COL_DATE_MODIFIED);
+        int widthColumn = cursor.getColumnIndexOrThrow(COL_WIDTH);
+        int heightColumn = cursor.getColumnIndexOrThrow(COL_HEIGHT);
+        int mimeColumn = cursor.getColumnIndexOrThrow(COL_MIME_TYPE);
+        int hasGpsColumn = cursor.getColumnIndexOrThrow(COL_HAS_GPS);
+        int latitudeColumn = cursor.getColumnIndexOrThrow(COL_LATITUDE);
+        int longitudeColumn = cursor.getColumnIndexOrThrow(COL_LONGITUDE);
+        int altitudeColumn = cursor.getColumnIndexOrThrow(COL_ALTITUDE);
+        int descriptionColumn = cursor.getColumnIndexOrThrow(COL_DESCRIPTION);
+        int orientationColumn = cursor.getColumnIndexOrThrow(COL_ORIENTATION);
+        int resolvedColumn = cursor.getColumnIndexOrThrow(COL_RESOLVED_FIELDS);
+
+        while (cursor.moveToNext()) {
+            ImageData imageData = new ImageData(cursor.getString(pathColumn));
+            imageData.setMediaId(cursor.getLong(idColumn));
+            imageData.setImageName(cursor.getString(nameColumn));
+            imageData.setFileSize(cursor.getLong(sizeColumn));
+            imageData.setDateTaken(cursor.getLong(dateTakenColumn));
+            imageData.setDateModified(cursor.getLong(dateModifiedColumn));
+            imageData.setWidth(cursor.getInt(widthColumn));
+            imageData.setHeight(cursor.getInt(heightColumn));
+            imageData.setMimeType(cursor.getString(mimeColumn));
+            imageData.setDescription(cursor.getString(descriptionColumn));
+            imageData.setOrientation(cursor.getInt(orientationColumn));
+
+            if (cursor.getInt(hasGpsColumn) != 0) {
+                imageData.setGpsData(new GPSData(
+                    cursor.getDouble(latitudeColumn),
+                    cursor.getDouble(longitudeColumn),
+                    cursor.getFloat(altitudeColumn)));
+            }
+
+            // 위 setter 가 표시한 값 대신 저장된 상태를 그대로 복원
+            imageData.setResolvedFields(cursor.getInt(resolvedColumn));
+
+            entries.put(imageData.getMediaId(), imageData);
+        }
+    }
+
+    /**
+     * 변경된 항목 저장 및 사라진 항목 삭제 (단일 트랜잭션)
+     */
+    public void applyChanges(Collection<ImageData> upserts, Collection<Long> removedIds) {
+        if (upserts.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (ImageData imageData : upserts) {
+                db.insertWithOnConflict(TABLE_IMAGES, null, toContentValues(imageData),
+                    SQLiteDatabase.CONFLICT_REPLACE);
+            }
+
+            SQLiteStatement delete = db.compileStatement(
+                "DELETE FROM " + TABLE_IMAGES + " WHERE " + COL_MEDIA_ID + " = ?");
+            for (Long mediaId : removedIds) {
+                delete.bindLong(1, mediaId);
+                delete.executeUpdateDelete();
+            }
+
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "인덱스 저장 오류", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * 지연 로드가 끝난 필드 저장 (단일 트랜잭션)
+     */
+    public void updateEnrichment(Collection<ImageData> images) {
+        if (images.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (ImageData imageData : images) {
+                ContentValues values = toContentValues(imageData);
+                values.remove(COL_MEDIA_ID);
+                db.update(TABLE_IMAGES, values, COL_MEDIA_ID + " = ?",
+                    new String[]{String.valueOf(imageData.getMediaId())});
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "지연 필드 저장 오류", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static ContentValues toContentValues(ImageData imageData) {
+        ContentValues values = new ContentValues();
+        values.put(COL_MEDIA_ID, imageData.getMediaId());
+        values.put(COL_PATH, imageData.getImagePath());
+        values.put(COL_NAME, imageData.getImageName());
+        values.put(COL_SIZE, imageData.getFileSize());
+        values.put(COL_DATE_TAKEN, imageData.getDateTaken());
+        values.put(COL_DATE_MODIFIED, imageData.getDateModified());
+        values.put(COL_WIDTH, imageData.getWidth());
+        values.put(COL_HEIGHT, imageData.getHeight());
+        values.put(COL_MIME_TYPE, imageData.getMimeType());
+        values.put(COL_DESCRIPTION, imageData.getDescription());
+        values.put(COL_ORIENTATION, imageData.getOrientation());
+        values.put(COL_RESOLVED_FIELDS, imageData.getResolvedFields());
+
+        GPSData gpsData = imageData.getGpsData();
+        boolean hasGps = gpsData != null && gpsData.hasGPS();
+        values.put(COL_HAS_GPS, hasGps ? 1 : 0);
+        values.put(COL_LATITUDE, hasGps ? gpsData.getLatitude() : 0.0);
+        values.put(COL_LONGITUDE, hasGps ? gpsData.getLongitude() : 0.0);
+        values.put(COL_ALTITUDE, hasGps ? gpsData.getAltitude() : 0f);
+        return values;
+    }
+}
@@ -0,0 +1,643 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+import android.util.Log;
+
+import com.example.myapplication.model.ImageData;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MediaStore 변경분 동기화 관리자
+ *
+ * ContentObserver 로 변경 여부를 표시해 두고, 변경이 있을 때만 _ID/수정 시각/크기
+ * (Android 11 이상은 GENERATION_MODIFIED 포함)만 읽어 추가/수정/삭제된 행을 계산한다.
+ * 화면은 마지막으로 받은 버전을 들고 있다가 그 이후의 변경분만 받아 어댑터에 반영한다.
+ */
+public class MediaSyncManager {
+    private static final String TAG = "MediaSyncManager";
+
+    // 보관할 변경 기록 수 (이보다 오래된 버전은 전체 목록으로 다시 받는다)
+    private static final int MAX_JOURNAL_SIZE = 32;
+
+    private static MediaSyncManager instance;
+
+    private final Context appContext;
+    private final List<ImageData> snapshot = new ArrayList<>();
+    // 잠그지 않고 읽을 수 있도록 동기화가 끝날 때마다 바꿔 끼우는 읽기 전용 복사본
+    private volatile List<ImageData> publishedSnapshot = Collections.emptyList();
+    private final Map<Long, ImageData> imagesById = new HashMap<>();
+    // 목록에서 제외된 행(파일 없음 등)까지 포함한 마지막 지문
+    private Map<Long, long[]> fingerprintsById = new HashMap<>();
+    private final ArrayDeque<Delta> journal = new ArrayDeque<>();
+    // 처음 검색할 때 만들고 이후 변경분만 반영 (searchIndexed 가 false 면 비어 있음)
+    private final SearchIndex searchIndex = new SearchIndex();
+    private boolean searchIndexed = false;
+    // MediaStore 행은 있지만 파일이 지워진 이미지 (썸네일/EXIF 를 읽다가 발견, 지문이 바뀌면 다시 확인)
+    private final Set<Long> missingIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    private volatile boolean dirty = true;
+    // getVersion() 이 잠그지 않고 읽을 수 있도록 volatile
+    private volatile boolean loaded = false;
+    private volatile int version = 0;
+    private String mediaStoreVersion;
+
+    public static synchronized MediaSyncManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new MediaSyncManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private MediaSyncManager(Context context) {
+        this.appContext = context;
+
+        ContentObserver observer = new ContentObserver(new Handler(Looper.getMainLooper())) {
+            @Override
+            public void onChange(boolean selfChange, Uri uri) {
+                dirty = true;
+            }
+        };
+        context.getContentResolver().registerContentObserver(
+            MediaStore.Images.Media.EXTERNAL_CONTENT_URI, true, observer);
+    }
+
+    /**
+     * knownVersion 이후의 변경분 반환 (백그라운드 스레드에서 호출)
+     *
+     * 처음 호출하는 화면은 knownVersion 에 -1 을 넘기면 전체 목록을 받는다.
+     */
+    public synchronized Changes sync(int knownVersion) {
+        refreshIfNeeded();
+        return changesSince(knownVersion);
+    }
+
+    /**
+     * 마지막으로 동기화된 버전 (동기화하지 않으며 잠그지 않음, 아직 전체 목록을 읽은 적이 없으면 -1)
+     *
+     * 전체 목록이 필요 없는 화면은 처음에 이 버전만 받아 두고 이후 sync() 로 변경분만 받는다.
+     */
+    public int getVersion() {
+        return loaded ? version : -1;
+    }
+
+    /**
+     * 현재 전체 목록 복사본 반환 (동기화는 하지 않음)
+     */
+    public synchronized List<ImageData> getSnapshot() {
+        return new ArrayList<>(snapshot);
+    }
+
+    /**
+     * 마지막으로 동기화된 목록 (잠그지 않으므로 메인 스레드에서 호출 가능, 읽기 전용)
+     */
+    public List<ImageData> peekSnapshot() {
+        return publishedSnapshot;
+    }
+
+    /**
+     * 이름이나 설명에 검색어의 모든 단어를 포함하는 이미지 (목록 순서, 백그라운드 스레드에서 호출)
+     */
+    public synchronized List<ImageData> search(String query) {
+        refreshIfNeeded();
+        if (!searchIndexed) {
+            for (ImageData imageData : snapshot) {
+                index(imageData);
+            }
+            searchIndexed = true;
+        }
+
+        Set<Long> matches = searchIndex.search(query);
+        List<ImageData> results = new ArrayList<>();
+        for (ImageData imageData : snapshot) {
+            if (matches.contains(imageData.getMediaId())) {
+                results.add(imageData);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 파일이 지워진 이미지를 목록에서 뺌 (어느 스레드에서나 호출 가능)
+     *
+     * 스캔 때 파일을 하나씩 확인하지 않는 대신, 썸네일/EXIF 를 읽다가 파일이 없으면 호출한다.
+     * 다른 변경과 같은 변경분으로 화면에 전달되며, MediaStore 지문이 바뀌기 전까지는 다시 넣지 않는다.
+     */
+    public void reportMissing(ImageData imageData) {
+        long mediaId = imageData.getMediaId();
+        String imagePath = imageData.getImagePath();
+        if (missingIds.contains(mediaId)) {
+            return;
+        }
+        // 호출한 디코딩 스레드가 동기화 잠금을 기다리지 않도록 따로 처리
+        TaskScheduler.getInstance().submit(TaskScheduler.Lane.BACKGROUND,
+            () -> removeMissing(mediaId, imagePath));
+    }
+
+    /**
+     * reportMissing() 으로 뺀 이미지인지 확인 (잠그지 않음)
+     */
+    public boolean isMissing(long mediaId) {
+        return missingIds.contains(mediaId);
+    }
+
+    private synchronized void removeMissing(long mediaId, String imagePath) {
+        // 잠깐 열지 못한 것일 수 있으므로 한 번 더 확인
+        if (imagePath == null || new File(imagePath).exists() || !missingIds.add(mediaId)) {
+            return;
+        }
+        if (!imagesById.containsKey(mediaId)) {
+            return;
+        }
+        Delta delta = new Delta(version + 1);
+        delta.deletedIds.add(mediaId);
+        applyToSnapshot(delta);
+        record(delta);
+    }
+
+    private void index(ImageData imageData) {
+        searchIndex.put(imageData.getMediaId(), imageData.getImageName(), imageData.getDescription());
+    }
+
+    /**
+     * 설명 변경을 목록에 반영 (설명 저장소는 MediaStore 알림 대상이 아니므로 직접 기록)
+     */
+    public synchronized void updateDescription(String imagePath, String description) {
+        for (ImageData imageData : snapshot) {
+            if (imageData.getImagePath().equals(imagePath)) {
+                imageData.setDescription(description);
+
+                Delta delta = new Delta(version + 1);
+                delta.updated.add(imageData);
+                record(delta);
+                break;
+            }
+        }
+    }
+
+    private void refreshIfNeeded() {
+        String currentMediaStoreVersion = getMediaStoreVersion();
+        boolean storeReset = currentMediaStoreVersion != null
+                && !currentMediaStoreVersion.equals(mediaStoreVersion);
+
+        if (!loaded || storeReset) {
+            dirty = false;
+            fullReload(currentMediaStoreVersion);
+            return;
+        }
+
+        Delta delta = new Delta(version + 1);
+        if (dirty) {
+            dirty = false;
+            try {
+                delta = computeDelta();
+                if (!delta.isEmpty()) {
+                    resolveDescriptions(delta.inserted);
+                    resolveDescriptions(delta.updated);
+                    applyToSnapshot(delta);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "변경분 계산 오류", e);
+                dirty = true;
+                return;
+            }
+        }
+
+        // 설명만 바뀐 이미지는 썸네일을 정리할 필요가 없으므로 사이드카를 가져오기 전에 확인
+        boolean filesChanged = !delta.deletedIds.isEmpty() || !delta.updated.isEmpty();
+        // 다른 앱이 쓴 사이드카는 MediaStore 알림이 오지 않으므로 이미지 변경이 없어도 매번 확인
+        // (바뀌지 않은 폴더는 stat 한 번으로 넘어감)
+        try {
+            importNewSidecars(delta);
+        } catch (Exception e) {
+            Log.e(TAG, "사이드카 가져오기 오류", e);
+        }
+        if (!delta.isEmpty()) {
+            record(delta);
+            scheduleEnrichment(delta.inserted);
+            scheduleEnrichment(delta.updated);
+            if (filesChanged) {
+                // 지워졌거나 바뀐 이미지의 이전 썸네일 정리
+                ThumbnailCache.getInstance(appContext).retainImages(snapshot);
+            }
+        }
+    }
+
+    private void fullReload(String currentMediaStoreVersion) {
+        List<ImageData> images = ImageUtils.getAllImages(appContext);
+        if (!missingIds.isEmpty()) {
+            // 파일이 없다고 알려진 이미지만 다시 확인 (나머지는 읽을 때 확인)
+            Iterator<ImageData> iterator = images.iterator();
+            while (iterator.hasNext()) {
+                ImageData imageData = iterator.next();
+                if (missingIds.contains(imageData.getMediaId())) {
+                    if (new File(imageData.getImagePath()).exists()) {
+                        missingIds.remove(imageData.getMediaId());
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        // 새로 생긴 사이드카 파일을 설명 저장소로 옮긴 뒤 저장소에서 설명을 채움
+        DescriptionStore.getInstance(appContext).importNewSidecars(images);
+        resolveDescriptions(images);
+
+        snapshot.clear();
+        snapshot.addAll(images);
+        publishSnapshot();
+        imagesById.clear();
+        for (ImageData imageData : images) {
+            imagesById.put(imageData.getMediaId(), imageData);
+        }
+        try {
+            fingerprintsById = readFingerprints();
+        } catch (Exception e) {
+            Log.e(TAG, "지문 읽기 오류", e);
+            fingerprintsById = new HashMap<>();
+            dirty = true;
+        }
+
+        scheduleEnrichment(images);
+        ThumbnailCache.getInstance(appContext).retainImages(images);
+
+        mediaStoreVersion = currentMediaStoreVersion;
+        loaded = true;
+        version++;
+        // 이전 기록으로는 새 목록을 만들 수 없으므로 모두 버린다
+        journal.clear();
+        // 검색 색인은 다음 검색 때 새 목록으로 다시 만든다
+        searchIndex.clear();
+        searchIndexed = false;
+    }
+
+    /**
+     * 지문만 읽어 추가/수정/삭제된 행 계산
+     */
+    private Delta computeDelta() {
+        Map<Long, long[]> current = readFingerprints();
+
+        Set<Long> changedIds = new HashSet<>();
+        for (Map.Entry<Long, long[]> entry : current.entrySet()) {
+            long[] previous = fingerprintsById.get(entry.getKey());
+            if (previous == null || !Arrays.equals(previous, entry.getValue())) {
+                changedIds.add(entry.getKey());
+            }
+        }
+
+        Delta delta = new Delta(version + 1);
+        for (Long mediaId : imagesById.keySet()) {
+            if (!current.containsKey(mediaId)) {
+                delta.deletedIds.add(mediaId);
+            }
+        }
+
+        if (!changedIds.isEmpty()) {
+            // 지문이 바뀐 행은 파일이 다시 생겼을 수 있으므로 새로 읽어 확인
+            missingIds.removeAll(changedIds);
+            for (ImageData imageData : ImageUtils.getImagesByIds(appContext, changedIds, false)) {
+                if (imagesById.containsKey(imageData.getMediaId())) {
+                    delta.updated.add(imageData);
+                } else {
+                    delta.inserted.add(imageData);
+                }
+                changedIds.remove(imageData.getMediaId());
+            }
+            // 조회되지 않은 행(파일 없음 등)은 목록에서 제외
+            for (Long mediaId : changedIds) {
+                if (imagesById.containsKey(mediaId)) {
+                    delta.deletedIds.add(mediaId);
+                }
+            }
+        }
+
+        if (!delta.deletedIds.isEmpty()) {
+            MediaIndex.getInstance(appContext).applyChanges(
+                new ArrayList<ImageData>(), delta.deletedIds);
+        }
+
+        fingerprintsById = current;
+        return delta;
+    }
+
+    /**
+     * _ID 별 [DATE_MODIFIED, SIZE, GENERATION_MODIFIED] 읽기
+     */
+    private Map<Long, long[]> readFingerprints() {
+        boolean hasGeneration = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R;
+        String[] projection = hasGeneration
+            ? new String[]{
+                MediaStore.Images.Media._ID,
+                MediaStore.Images.Media.DATE_MODIFIED,
+                MediaStore.Images.Media.SIZE,
+                MediaStore.MediaColumns.GENERATION_MODIFIED}
+            : new String[]{
+                MediaStore.Images.Media._ID,
+                MediaStore.Images.Media.DATE_MODIFIED,
+                MediaStore.Images.Media.SIZE};
+
+        Map<Long, long[]> fingerprints = new HashMap<>();
+        try (Cursor cursor = appContext.getContentResolver().query(
+                MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
+                projection,
+                MediaStore.Images.Media.DATA + " IS NOT NULL",
+                null,
+                null)) {
+
+            if (cursor == null) {
+                throw new IllegalStateException("MediaStore 조회 실패");
+            }
+
+            while (cursor.moveToNext()) {
+                long generation = hasGeneration ? cursor.getLong(3) : 0;
+                fingerprints.put(cursor.getLong(0),
+                    new long[]{cursor.getLong(1), cursor.getLong(2), generation});
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * 다른 앱이 새로 만든 사이드카 설명을 가져와 목록에 반영 (바뀐 이미지는 delta.updated 에 추가)
+     */
+    private void importNewSidecars(Delta delta) {
+        Map<String, String> imported = DescriptionStore.getInstance(appContext).importNewSidecars(snapshot);
+        if (imported.isEmpty()) {
+            return;
+        }
+        for (ImageData imageData : snapshot) {
+            String description = imported.get(imageData.getImagePath());
+            if (description != null) {
+                imageData.setDescription(description);
+                if (!delta.inserted.contains(imageData) && !delta.updated.contains(imageData)) {
+                    delta.updated.add(imageData);
+                }
+            }
+        }
+    }
+
+    /**
+     * 설명 저장소에서 설명 채우기 (파일을 열지 않고 메모리 맵 조회만 하므로 스캔 중에 바로 처리)
+     */
+    private void resolveDescriptions(List<ImageData> images) {
+        DescriptionStore.getInstance(appContext).resolve(images);
+    }
+
+    /**
+     * 아직 EXIF 를 읽지 않은 이미지를 백그라운드로 읽도록 요청 (지도 탭의 GPS 필터용)
+     */
+    private void scheduleEnrichment(List<ImageData> images) {
+        int fields = ImageData.FIELD_GPS;
+        List<ImageData> unresolved = new ArrayList<>();
+        for (ImageData imageData : images) {
+            if (!imageData.isResolved(fields)) {
+                unresolved.add(imageData);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            ImageEnricher.getInstance(appContext).requestBackground(this, unresolved, fields);
+        }
+    }
+
+    private void applyToSnapshot(Delta delta) {
+        for (Long mediaId : delta.deletedIds) {
+            imagesById.remove(mediaId);
+        }
+        for (ImageData imageData : delta.updated) {
+            imagesById.put(imageData.getMediaId(), imageData);
+        }
+        for (ImageData imageData : delta.inserted) {
+            imagesById.put(imageData.getMediaId(), imageData);
+        }
+
+        snapshot.clear();
+        snapshot.addAll(imagesById.values());
+        Collections.sort(snapshot, ImageData.NEWEST_FIRST);
+        publishSnapshot();
+    }
+
+    private void publishSnapshot() {
+        publishedSnapshot = Collections.unmodifiableList(new ArrayList<>(snapshot));
+    }
+
+    private void record(Delta delta) {
+        if (searchIndexed) {
+            for (Long mediaId : delta.deletedIds) {
+                searchIndex.remove(mediaId);
+            }
+            for (ImageData imageData : delta.inserted) {
+                index(imageData);
+            }
+            for (ImageData imageData : delta.updated) {
+                index(imageData);
+            }
+        }
+        version = delta.version;
+        journal.addLast(delta);
+        while (journal.size() > MAX_JOURNAL_SIZE) {
+            journal.removeFirst();
+        }
+    }
+
+    private Changes changesSince(int knownVersion) {
+        if (knownVersion == version) {
+            return new Changes(version, null);
+        }
+
+        Delta oldest = journal.peekFirst();
+        if (knownVersion < 0 || knownVersion > version
+                || oldest == null || oldest.version > knownVersion + 1) {
+            return new Changes(version, new ArrayList<>(snapshot));
+        }
+
+        // 여러 기록을 하나로 합친다 (추가 후 삭제된 항목은 양쪽에서 제거)
+        Map<Long, ImageData> upserts = new LinkedHashMap<>();
+        Set<Long> insertedIds = new HashSet<>();
+        Set<Long> deletedIds = new HashSet<>();
+        for (Delta delta : journal) {
+            if (delta.version <= knownVersion) {
+                continue;
+            }
+            for (ImageData imageData : delta.inserted) {
+                upserts.put(imageData.getMediaId(), imageData);
+                insertedIds.add(imageData.getMediaId());
+            }
+            for (ImageData imageData : delta.updated) {
+                upserts.put(imageData.getMediaId(), imageData);
+            }
+            for (Long mediaId : delta.deletedIds) {
+                upserts.remove(mediaId);
+                if (!insertedIds.remove(mediaId)) {
+                    deletedIds.add(mediaId);
+                }
+            }
+        }
+
+        Changes changes = new Changes(version, null);
+        for (ImageData imageData : upserts.values()) {
+            if (insertedIds.contains(imageData.getMediaId())) {
+                changes.inserted.add(imageData);
+            } else {
+                changes.updated.add(imageData);
+            }
+        }
+        changes.deletedIds.addAll(deletedIds);
+        return changes;
+    }
+
+    private String getMediaStoreVersion() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            try {
+                return MediaStore.getVersion(appContext);
+            } catch (Exception e) {
+                Log.w(TAG, "MediaStore 버전 확인 실패", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 한 번의 동기화에서 발견한 변경분
+     */
+    private static class Delta {
+        final int version;
+        final List<ImageData> inserted = new ArrayList<>();
+        final List<ImageData> updated = new ArrayList<>();
+        final Set<Long> deletedIds = new HashSet<>();
+
+        Delta(int version) {
+            this.version = version;
+        }
+
+        boolean isEmpty() {
+            return inserted.isEmpty() && updated.isEmpty() && deletedIds.isEmpty();
+        }
+    }
+
+    /**
+     * 화면에 전달하는 변경분
+     *
+     * snapshot 이 있으면 전체 목록을 새로 받은 것이고,
+     * 없으면 inserted/updated/deletedIds 만 반영하면 된다.
+     */
+    public static class Changes {
+        private final int version;
+        private final List<ImageData> snapshot;
+        private final List<ImageData> inserted = new ArrayList<>();
+        private final List<ImageData> updated = new ArrayList<>();
+        private final Set<Long> deletedIds = new HashSet<>();
+
+        Changes(int version, List<ImageData> snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public boolean isReset() {
+            return snapshot != null;
+        }
+
+        public boolean isEmpty() {
+            return snapshot == null && inserted.isEmpty() && updated.isEmpty() && deletedIds.isEmpty();
+        }
+
+        public List<ImageData> getSnapshot() {
+            return snapshot;
+        }
+
+        public List<ImageData> getInserted() {
+            return inserted;
+        }
+
+        public List<ImageData> getUpdated() {
+            return updated;
+        }
+
+        public Set<Long> getDeletedIds() {
+            return deletedIds;
+        }
+
+        /**
+         * 변경분을 화면 목록에 반영 (메인 스레드에서 호출, 어댑터에는 반영한 목록의 복사본을 넘김)
+         *
+         * target 은 ImageData.NEWEST_FIRST 순서로 정렬되어 있어야 한다.
+         * gpsOnly 가 true 면 GPS 가 있는 이미지만 목록에 유지한다.
+         */
+        public void applyTo(List<ImageData> target, boolean gpsOnly) {
+            if (isReset()) {
+                target.clear();
+                for (ImageData imageData : snapshot) {
+                    if (!gpsOnly || imageData.hasGPS()) {
+                        target.add(imageData);
+                    }
+                }
+                return;
+            }
+
+            Map<Long, ImageData> updatedById = new HashMap<>();
+            for (ImageData imageData : updated) {
+                updatedById.put(imageData.getMediaId(), imageData);
+            }
+
+            // 1. 삭제 및 수정 (정렬 위치가 바뀐 항목은 삭제 후 다시 추가)
+            List<ImageData> pending = new ArrayList<>();
+            for (int i = target.size() - 1; i >= 0; i--) {
+                ImageData current = target.get(i);
+                long mediaId = current.getMediaId();
+
+                if (deletedIds.contains(mediaId)) {
+                    target.remove(i);
+                    continue;
+                }
+
+                ImageData replacement = updatedById.remove(mediaId);
+                if (replacement == null) {
+                    continue;
+                }
+                if (gpsOnly && !replacement.hasGPS()) {
+                    target.remove(i);
+                } else if (ImageData.NEWEST_FIRST.compare(current, replacement) == 0) {
+                    target.set(i, replacement);
+                } else {
+                    target.remove(i);
+                    pending.add(replacement);
+                }
+            }
+
+            // 2. 추가 (목록에 없던 수정 항목 포함)
+            pending.addAll(inserted);
+            pending.addAll(updatedById.values());
+            for (ImageData imageData : pending) {
+                if (gpsOnly && !imageData.hasGPS()) {
+                    continue;
+                }
+                int position = Collections.binarySearch(target, imageData, ImageData.NEWEST_FIRST);
+                if (position < 0) {
+                    target.add(-position - 1, imageData);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.myapplication.model.ImageData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 화면들이 함께 쓰는 사진 데이터 저장소
+ *
+ * 목록 동기화, 페이지 로드, 설명 읽기/쓰기 같은 화면의 백그라운드 작업을 TaskScheduler 의 VISIBLE 레인에서 실행하고
+ * 결과를 메인 스레드에서 전달한다. 같은 키로 동시에 들어온 요청은 실행 중인 작업 하나의 결과를 나눠 받으므로
+ * 갤러리 탭과 지도 탭이 함께 열려도 MediaStore 는 한 번만 읽는다.
+ * 요청한 화면(LifecycleOwner)이 사라지면 결과를 전달하지 않고, 기다리는 화면이 없는 대기 작업은 취소한다.
+ */
+public class PhotoRepository {
+    private static final String TAG = "PhotoRepository";
+
+    /**
+     * 작업 결과 (메인 스레드에서 호출)
+     */
+    public interface OnResultListener<T> {
+        void onResult(T result);
+    }
+
+    /**
+     * 작업 실패 (메인 스레드에서 호출)
+     */
+    public interface OnErrorListener {
+        void onError(Exception e);
+    }
+
+    private static PhotoRepository instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+    // 키 → 실행 중인 작업 (메인 스레드에서만 접근)
+    private final Map<String, Request<?>> inFlight = new HashMap<>();
+
+    public static synchronized PhotoRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new PhotoRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PhotoRepository(Context context) {
+        this.appContext = context;
+    }
+
+    /**
+     * knownVersion 이후의 목록 변경분 (MediaSyncManager.sync 참고, 메인 스레드에서 호출)
+     */
+    public void sync(int knownVersion, LifecycleOwner owner,
+                     OnResultListener<MediaSyncManager.Changes> onResult, OnErrorListener onError) {
+        MediaSyncManager syncManager = MediaSyncManager.getInstance(appContext);
+        load("sync:" + knownVersion, () -> syncManager.sync(knownVersion), owner, onResult, onError);
+    }
+
+    /**
+     * 마지막으로 동기화된 버전 (동기화를 일으키지 않음, 아직 전체 목록을 읽은 적이 없으면 -1)
+     */
+    public int getSyncVersion() {
+        return MediaSyncManager.getInstance(appContext).getVersion();
+    }
+
+    /**
+     * 마지막으로 동기화된 전체 목록 (잠그지 않음, 읽기 전용)
+     */
+    public List<ImageData> getCachedSnapshot() {
+        return MediaSyncManager.getInstance(appContext).peekSnapshot();
+    }
+
+    /**
+     * 이름이나 설명으로 이미지 검색 (메인 스레드에서 호출, 결과는 목록 순서)
+     */
+    public void search(String query, LifecycleOwner owner, OnResultListener<List<ImageData>> onResult,
+                       OnErrorListener onError) {
+        load("search:" + query, () -> MediaSyncManager.getInstance(appContext).search(query),
+            owner, onResult, onError);
+    }
+
+    /**
+     * 설명 읽기 (메인 스레드에서 호출)
+     */
+    public void loadDescription(ImageData imageData, LifecycleOwner owner, OnResultListener<String> onResult) {
+        String path = imageData.getImagePath();
+        load("description:" + path, () -> DescriptionStore.getInstance(appContext).get(path),
+            owner, onResult, null);
+    }
+
+    /**
+     * 설명 저장 후 목록 갱신 (메인 스레드에서 호출, 결과는 저장 성공 여부)
+     * 화면을 닫아도 저장은 끝까지 실행한다. 디스크 쓰기는 DescriptionStore 가 모아서 나중에 한다.
+     */
+    public void saveDescription(ImageData imageData, String description, LifecycleOwner owner,
+                                OnResultListener<Boolean> onResult, OnErrorListener onError) {
+        submit(null, () -> {
+            boolean success = DescriptionStore.getInstance(appContext).put(imageData, description);
+            if (success) {
+                // 이미지 지문은 그대로이므로 목록의 설명을 직접 갱신
+                MediaSyncManager.getInstance(appContext).updateDescription(imageData.getImagePath(), description);
+            }
+            return success;
+        }, false, owner, onResult, onError);
+    }
+
+    /**
+     * 밀린 설명 쓰기를 바로 실행 (화면이 백그라운드로 갈 때 메인 스레드에서 호출)
+     */
+    public void flushDescriptions() {
+        DescriptionStore.getInstance(appContext).flushAsync();
+    }
+
+    /**
+     * 백그라운드 작업 실행 (메인 스레드에서 호출)
+     *
+     * @param key     같은 키의 작업이 실행 중이면 그 결과를 함께 받음 (null 이면 항상 새로 실행)
+     * @param owner   결과를 받을 화면 (DESTROYED 가 되면 전달하지 않음)
+     * @param onError 실패 시 호출 (null 이면 로그만 남김)
+     */
+    public <T> void load(String key, Callable<T> task, LifecycleOwner owner,
+                         OnResultListener<T> onResult, OnErrorListener onError) {
+        submit(key, task, true, owner, onResult, onError);
+    }
+
+    private <T> void submit(String key, Callable<T> task, boolean cancellable, LifecycleOwner owner,
+                            OnResultListener<T> onResult, OnErrorListener onError) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            if (!cancellable) {
+                scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> call(task));
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Request<T> request = key != null ? (Request<T>) inFlight.get(key) : null;
+        if (request == null) {
+            request = new Request<>(key, cancellable);
+            if (key != null) {
+                inFlight.put(key, request);
+            }
+            Request<T> started = request;
+            // 화면이 결과를 기다리는 작업이므로 보이는 썸네일과 같은 레인
+            request.task = scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> run(started, task));
+        }
+        request.subscribe(lifecycle, onResult, onError);
+    }
+
+    // 결과를 받을 화면 없이 실행 (작업 스레드에서 호출)
+    private static <T> void call(Callable<T> task) {
+        try {
+            task.call();
+        } catch (Exception e) {
+            Log.e(TAG, "작업 실패", e);
+        }
+    }
+
+    // 작업 스레드에서 호출
+    private <T> void run(Request<T> request, Callable<T> task) {
+        T result = null;
+        Exception error = null;
+        try {
+            result = task.call();
+        } catch (Exception e) {
+            error = e;
+        }
+
+        T finalResult = result;
+        Exception finalError = error;
+        mainHandler.post(() -> request.complete(finalResult, finalError));
+    }
+
+    /**
+     * 실행 중인 작업과 결과를 기다리는 화면들
+     */
+    private class Request<T> {
+        final String key;
+        final boolean cancellable;
+        final List<Subscriber<T>> subscribers = new ArrayList<>();
+        TaskScheduler.Task task;
+        boolean done;
+
+        Request(String key, boolean cancellable) {
+            this.key = key;
+            this.cancellable = cancellable;
+        }
+
+        void subscribe(Lifecycle lifecycle, OnResultListener<T> onResult, OnErrorListener onError) {
+            Subscriber<T> subscriber = new Subscriber<>(lifecycle, onResult, onError);
+            // 화면이 사라지면 구독을 빼고, 아무도 기다리지 않으면 아직 시작하지 않은 작업을 취소
+            subscriber.observer = (source, event) -> {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    unsubscribe(subscriber);
+                }
+            };
+            subscribers.add(subscriber);
+            lifecycle.addObserver(subscriber.observer);
+        }
+
+        void unsubscribe(Subscriber<T> subscriber) {
+            subscriber.lifecycle.removeObserver(subscriber.observer);
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty() && !done && cancellable) {
+                task.cancel();
+                removeFromInFlight();
+            }
+        }
+
+        void complete(T result, Exception error) {
+            done = true;
+            removeFromInFlight();
+
+            for (Subscriber<T> subscriber : new ArrayList<>(subscribers)) {
+                subscriber.lifecycle.removeObserver(subscriber.observer);
+                if (error == null) {
+                    subscriber.onResult.onResult(result);
+                } else if (subscriber.onError != null) {
+                    subscriber.onError.onError(error);
+                } else {
+                    Log.e(TAG, "작업 실패: " + key, error);
+                }
+            }
+            subscribers.clear();
+        }
+
+        private void removeFromInFlight() {
+            if (key != null && inFlight.get(key) == this) {
+                inFlight.remove(key);
+            }
+        }
+    }
+
+    private static class Subscriber<T> {
+        final Lifecycle lifecycle;
+        final OnResultListener<T> onResult;
+        final OnErrorListener onError;
+        LifecycleEventObserver observer;
+
+        Subscriber(Lifecycle lifecycle, OnResultListener<T> onResult, OnErrorListener onError) {
+            this.lifecycle = lifecycle;
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+    }
+}
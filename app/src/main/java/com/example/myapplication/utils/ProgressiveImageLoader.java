@@ -0,0 +1,207 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.myapplication.model.ImageData;
+import com.example.myapplication.model.ImageMetadata;
+
+/**
+ * 상세 화면 이미지를 단계별로 불러오는 로더
+ *
+ * 그리드에서 쓰던 썸네일이 메모리에 있으면 start() 안에서 바로 보여 주고, 백그라운드에서
+ * 디스크 썸네일 → 작은 해상도 → 화면 해상도 순서로 더 선명한 이미지를 만들어 단계마다 메인 스레드에서 알린다.
+ * 작은 해상도는 큰 샘플 크기로 읽으므로 화면 해상도 디코딩보다 훨씬 빨리 나온다.
+ * 보여 주는 비트맵은 로더가 소유하며 다음 단계로 바뀌거나 cancel() 하면 반납한다.
+ */
+public class ProgressiveImageLoader {
+    private static final String TAG = "ProgressiveImageLoader";
+
+    // 중간 단계는 화면 크기의 1/4
+    private static final int PREVIEW_DIVISOR = 4;
+
+    public interface Listener {
+        /**
+         * 메타데이터를 읽었을 때 (메인 스레드)
+         */
+        void onMetadataLoaded(ImageMetadata metadata);
+
+        /**
+         * 더 선명한 이미지가 준비되었을 때 (메인 스레드, 이전 단계 비트맵은 이 호출 뒤 반납되므로 바로 교체해야 함)
+         */
+        void onImageLoaded(Bitmap bitmap, boolean isFinal);
+
+        /**
+         * 화면 해상도 이미지를 만들지 못했을 때 (메인 스레드)
+         */
+        void onLoadFailed();
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ThumbnailCache thumbnailCache;
+    private final BitmapPool bitmapPool = BitmapPool.getInstance();
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+    private final ImageData imageData;
+    private final int thumbnailSize;
+    private final int maxWidth;
+    private final int maxHeight;
+    private final Listener listener;
+
+    private volatile boolean cancelled;
+    // start() 에서 넣은 작업 (메인 스레드)
+    private TaskScheduler.Task task;
+    // 메인 스레드에서 보여 준 썸네일 (백그라운드에서 읽음)
+    private volatile Bitmap shownThumbnail;
+    // 지금 보여 주는 비트맵과 썸네일 캐시에서 빌린 것인지 (메인 스레드)
+    private Bitmap current;
+    private boolean currentFromCache;
+
+    /**
+     * @param imageData     경로와 수정 시각 (수정 시각을 모르면 썸네일 단계는 건너뜀)
+     * @param thumbnailSize 그리드 썸네일 크기 (같은 크기여야 캐시에서 찾음)
+     * @param maxWidth      최종 이미지 최대 너비
+     * @param maxHeight     최종 이미지 최대 높이
+     */
+    public ProgressiveImageLoader(Context context, ImageData imageData, int thumbnailSize,
+                                  int maxWidth, int maxHeight, Listener listener) {
+        this.thumbnailCache = ThumbnailCache.getInstance(context);
+        this.imageData = imageData;
+        this.thumbnailSize = thumbnailSize;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        this.listener = listener;
+    }
+
+    /**
+     * 불러오기 시작 (메인 스레드에서 호출)
+     */
+    public void start() {
+        if (hasThumbnailKey()) {
+            Bitmap thumbnail = thumbnailCache.acquireFromMemory(imageData, thumbnailSize);
+            if (thumbnail != null) {
+                deliver(thumbnail, true, false);
+                shownThumbnail = thumbnail;
+            }
+        }
+
+        task = scheduler.submit(TaskScheduler.Lane.VISIBLE, this::loadStages);
+    }
+
+    /**
+     * 미리 불러온 메타데이터와 화면 해상도 이미지로 바로 끝냄 (메인 스레드, 비트맵은 로더가 넘겨받음)
+     */
+    public void startFrom(ImageMetadata metadata, Bitmap bitmap) {
+        listener.onMetadataLoaded(metadata);
+        deliver(bitmap, false, true);
+    }
+
+    /**
+     * 남은 단계를 멈추고 보여 주던 비트맵 반납 (메인 스레드, 뷰에서 비트맵을 뗀 뒤 호출)
+     */
+    public void cancel() {
+        cancelled = true;
+        if (task != null) {
+            // 넘겨 지나간 페이지는 아직 시작하지 않았으면 디코딩하지 않음
+            task.cancel();
+        }
+        releaseCurrent();
+    }
+
+    private void loadStages() {
+        try {
+            // 1. 메모리에 없던 썸네일은 디스크에서 (원본 디코딩은 하지 않음)
+            Bitmap thumbnail = shownThumbnail;
+            if (thumbnail == null && hasThumbnailKey()) {
+                thumbnail = thumbnailCache.acquireCached(imageData, thumbnailSize);
+                if (thumbnail != null) {
+                    post(thumbnail, true, false);
+                }
+            }
+
+            ImageMetadata metadata = ImageUtils.readMetadata(imageData.getImagePath());
+            if (cancelled) {
+                return;
+            }
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    listener.onMetadataLoaded(metadata);
+                }
+            });
+
+            // 2. 작은 해상도 (썸네일이 이미 그만큼 크면 건너뜀)
+            int previewWidth = maxWidth / PREVIEW_DIVISOR;
+            int previewHeight = maxHeight / PREVIEW_DIVISOR;
+            if (thumbnail == null
+                    || (thumbnail.getWidth() < previewWidth && thumbnail.getHeight() < previewHeight)) {
+                Bitmap preview = ImageUtils.loadImageForDisplay(
+                    imageData.getImagePath(), metadata, previewWidth, previewHeight);
+                if (preview != null) {
+                    post(preview, false, false);
+                }
+            }
+            if (cancelled) {
+                return;
+            }
+
+            // 3. 화면 해상도
+            Bitmap bitmap = ImageUtils.loadImageForDisplay(imageData.getImagePath(), metadata, maxWidth, maxHeight);
+            if (bitmap == null) {
+                mainHandler.post(() -> {
+                    if (!cancelled) {
+                        listener.onLoadFailed();
+                    }
+                });
+                return;
+            }
+            post(bitmap, false, true);
+        } catch (Exception e) {
+            Log.e(TAG, "이미지 로드 오류: " + imageData.getImagePath(), e);
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    listener.onLoadFailed();
+                }
+            });
+        }
+    }
+
+    private void post(Bitmap bitmap, boolean fromCache, boolean isFinal) {
+        mainHandler.post(() -> deliver(bitmap, fromCache, isFinal));
+    }
+
+    // 메인 스레드에서 호출
+    private void deliver(Bitmap bitmap, boolean fromCache, boolean isFinal) {
+        if (cancelled) {
+            release(bitmap, fromCache);
+            return;
+        }
+
+        listener.onImageLoaded(bitmap, isFinal);
+        releaseCurrent();
+        current = bitmap;
+        currentFromCache = fromCache;
+    }
+
+    private void releaseCurrent() {
+        release(current, currentFromCache);
+        current = null;
+    }
+
+    private void release(Bitmap bitmap, boolean fromCache) {
+        if (bitmap == null) {
+            return;
+        }
+        if (fromCache) {
+            thumbnailCache.release(bitmap);
+        } else {
+            bitmapPool.put(bitmap);
+        }
+    }
+
+    // 캐시 키에 수정 시각이 들어가므로 모르면 찾을 수 없음
+    private boolean hasThumbnailKey() {
+        return imageData.getDateModified() > 0;
+    }
+}
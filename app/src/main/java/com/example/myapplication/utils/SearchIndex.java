@@ -0,0 +1,226 @@
+package com.example.myapplication.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 파일 이름/설명 검색 색인 (2-gram 역색인)
+ *
+ * 한국어는 띄어쓰기 단위가 검색어와 맞지 않는 경우가 많아 형태소 대신 글자 두 개씩(2-gram)으로 색인한다.
+ * 검색어의 2-gram 을 모두 포함하는 문서만 후보로 고른 뒤 실제 문자열 포함 여부로 확인하므로
+ * 접두어/중간 일치 모두 찾고 잘못된 결과는 없다. 한 글자 검색어는 색인 없이 전체 문서를 확인한다.
+ * 문서는 추가 순서대로 번호를 매겨 게시 목록이 항상 정렬되어 있고, 지우거나 바꾼 문서는 표시만 해 두었다가
+ * 죽은 문서가 많아지면 한 번에 다시 만든다.
+ */
+public class SearchIndex {
+
+    // 죽은 문서가 이 수와 살아 있는 문서 수를 모두 넘으면 다시 만듦
+    private static final int MIN_COMPACT_DEAD = 1024;
+
+    /**
+     * 정렬된 문서 번호 목록
+     */
+    private static class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private final Map<Long, Integer> docsByMediaId = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // 문서 번호 → MediaStore _ID, 정규화한 본문 (지운 문서는 null)
+    private long[] mediaIds = new long[64];
+    private String[] texts = new String[64];
+    private int docCount;
+    private int liveCount;
+
+    /**
+     * 이미지 추가 또는 교체
+     */
+    public synchronized void put(long mediaId, String name, String description) {
+        remove(mediaId);
+        addDocument(mediaId, normalize(name) + " " + normalize(description));
+    }
+
+    /**
+     * 이미지 제거
+     */
+    public synchronized void remove(long mediaId) {
+        Integer doc = docsByMediaId.remove(mediaId);
+        if (doc == null) {
+            return;
+        }
+        texts[doc] = null;
+        liveCount--;
+
+        int dead = docCount - liveCount;
+        if (dead > MIN_COMPACT_DEAD && dead > liveCount) {
+            compact();
+        }
+    }
+
+    public synchronized void clear() {
+        docsByMediaId.clear();
+        postings.clear();
+        mediaIds = new long[64];
+        texts = new String[64];
+        docCount = 0;
+        liveCount = 0;
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * 검색어의 모든 단어를 이름이나 설명에 포함하는 이미지 (대소문자 무시, 빈 검색어는 빈 결과)
+     *
+     * @return MediaStore _ID 집합
+     */
+    public synchronized Set<Long> search(String query) {
+        List<String> terms = tokenize(normalize(query));
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        int[] candidates = null;
+        int candidateCount = docCount;
+        List<Postings> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (int i = 0; i + 2 <= term.length(); i++) {
+                Postings list = postings.get(term.substring(i, i + 2));
+                if (list == null) {
+                    return Collections.emptySet();
+                }
+                lists.add(list);
+            }
+        }
+        if (!lists.isEmpty()) {
+            // 가장 짧은 목록부터 교집합
+            Collections.sort(lists, Comparator.comparingInt(list -> list.size));
+            candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+            candidateCount = candidates.length;
+            for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, lists.get(i));
+            }
+        }
+
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i < candidateCount; i++) {
+            int doc = candidates != null ? candidates[i] : i;
+            String text = texts[doc];
+            if (text != null && containsAll(text, terms)) {
+                result.add(mediaIds[doc]);
+            }
+        }
+        return result;
+    }
+
+    private void addDocument(long mediaId, String text) {
+        if (docCount == texts.length) {
+            mediaIds = Arrays.copyOf(mediaIds, docCount * 2);
+            texts = Arrays.copyOf(texts, docCount * 2);
+        }
+        int doc = docCount++;
+        mediaIds[doc] = mediaId;
+        texts[doc] = text;
+        docsByMediaId.put(mediaId, doc);
+        liveCount++;
+
+        Set<String> grams = new HashSet<>();
+        for (String token : tokenize(text)) {
+            for (int i = 0; i + 2 <= token.length(); i++) {
+                grams.add(token.substring(i, i + 2));
+            }
+        }
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(gram, list);
+            }
+            list.add(doc);
+        }
+    }
+
+    private void compact() {
+        long[] oldMediaIds = mediaIds;
+        String[] oldTexts = texts;
+        int oldCount = docCount;
+
+        clear();
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldTexts[doc] != null) {
+                addDocument(oldMediaIds[doc], oldTexts[doc]);
+            }
+        }
+    }
+
+    // candidates 앞쪽 count 개와 list 의 교집합을 candidates 앞쪽에 남기고 개수 반환
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int doc = candidates[i];
+            while (j < list.size && list.docs[j] < doc) {
+                j++;
+            }
+            if (j < list.size && list.docs[j] == doc) {
+                candidates[kept++] = doc;
+            }
+        }
+        return kept;
+    }
+
+    private static boolean containsAll(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 호환 문자(전각 숫자 등)를 통일하고 소문자로
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 글자/숫자가 아닌 문자로 나눈 단어 목록
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.myapplication.utils;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 폴더별 사이드카 파일 목록 캐시
+ *
+ * 이미지마다 사이드카 파일을 열어 보는 대신 폴더 목록을 한 번 읽어 사이드카 이름만 기억해 두고,
+ * 폴더 수정 시각(mtime)이 그대로면 다시 읽지 않는다. 폴더의 mtime 은 파일이 추가/삭제/이름 변경될 때만 바뀌므로
+ * 사이드카가 없는 이미지가 대부분인 폴더는 stat 한 번으로 넘어간다.
+ * 저장소에 따라 mtime 단위가 최대 2초이므로 목록을 읽은 시각이 mtime 과 가까우면 다음에 다시 읽는다.
+ */
+public class SidecarIndex {
+
+    // 수정 시각 단위가 가장 거친 저장소(FAT/exFAT) 기준
+    private static final long MTIME_GRANULARITY_MS = 2000;
+
+    private static class Listing {
+        final long modified;
+        // 목록을 읽은 뒤 같은 mtime 으로 파일이 더 생길 수 없으면 true
+        final boolean settled;
+        final Set<String> names;
+
+        Listing(long modified, boolean settled, Set<String> names) {
+            this.modified = modified;
+            this.settled = settled;
+            this.names = names;
+        }
+    }
+
+    private final String extension;
+    private final Map<String, Listing> listings = new HashMap<>();
+    // 폴더 목록을 실제로 읽은 횟수 (테스트용)
+    private int listCount;
+
+    /**
+     * @param extension 사이드카 확장자 (예: ".txt")
+     */
+    public SidecarIndex(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * 폴더가 바뀌었으면 목록을 다시 읽어 지난번 이후 새로 생긴 사이드카 이름 반환
+     * (처음이면 모든 사이드카, 바뀌지 않았으면 빈 집합)
+     */
+    public synchronized Set<String> refresh(String directory) {
+        File dir = new File(directory);
+        long modified = dir.lastModified();
+        Listing previous = listings.get(directory);
+        if (previous != null && previous.settled && previous.modified == modified) {
+            return Collections.emptySet();
+        }
+
+        long listedAt = System.currentTimeMillis();
+        String[] names = dir.list();
+        listCount++;
+        if (names == null) {
+            listings.remove(directory);
+            return Collections.emptySet();
+        }
+
+        Set<String> sidecars = new HashSet<>();
+        for (String name : names) {
+            if (name.endsWith(extension)) {
+                sidecars.add(name);
+            }
+        }
+        listings.put(directory,
+            new Listing(modified, listedAt - modified > MTIME_GRANULARITY_MS, sidecars));
+
+        Set<String> added = new HashSet<>(sidecars);
+        if (previous != null) {
+            added.removeAll(previous.names);
+        }
+        return added;
+    }
+
+    synchronized int getListCount() {
+        return listCount;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.myapplication.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 백그라운드 작업 스케줄러 (우선순위 레인)
+ *
+ * 작업은 VISIBLE(화면에 보이는 것) → PREFETCH(곧 보일 것) → BACKGROUND(색인, 지연 필드) 레인 중 하나에 들어간다.
+ * 레인마다 동시에 실행할 수 있는 작업 수가 정해져 있고, 위 레인에 대기 작업이 남아 있으면 아래 레인은 새 작업을
+ * 시작하지 않으므로 스크롤 중에는 색인 작업이 화면 썸네일을 밀어내지 못한다.
+ * 대기 중인 작업은 setLane() 으로 다른 레인으로 옮길 수 있다 (화면에서 사라진 행은 내리고, 다시 보이면 올림).
+ * 작업 스레드는 필요할 때 만들어 레인 한도 합계까지 늘어나며, 실행하는 작업의 레인에 맞춰 스레드 우선순위를 바꾼다.
+ */
+public class TaskScheduler {
+    private static final String TAG = "TaskScheduler";
+
+    // 화면 썸네일, 마커 아이콘, 화면이 기다리는 로드
+    private static final int VISIBLE_LIMIT = 3;
+    // 상세 화면 이웃 이미지
+    private static final int PREFETCH_LIMIT = 1;
+    // EXIF 읽기와 디스크 정리는 저장소 I/O 대기가 대부분이므로 코어 수만큼 (2 ~ 4)
+    private static final int BACKGROUND_LIMIT =
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * 작업 레인 (선언 순서가 우선순위)
+     */
+    public enum Lane {
+        VISIBLE(Thread.NORM_PRIORITY),
+        PREFETCH(Thread.NORM_PRIORITY - 2),
+        BACKGROUND(Thread.MIN_PRIORITY);
+
+        final int threadPriority;
+
+        Lane(int threadPriority) {
+            this.threadPriority = threadPriority;
+        }
+    }
+
+    private static final int STATE_QUEUED = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+    private static final int STATE_CANCELLED = 3;
+
+    private static TaskScheduler instance;
+
+    private final String name;
+    private final int[] limits;
+    private final int maxThreads;
+
+    private final Object lock = new Object();
+    private final List<ArrayDeque<Task>> queues;
+    private final int[] running;
+    private int threadCount;
+    private int idleThreads;
+
+    public static synchronized TaskScheduler getInstance() {
+        if (instance == null) {
+            instance = new TaskScheduler(TAG, VISIBLE_LIMIT, PREFETCH_LIMIT, BACKGROUND_LIMIT);
+        }
+        return instance;
+    }
+
+    /**
+     * @param name 작업 스레드 이름 접두어
+     */
+    public TaskScheduler(String name, int visibleLimit, int prefetchLimit, int backgroundLimit) {
+        if (visibleLimit < 1 || prefetchLimit < 1 || backgroundLimit < 1) {
+            throw new IllegalArgumentException("레인 동시 실행 수는 1 이상이어야 함");
+        }
+        this.name = name;
+        this.limits = new int[]{visibleLimit, prefetchLimit, backgroundLimit};
+        this.maxThreads = visibleLimit + prefetchLimit + backgroundLimit;
+
+        Lane[] lanes = Lane.values();
+        queues = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            queues.add(new ArrayDeque<Task>());
+        }
+        running = new int[lanes.length];
+    }
+
+    /**
+     * 레인 맨 뒤에 작업 추가
+     */
+    public Task submit(Lane lane, Runnable runnable) {
+        Task task = new Task(lane, runnable);
+        synchronized (lock) {
+            queues.get(lane.ordinal()).addLast(task);
+            dispatch();
+        }
+        return task;
+    }
+
+    /**
+     * 레인에서 대기 중인 작업 수
+     */
+    public int getQueuedCount(Lane lane) {
+        synchronized (lock) {
+            return queues.get(lane.ordinal()).size();
+        }
+    }
+
+    /**
+     * 레인에서 실행 중인 작업 수
+     */
+    public int getRunningCount(Lane lane) {
+        synchronized (lock) {
+            return running[lane.ordinal()];
+        }
+    }
+
+    // lock 안에서 호출, 쉬는 스레드를 깨우거나 한도 안에서 새 스레드를 만듦
+    private void dispatch() {
+        if (nextLane() == null) {
+            return;
+        }
+        if (idleThreads > 0) {
+            lock.notify();
+        } else if (threadCount < maxThreads) {
+            threadCount++;
+            Thread thread = new Thread(this::runWorker, name + "-" + threadCount);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // lock 안에서 호출, 지금 시작할 수 있는 레인 (없으면 null)
+    private Lane nextLane() {
+        for (Lane lane : Lane.values()) {
+            int index = lane.ordinal();
+            if (queues.get(index).isEmpty()) {
+                continue;
+            }
+            // 대기 작업이 있는 가장 높은 레인이 한도에 찼으면 아래 레인도 기다림
+            return running[index] < limits[index] ? lane : null;
+        }
+        return null;
+    }
+
+    private void runWorker() {
+        Thread thread = Thread.currentThread();
+        Task task = null;
+        try {
+            while (true) {
+                synchronized (lock) {
+                    if (task != null) {
+                        running[task.runLane.ordinal()]--;
+                        task.state = STATE_DONE;
+                        task = null;
+                    }
+
+                    Lane lane;
+                    while ((lane = nextLane()) == null) {
+                        idleThreads++;
+                        try {
+                            lock.wait();
+                        } finally {
+                            idleThreads--;
+                        }
+                    }
+                    task = queues.get(lane.ordinal()).pollFirst();
+                    task.state = STATE_RUNNING;
+                    task.runLane = lane;
+                    running[lane.ordinal()]++;
+                    // 더 시작할 수 있는 작업이 남았으면 다른 스레드에 넘김
+                    dispatch();
+                }
+
+                thread.setPriority(task.runLane.threadPriority);
+                task.runnable.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 작업이 예외를 던지면 이 스레드는 끝나고 다음 요청 때 새 스레드를 만듦
+            synchronized (lock) {
+                if (task != null) {
+                    running[task.runLane.ordinal()]--;
+                    task.state = STATE_DONE;
+                }
+                threadCount--;
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * submit() 으로 넣은 작업
+     */
+    public final class Task {
+        private final Runnable runnable;
+        // 아래 필드는 lock 안에서만 접근
+        private Lane lane;
+        private Lane runLane;
+        private int state = STATE_QUEUED;
+
+        Task(Lane lane, Runnable runnable) {
+            this.lane = lane;
+            this.runnable = runnable;
+        }
+
+        public Lane getLane() {
+            synchronized (lock) {
+                return lane;
+            }
+        }
+
+        /**
+         * 대기 중이면 다른 레인으로 옮김 (올릴 때는 맨 앞, 내릴 때는 맨 뒤, 이미 시작했으면 무시)
+         *
+         * @return 옮겼으면 true
+         */
+        public boolean setLane(Lane newLane) {
+            synchronized (lock) {
+                if (state != STATE_QUEUED || newLane == lane) {
+                    return false;
+                }
+                queues.get(lane.ordinal()).remove(this);
+                if (newLane.ordinal() < lane.ordinal()) {
+                    queues.get(newLane.ordinal()).addFirst(this);
+                } else {
+                    queues.get(newLane.ordinal()).addLast(this);
+                }
+                lane = newLane;
+                dispatch();
+                return true;
+            }
+        }
+
+        /**
+         * 아직 시작하지 않았으면 취소
+         *
+         * @return 취소했으면 true (이미 실행 중이거나 끝났으면 false)
+         */
+        public boolean cancel() {
+            synchronized (lock) {
+                if (state != STATE_QUEUED) {
+                    return false;
+                }
+                queues.get(lane.ordinal()).remove(this);
+                state = STATE_CANCELLED;
+                // 위 레인이 비면 아래 레인이 시작할 수 있음
+                dispatch();
+                return true;
+            }
+        }
+
+        public boolean isQueued() {
+            synchronized (lock) {
+                return state == STATE_QUEUED;
+            }
+        }
+
+        public boolean isCancelled() {
+            synchronized (lock) {
+                return state == STATE_CANCELLED;
+            }
+        }
+    }
+}
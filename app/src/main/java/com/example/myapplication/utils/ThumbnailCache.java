@@ -0,0 +1,566 @@
+package com.example.myapplication.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.example.myapplication.model.ImageData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 썸네일 2단 캐시 (메모리 LRU + 디스크)
+ *
+ * 메모리에는 디코딩된 비트맵을 바이트 크기 기준 LRU 로, 디스크에는 방향을 보정하고 줄인 JPEG 을
+ * 경로 + 크기 + 수정 시각 키로 ThumbnailPack 묶음 파일 하나에 저장한다. 원본 디코딩은 캐시에 모두 없을 때만
+ * 하므로 갤러리 그리드, 지도 목록, 지도 마커가 같은 썸네일을 한 번만 만든다.
+ * 디스크 용량을 넘거나 지운 이미지가 쌓이면 묶음 파일을 압축하며, 적중/제거 횟수는 getStats() 로 확인한다.
+ * 메모리에서 밀려난 비트맵은 화면에 표시 중이거나 acquire() 로 빌려 간 것이 아니면 BitmapPool 에 반납해
+ * 다음 디코딩에서 재사용한다.
+ */
+public class ThumbnailCache {
+    private static final String TAG = "ThumbnailCache";
+
+    private static final String PACK_FILE_NAME = "thumbnails.pack";
+    // 디스크 최대 용량과 정리 후 목표 용량
+    private static final long MAX_DISK_BYTES = 64L * 1024 * 1024;
+    private static final long TRIM_TARGET_DISK_BYTES = MAX_DISK_BYTES * 9 / 10;
+    // 지운 레코드가 이 비율을 넘으면 압축
+    private static final double MAX_DEAD_RATIO = 0.5;
+    private static final int JPEG_QUALITY = 85;
+
+    // 묶음 파일에서 읽은 바이트를 복사할 스레드별 버퍼
+    private static final ThreadLocal<byte[]> READ_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[64 * 1024];
+        }
+    };
+
+    /**
+     * 썸네일이 준비되었을 때 메인 스레드에서 호출 (실패하면 thumbnail 은 null)
+     */
+    private interface OnThumbnailLoadedListener {
+        void onThumbnailLoaded(ImageData imageData, Bitmap thumbnail);
+    }
+
+    /**
+     * 캐시 적중/제거 횟수
+     */
+    public static class Stats {
+        private final int memoryHits;
+        private final int diskHits;
+        private final int decodes;
+        private final int memoryEvictions;
+        private final int diskEvictions;
+        private final int memoryBytes;
+        private final long diskBytes;
+
+        Stats(int memoryHits, int diskHits, int decodes, int memoryEvictions, int diskEvictions,
+              int memoryBytes, long diskBytes) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.decodes = decodes;
+            this.memoryEvictions = memoryEvictions;
+            this.diskEvictions = diskEvictions;
+            this.memoryBytes = memoryBytes;
+            this.diskBytes = diskBytes;
+        }
+
+        public int getMemoryHits() {
+            return memoryHits;
+        }
+
+        public int getDiskHits() {
+            return diskHits;
+        }
+
+        /**
+         * 두 캐시에 모두 없어 원본을 디코딩한 횟수
+         */
+        public int getDecodes() {
+            return decodes;
+        }
+
+        public int getMemoryEvictions() {
+            return memoryEvictions;
+        }
+
+        public int getDiskEvictions() {
+            return diskEvictions;
+        }
+
+        public int getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        public long getDiskBytes() {
+            return diskBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{memoryHits=" + memoryHits + ", diskHits=" + diskHits + ", decodes=" + decodes
+                + ", memoryEvictions=" + memoryEvictions + ", diskEvictions=" + diskEvictions
+                + ", memoryBytes=" + memoryBytes + ", diskBytes=" + diskBytes + "}";
+        }
+    }
+
+    private static ThumbnailCache instance;
+
+    private final Context appContext;
+    private final File packFile;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
+    private final LruCache<String, Bitmap> memoryCache;
+    // 불러오는 중인 키 → 기다리는 요청 (메인 스레드에서만 접근)
+    private final Map<String, List<PendingRequest>> pending = new HashMap<>();
+    // 불러오는 중인 키 → 스케줄러 작업 (메인 스레드에서만 접근, 스크롤 때 우선순위 조정)
+    private final Map<String, TaskScheduler.Task> loadTasks = new HashMap<>();
+    private final BitmapPool bitmapPool = BitmapPool.getInstance();
+    // ImageView → 표시 중인 썸네일 (메인 스레드에서만 접근)
+    private final Map<ImageView, Bitmap> boundBitmaps = new WeakHashMap<>();
+    // 백그라운드에서 빌려 간 썸네일 → 빌린 횟수 (풀에 반납하면 안 됨)
+    private final Map<Bitmap, Integer> pinned = new IdentityHashMap<>();
+    private volatile boolean clearing;
+
+    private final Object diskLock = new Object();
+    // 처음 디스크를 쓸 때 엶 (열지 못하면 디스크 캐시 없이 동작)
+    private ThumbnailPack pack;
+    private boolean packFailed;
+
+    private final AtomicInteger diskHits = new AtomicInteger();
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final AtomicInteger diskEvictions = new AtomicInteger();
+
+    public static synchronized ThumbnailCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ThumbnailCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ThumbnailCache(Context context) {
+        this.appContext = context;
+        this.packFile = new File(context.getCacheDir(), PACK_FILE_NAME);
+
+        // 앱 최대 메모리의 1/8
+        int maxMemoryBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        memoryCache = new LruCache<String, Bitmap>(maxMemoryBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (evicted && !clearing) {
+                    // 화면에 표시 중인지는 메인 스레드에서 확인
+                    mainHandler.post(() -> recycleIfUnused(oldValue));
+                }
+            }
+        };
+    }
+
+    /**
+     * 캐시 키 (파일이 바뀌면 수정 시각이 달라져 새로 만듦)
+     */
+    public static String keyOf(ImageData imageData, int sizePx) {
+        return imageKeyOf(imageData) + "#" + sizePx;
+    }
+
+    /**
+     * 썸네일을 바로 빌려 옴 (백그라운드 스레드에서 호출, 다 쓰면 release() 호출)
+     *
+     * 메모리 → 디스크 → 원본 디코딩 순서로 찾고, 디코딩했으면 두 캐시에 모두 넣는다.
+     * 짧은 변이 sizePx 가 되도록 줄이므로 centerCrop 으로 표시해도 흐려지지 않는다.
+     */
+    public Bitmap acquire(ImageData imageData, int sizePx) {
+        Bitmap bitmap = acquireCached(imageData, sizePx);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        bitmap = decode(imageData, sizePx);
+        if (bitmap == null) {
+            return null;
+        }
+        decodes.incrementAndGet();
+        String key = keyOf(imageData, sizePx);
+        writeToDisk(key, bitmap);
+
+        synchronized (pinned) {
+            pin(bitmap);
+        }
+        memoryCache.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * 메모리에 있는 썸네일만 빌려 옴 (메인 스레드에서도 호출 가능, 없으면 null)
+     */
+    public Bitmap acquireFromMemory(ImageData imageData, int sizePx) {
+        // 꺼내는 것과 빌린 표시를 한 번에 해야 그 사이에 풀로 반납되지 않는다
+        synchronized (pinned) {
+            Bitmap bitmap = memoryCache.get(keyOf(imageData, sizePx));
+            if (bitmap != null) {
+                pin(bitmap);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * 메모리나 디스크에 있는 썸네일만 빌려 옴 (백그라운드 스레드에서 호출, 원본은 디코딩하지 않음)
+     */
+    public Bitmap acquireCached(ImageData imageData, int sizePx) {
+        Bitmap bitmap = acquireFromMemory(imageData, sizePx);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        String key = keyOf(imageData, sizePx);
+        bitmap = readFromDisk(key);
+        if (bitmap == null) {
+            return null;
+        }
+        diskHits.incrementAndGet();
+
+        synchronized (pinned) {
+            pin(bitmap);
+        }
+        memoryCache.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * acquire() 로 빌린 썸네일 반납
+     */
+    public void release(Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+        synchronized (pinned) {
+            Integer count = pinned.get(bitmap);
+            if (count == null || count <= 1) {
+                pinned.remove(bitmap);
+            } else {
+                pinned.put(bitmap, count - 1);
+            }
+        }
+    }
+
+    // pinned 잠금 안에서 호출
+    private void pin(Bitmap bitmap) {
+        Integer count = pinned.get(bitmap);
+        pinned.put(bitmap, count == null ? 1 : count + 1);
+    }
+
+    // 메인 스레드에서 호출, 아무도 쓰지 않는 비트맵만 풀에 반납
+    private void recycleIfUnused(Bitmap bitmap) {
+        if (boundBitmaps.containsValue(bitmap)) {
+            return;
+        }
+        synchronized (pinned) {
+            if (!pinned.containsKey(bitmap)) {
+                bitmapPool.put(bitmap);
+            }
+        }
+    }
+
+    /**
+     * 썸네일 요청 (메인 스레드에서 호출)
+     *
+     * 메모리에 있으면 바로 알리고, 없으면 백그라운드에서 불러온 뒤 알린다. 같은 키의 요청은 한 번만 불러온다.
+     */
+    private void load(ImageData imageData, int sizePx, OnThumbnailLoadedListener listener) {
+        String key = keyOf(imageData, sizePx);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            listener.onThumbnailLoaded(imageData, cached);
+            return;
+        }
+
+        List<PendingRequest> waiting = pending.get(key);
+        if (waiting != null) {
+            waiting.add(new PendingRequest(imageData, listener));
+            // 내려 두었던 요청이 다시 보이면 올림
+            TaskScheduler.Task task = loadTasks.get(key);
+            if (task != null) {
+                task.setLane(TaskScheduler.Lane.VISIBLE);
+            }
+            return;
+        }
+
+        waiting = new ArrayList<>();
+        waiting.add(new PendingRequest(imageData, listener));
+        pending.put(key, waiting);
+
+        loadTasks.put(key, scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> {
+            Bitmap bitmap = null;
+            try {
+                bitmap = acquire(imageData, sizePx);
+            } catch (Exception e) {
+                Log.w(TAG, "썸네일 로드 실패: " + imageData.getImagePath(), e);
+            }
+
+            Bitmap result = bitmap;
+            mainHandler.post(() -> {
+                loadTasks.remove(key);
+                List<PendingRequest> requests = pending.remove(key);
+                if (requests != null) {
+                    for (PendingRequest request : requests) {
+                        request.listener.onThumbnailLoaded(request.imageData, result);
+                    }
+                }
+                // 리스너가 뷰에 붙였으면 boundBitmaps 가 대신 지킨다
+                release(result);
+            });
+        }));
+    }
+
+    /**
+     * 목록 항목 ImageView 에 썸네일 표시 (메인 스레드에서 호출)
+     *
+     * 뷰가 재사용되어 다른 이미지에 바인딩되면 늦게 도착한 결과는 무시하고,
+     * 아직 시작하지 않은 이전 요청은 PREFETCH 레인으로 내려 화면에 새로 보이는 썸네일이 먼저 나오게 한다.
+     */
+    public void loadInto(ImageData imageData, int sizePx, ImageView imageView) {
+        String key = keyOf(imageData, sizePx);
+        Object previousKey = imageView.getTag();
+        if (previousKey != null && !key.equals(previousKey)) {
+            TaskScheduler.Task previousTask = loadTasks.get(previousKey);
+            if (previousTask != null) {
+                // 다시 스크롤해 돌아올 수 있으므로 취소하지 않고 순서만 미룸
+                previousTask.setLane(TaskScheduler.Lane.PREFETCH);
+            }
+        }
+        imageView.setTag(key);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            bind(imageView, cached);
+            return;
+        }
+
+        // 불러오는 동안은 배경색(자리 표시)만 보이게 함
+        imageView.setImageDrawable(null);
+        boundBitmaps.remove(imageView);
+        load(imageData, sizePx, (loadedImage, thumbnail) -> {
+            if (thumbnail != null && key.equals(imageView.getTag())) {
+                bind(imageView, thumbnail);
+            }
+        });
+    }
+
+    /**
+     * 자리 표시 항목으로 바뀐 ImageView 비우기 (진행 중이던 요청은 loadInto() 와 같이 뒤로 미룸)
+     */
+    public void clear(ImageView imageView) {
+        Object previousKey = imageView.getTag();
+        if (previousKey != null) {
+            TaskScheduler.Task previousTask = loadTasks.get(previousKey);
+            if (previousTask != null) {
+                previousTask.setLane(TaskScheduler.Lane.PREFETCH);
+            }
+        }
+        imageView.setTag(null);
+        imageView.setImageDrawable(null);
+        boundBitmaps.remove(imageView);
+    }
+
+    private void bind(ImageView imageView, Bitmap bitmap) {
+        imageView.setImageBitmap(bitmap);
+        boundBitmaps.put(imageView, bitmap);
+    }
+
+    public Stats getStats() {
+        ThumbnailPack currentPack;
+        synchronized (diskLock) {
+            currentPack = pack;
+        }
+        long currentDiskBytes = currentPack != null ? currentPack.getFileLength() : 0;
+        return new Stats(memoryCache.hitCount(), diskHits.get(), decodes.get(),
+            memoryCache.evictionCount(), diskEvictions.get(), memoryCache.size(), currentDiskBytes);
+    }
+
+    /**
+     * 메모리 캐시 비우기 (메모리가 부족할 때 호출)
+     */
+    public void clearMemory() {
+        // 메모리를 돌려주려는 것이므로 밀려난 비트맵을 풀에 넣지 않음
+        clearing = true;
+        try {
+            memoryCache.evictAll();
+        } finally {
+            clearing = false;
+        }
+        bitmapPool.clear();
+    }
+
+    private Bitmap decode(ImageData imageData, int sizePx) {
+        // 디코딩 단계에서 짧은 변이 sizePx 가 되도록 맞춰 나옴
+        Bitmap bitmap = ImageUtils.createThumbnail(imageData, sizePx);
+        if (bitmap == null && !new File(imageData.getImagePath()).exists()) {
+            // MediaStore 에는 남았지만 파일이 지워진 행은 다음 변경분에서 목록에서 빠짐
+            MediaSyncManager.getInstance(appContext).reportMissing(imageData);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 지금 목록에 없는 이미지의 썸네일을 디스크에서 지움 (동기화가 끝난 뒤 호출)
+     */
+    public void retainImages(List<ImageData> images) {
+        Set<String> liveImages = new HashSet<>(images.size() * 2);
+        for (ImageData imageData : images) {
+            liveImages.add(imageKeyOf(imageData));
+        }
+
+        scheduler.submit(TaskScheduler.Lane.BACKGROUND, () -> {
+            ThumbnailPack currentPack = getPack();
+            if (currentPack == null) {
+                return;
+            }
+            int removed = currentPack.retain(key -> {
+                int sizeSeparator = key.lastIndexOf('#');
+                return sizeSeparator > 0 && liveImages.contains(key.substring(0, sizeSeparator));
+            });
+            if (removed > 0) {
+                diskEvictions.addAndGet(removed);
+                compactIfNeeded(currentPack);
+            }
+        });
+    }
+
+    // keyOf() 에서 크기를 뺀 부분
+    private static String imageKeyOf(ImageData imageData) {
+        return imageData.getImagePath() + "@" + imageData.getDateModified();
+    }
+
+    private ThumbnailPack getPack() {
+        synchronized (diskLock) {
+            if (pack == null && !packFailed) {
+                try {
+                    pack = new ThumbnailPack(packFile);
+                } catch (IOException e) {
+                    Log.w(TAG, "썸네일 묶음 파일 열기 실패", e);
+                    packFailed = true;
+                }
+            }
+            return pack;
+        }
+    }
+
+    private Bitmap readFromDisk(String key) {
+        ThumbnailPack currentPack = getPack();
+        if (currentPack == null) {
+            return null;
+        }
+
+        try {
+            ByteBuffer data = currentPack.get(key);
+            if (data == null) {
+                return null;
+            }
+
+            // 매핑된 버퍼에서 스레드별 버퍼로 복사해 디코딩 (파일을 따로 열지 않음)
+            int length = data.remaining();
+            byte[] buffer = READ_BUFFER.get();
+            if (buffer.length < length) {
+                buffer = new byte[length];
+                READ_BUFFER.set(buffer);
+            }
+            data.get(buffer, 0, length);
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(buffer, 0, length, options);
+
+            options.inJustDecodeBounds = false;
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            options.inMutable = true;
+            options.inBitmap = bitmapPool.getForDecode(options.outWidth, options.outHeight, Bitmap.Config.RGB_565);
+            Bitmap bitmap;
+            try {
+                bitmap = BitmapFactory.decodeByteArray(buffer, 0, length, options);
+            } catch (IllegalArgumentException e) {
+                bitmapPool.put(options.inBitmap);
+                options.inBitmap = null;
+                bitmap = BitmapFactory.decodeByteArray(buffer, 0, length, options);
+            }
+            if (bitmap == null) {
+                bitmapPool.put(options.inBitmap);
+                // 깨진 데이터는 지우고 다시 만든다
+                currentPack.remove(key);
+            }
+            return bitmap;
+        } catch (IOException e) {
+            Log.w(TAG, "썸네일 읽기 실패: " + key, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Bitmap bitmap) {
+        ThumbnailPack currentPack = getPack();
+        if (currentPack == null) {
+            return;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        try {
+            currentPack.put(key, out.toByteArray());
+            compactIfNeeded(currentPack);
+        } catch (IOException e) {
+            Log.w(TAG, "썸네일 쓰기 실패: " + key, e);
+        }
+    }
+
+    // 용량을 넘었거나 지운 레코드가 많으면 살아 있는 레코드만 남김
+    private void compactIfNeeded(ThumbnailPack currentPack) {
+        // 여러 스레드가 동시에 압축하지 않도록 diskLock 으로 묶음
+        synchronized (diskLock) {
+            long live = currentPack.getLiveBytes();
+            long dead = currentPack.getDeadBytes();
+            if (live <= MAX_DISK_BYTES && dead <= (live + dead) * MAX_DEAD_RATIO) {
+                return;
+            }
+
+            try {
+                int dropped = currentPack.compact(TRIM_TARGET_DISK_BYTES);
+                diskEvictions.addAndGet(dropped);
+                Log.d(TAG, "썸네일 묶음 파일 압축 완료: " + getStats());
+            } catch (IOException e) {
+                Log.w(TAG, "썸네일 묶음 파일 압축 실패", e);
+            }
+        }
+    }
+
+    private static class PendingRequest {
+        final ImageData imageData;
+        final OnThumbnailLoadedListener listener;
+
+        PendingRequest(ImageData imageData, OnThumbnailLoadedListener listener) {
+            this.imageData = imageData;
+            this.listener = listener;
+        }
+    }
+}
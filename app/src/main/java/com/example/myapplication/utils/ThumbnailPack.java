@@ -0,0 +1,505 @@
+package com.example.myapplication.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 썸네일 묶음 파일 (키 → 압축된 썸네일 바이트)
+ *
+ * 모든 썸네일을 파일 하나(헤더 + 레코드를 이어 붙인 로그)에 추가만 하고, 읽을 때는 FileChannel.map 으로
+ * 매핑한 버퍼에서 오프셋으로 바로 잘라 쓰므로 썸네일마다 파일을 열지 않는다.
+ * 레코드마다 키, 길이, CRC 가 있어 오프셋 색인(.idx)은 임시 파일에 쓴 뒤 이름을 바꿔 저장하고,
+ * 마지막 저장 이후에 추가된 레코드는 열 때 다시 훑어 복구한다. 끝이 잘린 레코드는 잘라 낸다.
+ * 지운 레코드는 compact() 로 살아 있는 레코드만 새 파일에 옮겨 공간을 회수한다.
+ * Android API 를 쓰지 않으므로 JVM 에서 테스트할 수 있다.
+ */
+public class ThumbnailPack implements Closeable {
+
+    private static final int FILE_MAGIC = 0x54504B31;   // "TPK1"
+    private static final int INDEX_MAGIC = 0x54504B49;  // "TPKI"
+    private static final int RECORD_MAGIC = 0x54485231; // "THR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    // magic(4) + 키 길이(2) + 데이터 길이(4) + CRC(4)
+    private static final int RECORD_HEADER_SIZE = 14;
+    private static final int MAX_KEY_BYTES = 0xFFFF;
+    // 이만큼 추가할 때마다 색인 저장 (그 사이에 죽어도 레코드를 다시 훑어 복구)
+    private static final int INDEX_SAVE_INTERVAL = 64;
+
+    /**
+     * retain() 에서 남길 키 선택
+     */
+    public interface KeyFilter {
+        boolean accept(String key);
+    }
+
+    private static class Entry {
+        final long recordOffset;
+        final int recordLength;
+        final int dataLength;
+
+        Entry(long recordOffset, int recordLength, int dataLength) {
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.dataLength = dataLength;
+        }
+
+        long dataOffset() {
+            return recordOffset + recordLength - dataLength;
+        }
+    }
+
+    private final File packFile;
+    private final File indexFile;
+    // 추가된 순서 (compact() 에서 용량을 넘으면 오래된 것부터 버림)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long length;
+    private long liveBytes;
+    private int unsavedAppends;
+
+    public ThumbnailPack(File packFile) throws IOException {
+        this.packFile = packFile;
+        this.indexFile = new File(packFile.getPath() + ".idx");
+        open();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * 파일 전체 크기 (헤더와 지운 레코드 포함)
+     */
+    public synchronized long getFileLength() {
+        return length;
+    }
+
+    /**
+     * 살아 있는 레코드 크기 합
+     */
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * 지웠거나 덮어써서 compact() 로 회수할 수 있는 크기
+     */
+    public synchronized long getDeadBytes() {
+        return length - HEADER_SIZE - liveBytes;
+    }
+
+    /**
+     * 키의 데이터 (없으면 null)
+     *
+     * 반환한 버퍼는 매핑된 파일을 직접 가리키는 읽기 전용 조각이므로 복사 없이 읽을 수 있다.
+     */
+    public synchronized ByteBuffer get(String key) throws IOException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        long end = entry.recordOffset + entry.recordLength;
+        if (mapped == null || mapped.capacity() < end) {
+            // 파일이 늘어났으면 현재 길이로 다시 매핑
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        ByteBuffer slice = mapped.duplicate();
+        slice.position((int) entry.dataOffset());
+        slice.limit((int) end);
+        return slice.slice();
+    }
+
+    /**
+     * 키의 데이터 추가 (같은 키가 있으면 새 레코드로 대체)
+     */
+    public synchronized void put(String key, byte[] data, int offset, int dataLength) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("키가 너무 김: " + keyBytes.length);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(data, offset, dataLength);
+
+        int recordLength = RECORD_HEADER_SIZE + keyBytes.length + dataLength;
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(RECORD_MAGIC);
+        record.putShort((short) keyBytes.length);
+        record.putInt(dataLength);
+        record.putInt((int) crc.getValue());
+        record.put(keyBytes);
+        record.put(data, offset, dataLength);
+        record.flip();
+
+        long recordOffset = length;
+        writeFully(channel, record, recordOffset);
+        length += recordLength;
+
+        addEntry(key, new Entry(recordOffset, recordLength, dataLength));
+        if (++unsavedAppends >= INDEX_SAVE_INTERVAL) {
+            flush();
+        }
+    }
+
+    public void put(String key, byte[] data) throws IOException {
+        put(key, data, 0, data.length);
+    }
+
+    public synchronized boolean remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        liveBytes -= entry.recordLength;
+        return true;
+    }
+
+    /**
+     * filter 가 받아들이지 않는 키를 모두 지움 (공간은 compact() 에서 회수)
+     *
+     * @return 지운 개수
+     */
+    public synchronized int retain(KeyFilter filter) {
+        int removed = 0;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (!filter.accept(entry.getKey())) {
+                liveBytes -= entry.getValue().recordLength;
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 살아 있는 레코드만 새 파일로 옮김
+     *
+     * 살아 있는 크기가 maxLiveBytes 를 넘으면 가장 먼저 추가된 것부터 버린다.
+     * 새 파일을 다 쓴 뒤 색인을 지우고 이름을 바꾸므로, 어느 단계에서 죽어도 다음에 열 때 레코드를 훑어 복구된다.
+     *
+     * @return 용량 때문에 버린 개수
+     */
+    public synchronized int compact(long maxLiveBytes) throws IOException {
+        int dropped = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (liveBytes > maxLiveBytes && iterator.hasNext()) {
+            liveBytes -= iterator.next().recordLength;
+            iterator.remove();
+            dropped++;
+        }
+
+        File tempFile = new File(packFile.getPath() + ".tmp");
+        List<String> keys = new ArrayList<>(entries.keySet());
+        List<Entry> moved = new ArrayList<>(keys.size());
+        long newLength = HEADER_SIZE;
+
+        try (RandomAccessFile out = new RandomAccessFile(tempFile, "rw")) {
+            out.setLength(0);
+            FileChannel outChannel = out.getChannel();
+            writeFully(outChannel, createHeader(), 0);
+
+            for (String key : keys) {
+                Entry entry = entries.get(key);
+                outChannel.position(newLength);
+                long copied = 0;
+                while (copied < entry.recordLength) {
+                    copied += channel.transferTo(entry.recordOffset + copied, entry.recordLength - copied, outChannel);
+                }
+                moved.add(new Entry(newLength, entry.recordLength, entry.dataLength));
+                newLength += entry.recordLength;
+            }
+            outChannel.force(true);
+        }
+
+        closeChannel();
+        try {
+            if (indexFile.exists() && !indexFile.delete()) {
+                throw new IOException("파일 삭제 실패: " + indexFile);
+            }
+            if (!tempFile.renameTo(packFile)) {
+                throw new IOException("파일 교체 실패: " + packFile);
+            }
+
+            entries.clear();
+            for (int i = 0; i < keys.size(); i++) {
+                entries.put(keys.get(i), moved.get(i));
+            }
+            length = newLength;
+        } finally {
+            // 실패했으면 이전 파일을 그대로 다시 연다
+            openChannel();
+        }
+        saveIndex();
+        return dropped;
+    }
+
+    /**
+     * 추가한 레코드를 디스크에 반영하고 색인 저장
+     */
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+        saveIndex();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = packFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("폴더 생성 실패: " + parent);
+        }
+
+        openChannel();
+        if (!hasValidHeader()) {
+            // 새 파일이거나 알 수 없는 형식이면 비우고 다시 시작
+            file.setLength(0);
+            writeFully(channel, createHeader(), 0);
+            indexFile.delete();
+        }
+        length = file.length();
+
+        long scanFrom = loadIndex();
+        long validEnd = scanRecords(scanFrom);
+        if (validEnd < length) {
+            // 쓰다 만 레코드는 잘라 냄
+            file.setLength(validEnd);
+            length = validEnd;
+        }
+    }
+
+    private void openChannel() throws IOException {
+        file = new RandomAccessFile(packFile, "rw");
+        channel = file.getChannel();
+        mapped = null;
+    }
+
+    private void closeChannel() throws IOException {
+        mapped = null;
+        if (file != null) {
+            file.close();
+            file = null;
+            channel = null;
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        return header.getInt() == FILE_MAGIC && header.getInt() == VERSION;
+    }
+
+    private static ByteBuffer createHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(FILE_MAGIC);
+        header.putInt(VERSION);
+        header.putLong(0);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * 색인 파일을 읽어 entries 를 채움
+     *
+     * @return 색인이 다루는 파일 길이 (이후는 레코드를 훑어야 함)
+     */
+    private long loadIndex() {
+        entries.clear();
+        liveBytes = 0;
+        if (!indexFile.isFile()) {
+            return HEADER_SIZE;
+        }
+
+        try {
+            byte[] bytes = readAll(indexFile);
+            if (bytes.length < 4) {
+                return HEADER_SIZE;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            int storedCrc = ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt();
+            if ((int) crc.getValue() != storedCrc) {
+                return HEADER_SIZE;
+            }
+
+            DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != VERSION) {
+                return HEADER_SIZE;
+            }
+            long indexedLength = in.readLong();
+            int count = in.readInt();
+            if (indexedLength < HEADER_SIZE || indexedLength > length) {
+                return HEADER_SIZE;
+            }
+
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long recordOffset = in.readLong();
+                int recordLength = in.readInt();
+                int dataLength = in.readInt();
+                if (recordOffset < HEADER_SIZE || recordOffset + recordLength > indexedLength) {
+                    entries.clear();
+                    liveBytes = 0;
+                    return HEADER_SIZE;
+                }
+                addEntry(key, new Entry(recordOffset, recordLength, dataLength));
+            }
+            return indexedLength;
+        } catch (IOException e) {
+            entries.clear();
+            liveBytes = 0;
+            return HEADER_SIZE;
+        }
+    }
+
+    /**
+     * position 부터 레코드를 훑어 entries 에 추가
+     *
+     * @return 마지막으로 온전한 레코드의 끝
+     */
+    private long scanRecords(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (position + RECORD_HEADER_SIZE <= length) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+
+            if (header.getInt() != RECORD_MAGIC) {
+                break;
+            }
+            int keyLength = header.getShort() & 0xFFFF;
+            int dataLength = header.getInt();
+            int storedCrc = header.getInt();
+            long recordLength = (long) RECORD_HEADER_SIZE + keyLength + dataLength;
+            if (dataLength < 0 || position + recordLength > length) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(keyLength + dataLength);
+            readFully(channel, body, position + RECORD_HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(body.array(), 0, body.capacity());
+            if ((int) crc.getValue() != storedCrc) {
+                break;
+            }
+
+            String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            addEntry(key, new Entry(position, (int) recordLength, dataLength));
+            position += recordLength;
+        }
+        return position;
+    }
+
+    private void addEntry(String key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            liveBytes -= previous.recordLength;
+        }
+        entries.put(key, entry);
+        liveBytes += entry.recordLength;
+    }
+
+    // 임시 파일에 쓰고 동기화한 뒤 이름을 바꿔 반쯤 쓴 색인이 남지 않게 함
+    private void saveIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(length);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().recordOffset);
+            out.writeInt(entry.getValue().recordLength);
+            out.writeInt(entry.getValue().dataLength);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            bytes.writeTo(stream);
+            stream.getFD().sync();
+        }
+        if (!tempFile.renameTo(indexFile)) {
+            tempFile.delete();
+            throw new IOException("파일 교체 실패: " + indexFile);
+        }
+        unsavedAppends = 0;
+    }
+
+    private static byte[] readAll(File source) throws IOException {
+        try (FileInputStream in = new FileInputStream(source)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) source.length());
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("묶음 파일이 예상보다 일찍 끝남");
+            }
+            position += read;
+        }
+    }
+}
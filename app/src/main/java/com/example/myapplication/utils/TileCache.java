@@ -0,0 +1,96 @@
+package com.example.myapplication.utils;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import java.util.Map;
+
+/**
+ * 확대 보기 타일 캐시 (앱 전체에서 하나)
+ *
+ * 상세 화면의 페이지마다 TiledImageView 가 있으므로 타일을 뷰마다 두면 살아 있는 페이지 수만큼 메모리가 늘어난다.
+ * 이미지 경로와 타일 키로 한 LRU 에 모아 전체 크기를 제한하고, 밀려난 타일은 BitmapPool 에 반납한다.
+ * 메인 스레드에서만 사용한다.
+ */
+public class TileCache {
+
+    private static TileCache instance;
+
+    private final BitmapPool bitmapPool = BitmapPool.getInstance();
+    private final LruCache<Key, Bitmap> cache;
+    // get() 할 때마다 키를 만들지 않도록 재사용 (메인 스레드에서만 사용)
+    private final Key lookupKey = new Key(null, 0);
+
+    public static synchronized TileCache getInstance() {
+        if (instance == null) {
+            // 앱 최대 메모리의 1/10 (512px RGB_565 타일 하나가 512KB)
+            instance = new TileCache((int) (Runtime.getRuntime().maxMemory() / 10));
+        }
+        return instance;
+    }
+
+    private TileCache(int maxBytes) {
+        cache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Key key, Bitmap oldValue, Bitmap newValue) {
+                // 뷰는 그릴 때마다 캐시에서 꺼내므로 빠진 비트맵은 더 이상 그려지지 않음
+                bitmapPool.put(oldValue);
+            }
+        };
+    }
+
+    /**
+     * 타일 꺼내기 (없으면 null)
+     *
+     * @param tileKey TileGrid.Tile.getKey()
+     */
+    public Bitmap get(String imagePath, long tileKey) {
+        lookupKey.imagePath = imagePath;
+        lookupKey.tileKey = tileKey;
+        return cache.get(lookupKey);
+    }
+
+    public void put(String imagePath, long tileKey, Bitmap bitmap) {
+        cache.put(new Key(imagePath, tileKey), bitmap);
+    }
+
+    /**
+     * 이미지 하나의 타일을 모두 버림 (페이지를 닫거나 다른 이미지로 바꿀 때)
+     */
+    public void removeImage(String imagePath) {
+        for (Map.Entry<Key, Bitmap> entry : cache.snapshot().entrySet()) {
+            if (entry.getKey().imagePath.equals(imagePath)) {
+                cache.remove(entry.getKey());
+            }
+        }
+    }
+
+    private static final class Key {
+        String imagePath;
+        long tileKey;
+
+        Key(String imagePath, long tileKey) {
+            this.imagePath = imagePath;
+            this.tileKey = tileKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return tileKey == other.tileKey && imagePath.equals(other.imagePath);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * imagePath.hashCode() + Long.hashCode(tileKey);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.myapplication.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 큰 이미지를 부분 디코딩할 타일 격자 계산
+ *
+ * 타일은 저장된(회전 보정 전) 이미지 좌표로 나누고, 화면에 보이는 방향(표시 좌표)과는 EXIF 회전 각도로 변환한다.
+ * 샘플 크기가 s 이면 타일 한 칸은 원본 tileSize * s 픽셀이고 디코딩하면 tileSize 픽셀 안팎이 되므로,
+ * 줌과 관계없이 타일 비트맵 크기가 일정하다. Android API 를 쓰지 않으므로 JVM 에서 테스트할 수 있다.
+ */
+public class TileGrid {
+
+    // 디코딩된 타일 한 변 (px)
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    /**
+     * 격자 한 칸 (좌표는 저장된 이미지 기준)
+     */
+    public static class Tile {
+        private final int sampleSize;
+        private final int column;
+        private final int row;
+        private final int left;
+        private final int top;
+        private final int right;
+        private final int bottom;
+
+        Tile(int sampleSize, int column, int row, int left, int top, int right, int bottom) {
+            this.sampleSize = sampleSize;
+            this.column = column;
+            this.row = row;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+
+        /**
+         * 샘플 크기와 칸 좌표로 정해지는 키 (같은 키면 같은 타일)
+         */
+        public long getKey() {
+            return ((long) Integer.numberOfTrailingZeros(sampleSize) << 48) | ((long) column << 24) | row;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getLeft() {
+            return left;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public int getRight() {
+            return right;
+        }
+
+        public int getBottom() {
+            return bottom;
+        }
+
+        /**
+         * 디코딩했을 때 비트맵 크기
+         */
+        public int getDecodedWidth() {
+            return (right - left + sampleSize - 1) / sampleSize;
+        }
+
+        public int getDecodedHeight() {
+            return (bottom - top + sampleSize - 1) / sampleSize;
+        }
+    }
+
+    private final int imageWidth;
+    private final int imageHeight;
+    private final int rotation;
+    private final int tileSize;
+
+    public TileGrid(int imageWidth, int imageHeight, int rotationDegrees) {
+        this(imageWidth, imageHeight, rotationDegrees, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @param imageWidth      저장된 이미지 너비
+     * @param imageHeight     저장된 이미지 높이
+     * @param rotationDegrees 표시할 때 시계 방향 회전 각도 (0, 90, 180, 270)
+     * @param tileSize        디코딩된 타일 한 변 (px)
+     */
+    public TileGrid(int imageWidth, int imageHeight, int rotationDegrees, int tileSize) {
+        if (imageWidth <= 0 || imageHeight <= 0 || tileSize <= 0) {
+            throw new IllegalArgumentException("잘못된 크기: " + imageWidth + "x" + imageHeight + ", 타일 " + tileSize);
+        }
+        if (rotationDegrees % 90 != 0) {
+            throw new IllegalArgumentException("잘못된 회전 각도: " + rotationDegrees);
+        }
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.rotation = ((rotationDegrees % 360) + 360) % 360;
+        this.tileSize = tileSize;
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * 회전 보정 후 보이는 너비
+     */
+    public int getDisplayWidth() {
+        return rotation % 180 == 0 ? imageWidth : imageHeight;
+    }
+
+    public int getDisplayHeight() {
+        return rotation % 180 == 0 ? imageHeight : imageWidth;
+    }
+
+    /**
+     * 화면 배율(화면 px / 원본 px)에서 화질 손실 없이 쓸 수 있는 가장 큰 샘플 크기 (2의 거듭제곱)
+     */
+    public static int sampleSizeFor(float scale) {
+        int sampleSize = 1;
+        while (scale * sampleSize * 2 <= 1f) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * 표시 좌표 영역 [left, top, right, bottom] 에 보이는 타일 (가운데에 가까운 것부터)
+     */
+    public List<Tile> getVisibleTiles(float left, float top, float right, float bottom, int sampleSize) {
+        int[] range = tileRange(left, top, right, bottom, sampleSize);
+        List<Tile> tiles = new ArrayList<>();
+        if (range == null) {
+            return tiles;
+        }
+
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                tiles.add(createTile(sampleSize, column, row));
+            }
+        }
+
+        // 화면 가운데 타일을 먼저 디코딩
+        float centerColumn = (range[0] + range[2]) / 2f;
+        float centerRow = (range[1] + range[3]) / 2f;
+        Collections.sort(tiles, (a, b) -> Float.compare(
+            distance(a, centerColumn, centerRow), distance(b, centerColumn, centerRow)));
+        return tiles;
+    }
+
+    /**
+     * 보이는 타일을 한 칸씩 둘러싼 이웃 타일 (다음 이동에 대비해 미리 디코딩할 것)
+     */
+    public List<Tile> getNeighbourTiles(float left, float top, float right, float bottom, int sampleSize) {
+        int[] range = tileRange(left, top, right, bottom, sampleSize);
+        List<Tile> tiles = new ArrayList<>();
+        if (range == null) {
+            return tiles;
+        }
+
+        int maxColumn = getColumnCount(sampleSize) - 1;
+        int maxRow = getRowCount(sampleSize) - 1;
+        for (int row = Math.max(0, range[1] - 1); row <= Math.min(maxRow, range[3] + 1); row++) {
+            for (int column = Math.max(0, range[0] - 1); column <= Math.min(maxColumn, range[2] + 1); column++) {
+                boolean visible = column >= range[0] && column <= range[2] && row >= range[1] && row <= range[3];
+                if (!visible) {
+                    tiles.add(createTile(sampleSize, column, row));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    public int getColumnCount(int sampleSize) {
+        int span = tileSize * sampleSize;
+        return (imageWidth + span - 1) / span;
+    }
+
+    public int getRowCount(int sampleSize) {
+        int span = tileSize * sampleSize;
+        return (imageHeight + span - 1) / span;
+    }
+
+    /**
+     * 표시 좌표 영역을 저장된 이미지 좌표로 변환 (rect 를 직접 바꿈)
+     */
+    public void toImageRect(float[] rect) {
+        float left = rect[0];
+        float top = rect[1];
+        float right = rect[2];
+        float bottom = rect[3];
+        switch (rotation) {
+            case 90:
+                set(rect, top, imageHeight - right, bottom, imageHeight - left);
+                break;
+            case 180:
+                set(rect, imageWidth - right, imageHeight - bottom, imageWidth - left, imageHeight - top);
+                break;
+            case 270:
+                set(rect, imageWidth - bottom, left, imageWidth - top, right);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 저장된 이미지 좌표 영역을 표시 좌표로 변환 (rect 를 직접 바꿈)
+     */
+    public void toDisplayRect(float[] rect) {
+        float left = rect[0];
+        float top = rect[1];
+        float right = rect[2];
+        float bottom = rect[3];
+        switch (rotation) {
+            case 90:
+                set(rect, imageHeight - bottom, left, imageHeight - top, right);
+                break;
+            case 180:
+                set(rect, imageWidth - right, imageHeight - bottom, imageWidth - left, imageHeight - top);
+                break;
+            case 270:
+                set(rect, top, imageWidth - right, bottom, imageWidth - left);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 표시 좌표 영역에 걸치는 칸 범위 [첫 열, 첫 행, 끝 열, 끝 행] (이미지 밖이면 null)
+     */
+    private int[] tileRange(float left, float top, float right, float bottom, int sampleSize) {
+        float[] rect = {left, top, right, bottom};
+        toImageRect(rect);
+        float imageLeft = Math.max(0, rect[0]);
+        float imageTop = Math.max(0, rect[1]);
+        float imageRight = Math.min(imageWidth, rect[2]);
+        float imageBottom = Math.min(imageHeight, rect[3]);
+        if (imageLeft >= imageRight || imageTop >= imageBottom) {
+            return null;
+        }
+
+        int span = tileSize * sampleSize;
+        return new int[] {
+            (int) (imageLeft / span),
+            (int) (imageTop / span),
+            Math.min(getColumnCount(sampleSize) - 1, (int) Math.ceil(imageRight / span) - 1),
+            Math.min(getRowCount(sampleSize) - 1, (int) Math.ceil(imageBottom / span) - 1)
+        };
+    }
+
+    private Tile createTile(int sampleSize, int column, int row) {
+        int span = tileSize * sampleSize;
+        int left = column * span;
+        int top = row * span;
+        return new Tile(sampleSize, column, row, left, top,
+            Math.min(imageWidth, left + span), Math.min(imageHeight, top + span));
+    }
+
+    private static float distance(Tile tile, float column, float row) {
+        float dx = tile.column - column;
+        float dy = tile.row - row;
+        return dx * dx + dy * dy;
+    }
+
+    private static void set(float[] rect, float left, float top, float right, float bottom) {
+        rect[0] = left;
+        rect[1] = top;
+        rect[2] = right;
+        rect[3] = bottom;
+    }
+}
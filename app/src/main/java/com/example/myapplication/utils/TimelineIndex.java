@@ -0,0 +1,271 @@
+package com.example.myapplication.utils;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * 촬영 날짜별 타임라인 색인
+ *
+ * 갤러리 목록(ImageData.NEWEST_FIRST 순서)의 이미지를 일 단위 버킷에 세어 두고,
+ * 이미지가 추가/삭제될 때는 해당 버킷의 개수만 바꾼다. 버킷별 시작 위치는 다음 조회 때 버킷 수만큼만 다시 계산하며,
+ * 날짜로 이동하거나 위치의 구간을 찾을 때는 그 배열에서 이진 탐색한다 (이미지 수가 아니라 날짜 수에 비례).
+ * 월/연 구간은 일 버킷을 묶어 만든다. 촬영 날짜가 없는 이미지는 목록 맨 뒤의 구간 하나로 모은다.
+ */
+public class TimelineIndex {
+
+    /**
+     * 구간 단위
+     */
+    public enum Granularity {
+        DAY, MONTH, YEAR
+    }
+
+    /**
+     * 같은 날/월/연에 찍은 이미지 구간
+     */
+    public static final class Section {
+        private final long start;
+        private final int position;
+        private final int count;
+
+        Section(long start, int position, int count) {
+            this.start = start;
+            this.position = position;
+            this.count = count;
+        }
+
+        /**
+         * 구간이 시작하는 시각 (그 날/월/연의 0시, 촬영 날짜가 없는 구간은 0)
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * 목록에서 구간의 첫 위치
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isUndated() {
+            return start == 0;
+        }
+    }
+
+    private final Calendar calendar;
+    // 일 시작 시각(최신 순) → 이미지 수
+    private final TreeMap<Long, Integer> days = new TreeMap<>(Collections.reverseOrder());
+    // MediaStore _ID → 촬영 날짜 (다시 넣거나 지울 때 이전 버킷을 찾기 위함)
+    private final Map<Long, Long> datesById = new HashMap<>();
+    private int undatedCount;
+
+    // 아래는 바뀐 뒤 처음 조회할 때 다시 만듦 (null 이면 다시 만들어야 함)
+    private long[] dayStarts;
+    private int[] dayPositions;
+    private Map<Granularity, List<Section>> sections;
+
+    public TimelineIndex(TimeZone timeZone) {
+        this.calendar = Calendar.getInstance(timeZone);
+    }
+
+    /**
+     * 이미지 추가 또는 촬영 날짜 변경
+     */
+    public synchronized void put(long mediaId, long dateTaken) {
+        Long previous = datesById.put(mediaId, dateTaken);
+        if (previous != null) {
+            if (previous == dateTaken) {
+                return;
+            }
+            decrement(previous);
+        }
+        if (dateTaken > 0) {
+            days.merge(startOf(dateTaken, Granularity.DAY), 1, Integer::sum);
+        } else {
+            undatedCount++;
+        }
+        invalidate();
+    }
+
+    public synchronized void remove(long mediaId) {
+        Long previous = datesById.remove(mediaId);
+        if (previous != null) {
+            decrement(previous);
+            invalidate();
+        }
+    }
+
+    public synchronized void clear() {
+        days.clear();
+        datesById.clear();
+        undatedCount = 0;
+        invalidate();
+    }
+
+    public synchronized int size() {
+        return datesById.size();
+    }
+
+    /**
+     * 최신 순 구간 목록 (촬영 날짜가 없는 구간은 맨 뒤)
+     */
+    public synchronized List<Section> getSections(Granularity granularity) {
+        ensureBuilt();
+        return sections.get(granularity);
+    }
+
+    /**
+     * 위치가 속한 구간 (범위를 벗어나면 null)
+     */
+    public synchronized Section sectionAt(int position, Granularity granularity) {
+        if (position < 0 || position >= datesById.size()) {
+            return null;
+        }
+        ensureBuilt();
+        List<Section> list = sections.get(granularity);
+        int low = 0;
+        int high = list.size() - 1;
+        // position 이하에서 시작하는 마지막 구간
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (list.get(mid).position <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return list.get(low);
+    }
+
+    /**
+     * 그 날이나 그 이전에 찍은 첫 이미지의 위치 (날짜로 이동할 때, 없으면 촬영 날짜 없는 구간의 시작)
+     */
+    public synchronized int positionOf(long date) {
+        ensureBuilt();
+        return firstPositionAtOrBefore(startOf(date, Granularity.DAY));
+    }
+
+    /**
+     * from ~ to 날짜(양 끝 포함, 일 단위)에 찍은 이미지 수
+     */
+    public synchronized int countBetween(long from, long to) {
+        ensureBuilt();
+        long fromDay = startOf(Math.min(from, to), Granularity.DAY);
+        long toDay = startOf(Math.max(from, to), Granularity.DAY);
+        return firstPositionAtOrBefore(fromDay - 1) - firstPositionAtOrBefore(toDay);
+    }
+
+    /**
+     * 그 날/월/연의 0시 (현지 시각)
+     */
+    public synchronized long startOf(long date, Granularity granularity) {
+        calendar.setTimeInMillis(date);
+        switch (granularity) {
+            case YEAR:
+                calendar.set(Calendar.MONTH, Calendar.JANUARY);
+                // fall through
+            case MONTH:
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+                // fall through
+            default:
+                calendar.set(Calendar.HOUR_OF_DAY, 0);
+                calendar.set(Calendar.MINUTE, 0);
+                calendar.set(Calendar.SECOND, 0);
+                calendar.set(Calendar.MILLISECOND, 0);
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private void decrement(long dateTaken) {
+        if (dateTaken > 0) {
+            days.computeIfPresent(startOf(dateTaken, Granularity.DAY),
+                (day, count) -> count > 1 ? count - 1 : null);
+        } else {
+            undatedCount--;
+        }
+    }
+
+    private void invalidate() {
+        dayStarts = null;
+        dayPositions = null;
+        sections = null;
+    }
+
+    // dayStart 이하인 첫 일 버킷의 위치 (dayStarts 는 내림차순)
+    private int firstPositionAtOrBefore(long dayStart) {
+        int low = 0;
+        int high = dayStarts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dayStarts[mid] > dayStart) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return dayPositions[low];
+    }
+
+    private void ensureBuilt() {
+        if (sections != null) {
+            return;
+        }
+
+        // 마지막 칸은 촬영 날짜 없는 구간의 시작
+        dayStarts = new long[days.size()];
+        dayPositions = new int[days.size() + 1];
+        Map<Granularity, List<Section>> built = new EnumMap<>(Granularity.class);
+        for (Granularity granularity : Granularity.values()) {
+            built.put(granularity, new ArrayList<>());
+        }
+
+        int index = 0;
+        int position = 0;
+        for (Map.Entry<Long, Integer> entry : days.entrySet()) {
+            long day = entry.getKey();
+            int count = entry.getValue();
+            dayStarts[index] = day;
+            dayPositions[index] = position;
+            index++;
+
+            addToSection(built.get(Granularity.DAY), day, position, count);
+            addToSection(built.get(Granularity.MONTH), startOf(day, Granularity.MONTH), position, count);
+            addToSection(built.get(Granularity.YEAR), startOf(day, Granularity.YEAR), position, count);
+            position += count;
+        }
+        dayPositions[index] = position;
+
+        if (undatedCount > 0) {
+            for (List<Section> list : built.values()) {
+                list.add(new Section(0, position, undatedCount));
+            }
+        }
+        for (Granularity granularity : Granularity.values()) {
+            built.put(granularity, Collections.unmodifiableList(built.get(granularity)));
+        }
+        sections = built;
+    }
+
+    // 최신 순으로 넣으므로 같은 구간이면 마지막 구간에 더함
+    private static void addToSection(List<Section> list, long start, int position, int count) {
+        int last = list.size() - 1;
+        if (last >= 0 && list.get(last).start == start) {
+            Section section = list.get(last);
+            list.set(last, new Section(start, section.position, section.count + count));
+        } else {
+            list.add(new Section(start, position, count));
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.example.myapplication.view;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import com.example.myapplication.utils.BitmapPool;
+import com.example.myapplication.utils.ImageUtils;
+import com.example.myapplication.utils.TileCache;
+import com.example.myapplication.utils.TileGrid;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 확대해서 원본 화질로 볼 수 있는 이미지 뷰
+ *
+ * 화면 크기로 디코딩한 미리보기를 먼저 그리고, 미리보기보다 더 확대하면 BitmapRegionDecoder 로
+ * 보이는 영역의 타일만 현재 배율에 맞는 샘플 크기로 디코딩해 그 위에 그린다.
+ * 타일은 모든 페이지가 함께 쓰는 TileCache 에 두고, 보이는 타일을 요청한 뒤 둘레 한 칸을 미리 디코딩해 두어
+ * 조금씩 옮길 때는 바로 보인다. 원본 전체를 메모리에 올리지 않으므로 큰 사진도 정해진 메모리 안에서 볼 수 있다.
+ */
+public class TiledImageView extends View {
+    private static final String TAG = "TiledImageView";
+
+    // 원본 1px 을 화면 몇 px 까지 확대할지
+    private static final float MAX_SCALE = 2f;
+    // 쉬는 디코딩 스레드를 정리할 때까지의 시간
+    private static final long IDLE_THREAD_TIMEOUT_SEC = 5;
+    // 타일은 불투명한 사진이 대부분이라 RGB_565 로 디코딩 (알파가 있으면 디코더가 ARGB_8888 로 바꿈)
+    private static final Bitmap.Config TILE_CONFIG = Bitmap.Config.RGB_565;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final BitmapPool bitmapPool = BitmapPool.getInstance();
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+    private final TileCache tileCache = TileCache.getInstance();
+    // 디코딩을 요청한 타일 (메인 스레드에서만 접근)
+    private final Set<Long> requestedTiles = new HashSet<>();
+    // 지금 화면에 필요한 타일 (디코딩 스레드가 확인해 필요 없어진 요청은 건너뜀)
+    private final Set<Long> wantedTiles = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final RectF drawRect = new RectF();
+    private final float[] tileRect = new float[4];
+
+    // 디코더 열기/닫기와 타일 디코딩을 순서대로 처리하는 스레드 하나 (쉬면 종료)
+    private final ThreadPoolExecutor decodeExecutor;
+    // 디코딩 스레드에서만 접근
+    private BitmapRegionDecoder regionDecoder;
+    // setImage 할 때마다 늘려 이전 이미지의 결과를 버림
+    private volatile int generation;
+
+    private String imagePath;
+    private TileGrid grid;
+    private int rotation;
+    private boolean decoderReady;
+    private Bitmap preview;
+    private List<TileGrid.Tile> visibleTiles = new ArrayList<>();
+
+    // 배율 (화면 px / 표시 좌표 px) 과 이미지 왼쪽 위의 화면 위치
+    private float scale = 1f;
+    private float minScale = 1f;
+    private float translateX;
+    private float translateY;
+
+    public TiledImageView(Context context) {
+        this(context, null);
+    }
+
+    public TiledImageView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        decodeExecutor = new ThreadPoolExecutor(1, 1, IDLE_THREAD_TIMEOUT_SEC, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            });
+        decodeExecutor.allowCoreThreadTimeOut(true);
+
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomTo(scale * detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                return true;
+            }
+        });
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                translateX -= distanceX;
+                translateY -= distanceY;
+                onTransformChanged();
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                // 맞춤 크기와 원본 크기 사이를 오감
+                float target = scale > minScale * 1.01f ? minScale : Math.max(1f, minScale * 2);
+                zoomTo(target, e.getX(), e.getY());
+                return true;
+            }
+        });
+    }
+
+    /**
+     * 원본 이미지 지정 (메인 스레드에서 호출, 지금 미리보기는 그대로 둠)
+     *
+     * @param width       저장된 이미지 너비 (모르면 0, 디코더를 연 뒤 채움)
+     * @param height      저장된 이미지 높이
+     * @param orientation EXIF 방향 값
+     */
+    public void setImage(String imagePath, int width, int height, int orientation) {
+        clearTiles();
+        generation++;
+        decoderReady = false;
+        this.imagePath = imagePath;
+        rotation = ImageUtils.getRotationDegrees(orientation);
+        grid = width > 0 && height > 0 ? new TileGrid(width, height, rotation) : null;
+        resetScale();
+
+        int requestGeneration = generation;
+        decodeExecutor.execute(() -> openDecoder(requestGeneration, imagePath));
+        invalidate();
+    }
+
+    /**
+     * 미리보기 교체 (메인 스레드에서 호출, 회전 보정한 전체 이미지, 호출한 쪽이 계속 소유)
+     *
+     * 더 선명한 미리보기로 바꿔도 확대/이동 상태는 유지한다. 이전 미리보기는 이 호출 뒤 더 그리지 않는다.
+     */
+    public void setPreview(Bitmap preview) {
+        float oldWidth = getContentWidth();
+        float oldHeight = getContentHeight();
+        this.preview = preview;
+
+        // 원본 크기를 아직 모르면 미리보기 비율이 바뀐 경우에만 다시 맞춤
+        if (getContentWidth() != oldWidth || getContentHeight() != oldHeight) {
+            resetScale();
+        } else {
+            updateTiles();
+        }
+        invalidate();
+    }
+
+    /**
+     * 미리보기, 타일, 디코더 해제 (화면을 닫을 때 호출, 미리보기 비트맵은 호출한 쪽이 반납)
+     */
+    public void recycle() {
+        clearTiles();
+        generation++;
+        decoderReady = false;
+        imagePath = null;
+        grid = null;
+        preview = null;
+        decodeExecutor.execute(this::closeDecoder);
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        resetScale();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // 확대한 상태에서는 스크롤 뷰가 이동 제스처를 가져가지 않도록 함
+        if (getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(scale > minScale || event.getPointerCount() > 1);
+        }
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (getContentWidth() <= 0) {
+            return;
+        }
+
+        canvas.save();
+        canvas.translate(translateX, translateY);
+        canvas.scale(scale, scale);
+
+        // 타일이 준비되기 전이나 타일이 필요 없는 배율에서는 미리보기로 채움
+        if (preview != null && !preview.isRecycled()) {
+            drawRect.set(0, 0, getContentWidth(), getContentHeight());
+            canvas.drawBitmap(preview, null, drawRect, bitmapPaint);
+        }
+
+        for (TileGrid.Tile tile : visibleTiles) {
+            Bitmap bitmap = tileCache.get(imagePath, tile.getKey());
+            if (bitmap != null) {
+                drawTile(canvas, tile, bitmap);
+            }
+        }
+        canvas.restore();
+    }
+
+    /**
+     * 저장된 이미지 방향의 타일을 표시 좌표에 회전해서 그림
+     */
+    private void drawTile(Canvas canvas, TileGrid.Tile tile, Bitmap bitmap) {
+        tileRect[0] = tile.getLeft();
+        tileRect[1] = tile.getTop();
+        tileRect[2] = tile.getRight();
+        tileRect[3] = tile.getBottom();
+        grid.toDisplayRect(tileRect);
+
+        float halfWidth = (tileRect[2] - tileRect[0]) / 2;
+        float halfHeight = (tileRect[3] - tileRect[1]) / 2;
+        if (rotation % 180 != 0) {
+            float swap = halfWidth;
+            halfWidth = halfHeight;
+            halfHeight = swap;
+        }
+
+        canvas.save();
+        canvas.translate((tileRect[0] + tileRect[2]) / 2, (tileRect[1] + tileRect[3]) / 2);
+        canvas.rotate(rotation);
+        drawRect.set(-halfWidth, -halfHeight, halfWidth, halfHeight);
+        canvas.drawBitmap(bitmap, null, drawRect, bitmapPaint);
+        canvas.restore();
+    }
+
+    private void zoomTo(float targetScale, float focusX, float focusY) {
+        float newScale = Math.max(minScale, Math.min(Math.max(MAX_SCALE, minScale), targetScale));
+        // 초점 아래의 지점이 그대로 있도록 이동
+        translateX = focusX - (focusX - translateX) * newScale / scale;
+        translateY = focusY - (focusY - translateY) * newScale / scale;
+        scale = newScale;
+        onTransformChanged();
+    }
+
+    private void resetScale() {
+        float contentWidth = getContentWidth();
+        float contentHeight = getContentHeight();
+        if (contentWidth <= 0 || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+
+        // 화면에 맞추되 작은 이미지는 확대하지 않음
+        minScale = Math.min(1f, Math.min(getWidth() / contentWidth, getHeight() / contentHeight));
+        scale = minScale;
+        onTransformChanged();
+    }
+
+    private void onTransformChanged() {
+        clampTranslation();
+        updateTiles();
+        invalidate();
+    }
+
+    /**
+     * 이미지가 화면보다 작으면 가운데, 크면 가장자리가 화면 안으로 들어오지 않게 이동 범위 제한
+     */
+    private void clampTranslation() {
+        float scaledWidth = getContentWidth() * scale;
+        float scaledHeight = getContentHeight() * scale;
+        translateX = scaledWidth <= getWidth()
+            ? (getWidth() - scaledWidth) / 2
+            : Math.max(getWidth() - scaledWidth, Math.min(0, translateX));
+        translateY = scaledHeight <= getHeight()
+            ? (getHeight() - scaledHeight) / 2
+            : Math.max(getHeight() - scaledHeight, Math.min(0, translateY));
+    }
+
+    /**
+     * 보이는 타일과 이웃 타일 요청 (메인 스레드)
+     */
+    private void updateTiles() {
+        wantedTiles.clear();
+        if (grid == null || !decoderReady || getWidth() == 0 || !needsTiles()) {
+            visibleTiles = new ArrayList<>();
+            return;
+        }
+
+        int sampleSize = TileGrid.sampleSizeFor(scale);
+        float left = -translateX / scale;
+        float top = -translateY / scale;
+        float right = (getWidth() - translateX) / scale;
+        float bottom = (getHeight() - translateY) / scale;
+        visibleTiles = grid.getVisibleTiles(left, top, right, bottom, sampleSize);
+
+        // 보이는 타일을 먼저, 이웃 타일은 뒤에 요청
+        requestTiles(visibleTiles);
+        requestTiles(grid.getNeighbourTiles(left, top, right, bottom, sampleSize));
+    }
+
+    private void requestTiles(List<TileGrid.Tile> tiles) {
+        int requestGeneration = generation;
+        for (TileGrid.Tile tile : tiles) {
+            long key = tile.getKey();
+            wantedTiles.add(key);
+            if (tileCache.get(imagePath, key) == null && requestedTiles.add(key)) {
+                decodeExecutor.execute(() -> decodeTile(requestGeneration, tile));
+            }
+        }
+    }
+
+    /**
+     * 미리보기보다 더 확대했는지 (미리보기로 충분하면 타일을 디코딩하지 않음)
+     */
+    private boolean needsTiles() {
+        return preview == null || scale > (float) preview.getWidth() / grid.getDisplayWidth();
+    }
+
+    private float getContentWidth() {
+        if (grid != null) {
+            return grid.getDisplayWidth();
+        }
+        return preview != null ? preview.getWidth() : 0;
+    }
+
+    private float getContentHeight() {
+        if (grid != null) {
+            return grid.getDisplayHeight();
+        }
+        return preview != null ? preview.getHeight() : 0;
+    }
+
+    private void clearTiles() {
+        wantedTiles.clear();
+        requestedTiles.clear();
+        visibleTiles = new ArrayList<>();
+        if (imagePath != null) {
+            tileCache.removeImage(imagePath);
+        }
+    }
+
+    /**
+     * 디코더 열기 (디코딩 스레드)
+     */
+    private void openDecoder(int requestGeneration, String imagePath) {
+        closeDecoder();
+        if (requestGeneration != generation) {
+            return;
+        }
+
+        try {
+            regionDecoder = BitmapRegionDecoder.newInstance(imagePath, false);
+        } catch (IOException e) {
+            // 부분 디코딩을 지원하지 않는 형식은 미리보기만 보여 줌
+            Log.w(TAG, "부분 디코딩을 지원하지 않는 이미지: " + imagePath, e);
+            return;
+        }
+
+        int width = regionDecoder.getWidth();
+        int height = regionDecoder.getHeight();
+        mainHandler.post(() -> onDecoderReady(requestGeneration, width, height));
+    }
+
+    private void closeDecoder() {
+        if (regionDecoder != null) {
+            regionDecoder.recycle();
+            regionDecoder = null;
+        }
+    }
+
+    private void onDecoderReady(int requestGeneration, int width, int height) {
+        if (requestGeneration != generation) {
+            return;
+        }
+
+        decoderReady = true;
+        // 메타데이터에 크기가 없거나 다르면 디코더 기준으로 다시 맞춤
+        if (grid == null || grid.getImageWidth() != width || grid.getImageHeight() != height) {
+            grid = new TileGrid(width, height, rotation);
+            resetScale();
+        }
+        updateTiles();
+        invalidate();
+    }
+
+    /**
+     * 타일 하나 디코딩 (디코딩 스레드)
+     */
+    private void decodeTile(int requestGeneration, TileGrid.Tile tile) {
+        Bitmap bitmap = null;
+        if (requestGeneration == generation && regionDecoder != null && wantedTiles.contains(tile.getKey())) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = tile.getSampleSize();
+            options.inPreferredConfig = TILE_CONFIG;
+            options.inMutable = true;
+            options.inBitmap = bitmapPool.getForDecode(tile.getDecodedWidth(), tile.getDecodedHeight(), TILE_CONFIG);
+            Rect region = new Rect(tile.getLeft(), tile.getTop(), tile.getRight(), tile.getBottom());
+
+            try {
+                bitmap = decodeRegion(region, options);
+            } catch (Exception e) {
+                Log.w(TAG, "타일 디코딩 실패: " + region, e);
+            }
+        }
+
+        Bitmap result = bitmap;
+        mainHandler.post(() -> onTileDecoded(requestGeneration, tile, result));
+    }
+
+    private Bitmap decodeRegion(Rect region, BitmapFactory.Options options) {
+        Bitmap reused = options.inBitmap;
+        try {
+            Bitmap bitmap = regionDecoder.decodeRegion(region, options);
+            if (bitmap == null && reused != null) {
+                bitmapPool.put(reused);
+            }
+            return bitmap;
+        } catch (IllegalArgumentException e) {
+            if (reused == null) {
+                throw e;
+            }
+            // 알파가 있어 설정과 다르게 디코딩되면 재사용 비트맵이 모자랄 수 있음
+            bitmapPool.put(reused);
+            options.inBitmap = null;
+            return regionDecoder.decodeRegion(region, options);
+        }
+    }
+
+    private void onTileDecoded(int requestGeneration, TileGrid.Tile tile, Bitmap bitmap) {
+        if (requestGeneration != generation) {
+            bitmapPool.put(bitmap);
+            return;
+        }
+
+        requestedTiles.remove(tile.getKey());
+        if (bitmap != null) {
+            tileCache.put(imagePath, tile.getKey(), bitmap);
+            for (TileGrid.Tile visible : visibleTiles) {
+                if (visible.getKey() == tile.getKey()) {
+                    invalidate();
+                    break;
+                }
+            }
+        }
+    }
+}
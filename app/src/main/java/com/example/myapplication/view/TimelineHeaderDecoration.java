@@ -0,0 +1,94 @@
+package com.example.myapplication.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.myapplication.R;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.utils.TimelineIndex;
+
+/**
+ * 그리드 위에 지금 보이는 월을 고정해 그리는 구간 제목
+ *
+ * 목록에 제목 행을 끼워 넣지 않고 TimelineIndex 로 첫 번째 보이는 위치의 구간을 찾아 위에 덧그리므로
+ * 어댑터 위치와 목록 위치가 그대로 같다. 다음 달의 첫 행이 올라오면 제목을 위로 밀어 올린다.
+ */
+public class TimelineHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    private final Paint backgroundPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float headerHeight;
+    private final float textPadding;
+    private final float textBaseline;
+
+    // null 이면 그리지 않음 (검색 결과처럼 색인과 목록이 다를 때)
+    private TimelineIndex timeline;
+    // 마지막으로 그린 구간과 제목 (구간이 바뀔 때만 날짜를 다시 형식화)
+    private long labelStart = Long.MIN_VALUE;
+    private String label;
+
+    public TimelineHeaderDecoration(Context context) {
+        headerHeight = dp(context, 32);
+        textPadding = dp(context, 16);
+
+        backgroundPaint.setColor(ContextCompat.getColor(context, R.color.gallery_background));
+        backgroundPaint.setAlpha(230);
+        textPaint.setColor(ContextCompat.getColor(context, R.color.text_primary));
+        textPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14,
+            context.getResources().getDisplayMetrics()));
+        textPaint.setFakeBoldText(true);
+
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        textBaseline = (headerHeight - metrics.ascent - metrics.descent) / 2f;
+    }
+
+    public void setTimeline(TimelineIndex timeline) {
+        this.timeline = timeline;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        if (timeline == null || parent.getChildCount() == 0) {
+            return;
+        }
+        int firstPosition = parent.getChildAdapterPosition(parent.getChildAt(0));
+        TimelineIndex.Section section = timeline.sectionAt(firstPosition, TimelineIndex.Granularity.MONTH);
+        if (section == null) {
+            return;
+        }
+
+        // 다음 구간의 첫 행이 제목 아래까지 올라왔으면 그만큼 위로
+        float top = 0;
+        int nextStart = section.getPosition() + section.getCount();
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            if (parent.getChildAdapterPosition(child) == nextStart) {
+                top = Math.min(0, child.getTop() - headerHeight);
+                break;
+            }
+        }
+
+        canvas.drawRect(0, top, parent.getWidth(), top + headerHeight, backgroundPaint);
+        canvas.drawText(labelFor(section), textPadding, top + textBaseline, textPaint);
+    }
+
+    private String labelFor(TimelineIndex.Section section) {
+        if (label == null || section.getStart() != labelStart) {
+            labelStart = section.getStart();
+            label = DateUtils.formatMonth(labelStart);
+        }
+        return label;
+    }
+
+    private static float dp(Context context, float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value,
+            context.getResources().getDisplayMetrics());
+    }
+}
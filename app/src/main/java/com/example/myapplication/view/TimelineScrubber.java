@@ -0,0 +1,200 @@
+package com.example.myapplication.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.myapplication.R;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.utils.TimelineIndex;
+
+/**
+ * 그리드 오른쪽 가장자리의 빠른 스크롤 막대
+ *
+ * 막대를 끌면 끈 높이의 비율에 해당하는 위치가 속한 월의 첫 이미지로 바로 이동하고, 옆에 그 월을 말풍선으로 보여 준다.
+ * 위치 → 월은 TimelineIndex 에서 이진 탐색하므로 사진이 많아도 끄는 동안 목록을 훑지 않는다.
+ * RecyclerView 위를 덮는 뷰지만 오른쪽 가장자리를 누를 때만 터치를 받고 나머지는 아래 목록으로 넘긴다.
+ */
+public class TimelineScrubber extends View {
+
+    private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bubblePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bubbleTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+    private final float thumbWidth;
+    private final float thumbHeight;
+    private final float edgeMargin;
+    private final float touchWidth;
+    private final float bubblePadding;
+
+    private RecyclerView recyclerView;
+    // null 이면 숨김 (검색 결과처럼 색인과 목록이 다를 때)
+    private TimelineIndex timeline;
+    private boolean dragging;
+    private float dragFraction;
+    private String bubbleLabel;
+    // 마지막으로 형식화한 구간과 제목 (끄는 동안 같은 월이면 다시 만들지 않음)
+    private long labelStart = Long.MIN_VALUE;
+    private String label;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            invalidate();
+        }
+    };
+
+    public TimelineScrubber(Context context) {
+        this(context, null);
+    }
+
+    public TimelineScrubber(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        thumbWidth = dp(6);
+        thumbHeight = dp(48);
+        edgeMargin = dp(4);
+        touchWidth = dp(32);
+        bubblePadding = dp(12);
+
+        thumbPaint.setColor(ContextCompat.getColor(context, R.color.button_primary));
+        bubblePaint.setColor(ContextCompat.getColor(context, R.color.button_primary));
+        bubbleTextPaint.setColor(ContextCompat.getColor(context, R.color.white));
+        bubbleTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 16,
+            getResources().getDisplayMetrics()));
+        bubbleTextPaint.setFakeBoldText(true);
+    }
+
+    /**
+     * 스크롤할 목록 연결 (목록의 위치는 TimelineIndex 와 같은 순서여야 함)
+     */
+    public void attach(RecyclerView recyclerView) {
+        if (this.recyclerView != null) {
+            this.recyclerView.removeOnScrollListener(scrollListener);
+        }
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void setTimeline(TimelineIndex timeline) {
+        this.timeline = timeline;
+        if (timeline == null) {
+            dragging = false;
+            bubbleLabel = null;
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (!isActive()) {
+            return;
+        }
+
+        float fraction = dragging ? dragFraction : scrollFraction();
+        float top = fraction * (getHeight() - thumbHeight);
+        float right = getWidth() - edgeMargin;
+        rect.set(right - thumbWidth, top, right, top + thumbHeight);
+        canvas.drawRoundRect(rect, thumbWidth / 2, thumbWidth / 2, thumbPaint);
+
+        if (dragging && bubbleLabel != null) {
+            Paint.FontMetrics metrics = bubbleTextPaint.getFontMetrics();
+            float textWidth = bubbleTextPaint.measureText(bubbleLabel);
+            float bubbleHeight = metrics.descent - metrics.ascent + bubblePadding;
+            float centerY = top + thumbHeight / 2;
+            float bubbleRight = right - thumbWidth - edgeMargin * 2;
+            rect.set(bubbleRight - textWidth - bubblePadding * 2, centerY - bubbleHeight / 2,
+                bubbleRight, centerY + bubbleHeight / 2);
+            canvas.drawRoundRect(rect, bubbleHeight / 2, bubbleHeight / 2, bubblePaint);
+            canvas.drawText(bubbleLabel, rect.left + bubblePadding,
+                centerY - (metrics.ascent + metrics.descent) / 2, bubbleTextPaint);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                // 가장자리 밖은 아래 목록이 받음
+                if (!isActive() || event.getX() < getWidth() - touchWidth) {
+                    return false;
+                }
+                dragging = true;
+                getParent().requestDisallowInterceptTouchEvent(true);
+                scrubTo(event.getY());
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (dragging) {
+                    scrubTo(event.getY());
+                }
+                return dragging;
+            case MotionEvent.ACTION_UP:
+                if (dragging) {
+                    performClick();
+                }
+                // fall through
+            case MotionEvent.ACTION_CANCEL:
+                dragging = false;
+                bubbleLabel = null;
+                invalidate();
+                return true;
+            default:
+                return dragging;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    private boolean isActive() {
+        return timeline != null && recyclerView != null && timeline.size() > 0;
+    }
+
+    // 끈 높이의 위치가 속한 월의 첫 이미지로 이동
+    private void scrubTo(float y) {
+        float range = getHeight() - thumbHeight;
+        dragFraction = range > 0 ? Math.max(0f, Math.min(1f, (y - thumbHeight / 2) / range)) : 0f;
+
+        int target = Math.round(dragFraction * (timeline.size() - 1));
+        TimelineIndex.Section section = timeline.sectionAt(target, TimelineIndex.Granularity.MONTH);
+        if (section != null) {
+            if (label == null || section.getStart() != labelStart) {
+                labelStart = section.getStart();
+                label = DateUtils.formatMonth(labelStart);
+            }
+            bubbleLabel = label;
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (layoutManager instanceof LinearLayoutManager) {
+                ((LinearLayoutManager) layoutManager).scrollToPositionWithOffset(section.getPosition(), 0);
+            } else {
+                recyclerView.scrollToPosition(section.getPosition());
+            }
+        }
+        invalidate();
+    }
+
+    private float scrollFraction() {
+        int range = recyclerView.computeVerticalScrollRange() - recyclerView.computeVerticalScrollExtent();
+        if (range <= 0) {
+            return 0f;
+        }
+        return Math.max(0f, Math.min(1f, recyclerView.computeVerticalScrollOffset() / (float) range));
+    }
+
+    private float dp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics());
+    }
+}
@@ -44,6 +44,16 @@ public class DateUtilsTest {
         assertEquals("알 수 없음", DateUtils.formatTime(0));
     }
     
+    @Test
+    public void testFormatMonth() {
+        // 유효한 타임스탬프
+        long timestamp = 1705312200000L; // 2024-01-15 14:30:00
+        assertEquals("2024년 1월", DateUtils.formatMonth(timestamp));
+        
+        // 무효한 타임스탬프
+        assertEquals("알 수 없음", DateUtils.formatMonth(0));
+    }
+    
     @Test
     public void testGetRelativeTime() {
         long now = System.currentTimeMillis();
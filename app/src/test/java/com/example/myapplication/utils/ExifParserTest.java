@@ -0,0 +1,239 @@
+package com.example.myapplication.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExifParser 테스트 클래스
+ */
+public class ExifParserTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParseGpsBigEndian() {
+        // 37°33'59.04"N, 126°58'40.8"E, 해발 38.5m (서울)
+        byte[] jpeg = createJpeg(ByteOrder.BIG_ENDIAN, 6, 'N', 'E', 0, true);
+        ExifParser.Result result = new ExifParser.Result();
+
+        assertTrue(ExifParser.parse(jpeg, result));
+        assertTrue(result.hasGPS);
+        assertEquals(37.5664, result.latitude, 0.0001);
+        assertEquals(126.978, result.longitude, 0.0001);
+        assertTrue(result.hasAltitude);
+        assertEquals(38.5, result.altitude, 0.0001);
+        assertEquals(6, result.orientation);
+        assertEquals(4000, result.width);
+        assertEquals(3000, result.height);
+    }
+
+    @Test
+    public void testParseGpsLittleEndian() {
+        // 남위, 서경, 해수면 아래
+        byte[] jpeg = createJpeg(ByteOrder.LITTLE_ENDIAN, 3, 'S', 'W', 1, true);
+        ExifParser.Result result = new ExifParser.Result();
+
+        assertTrue(ExifParser.parse(jpeg, result));
+        assertTrue(result.hasGPS);
+        assertEquals(-37.5664, result.latitude, 0.0001);
+        assertEquals(-126.978, result.longitude, 0.0001);
+        assertEquals(-38.5, result.altitude, 0.0001);
+        assertEquals(3, result.orientation);
+    }
+
+    @Test
+    public void testParseWithoutGps() {
+        byte[] jpeg = createJpeg(ByteOrder.BIG_ENDIAN, 1, 'N', 'E', 0, false);
+        ExifParser.Result result = new ExifParser.Result();
+
+        assertTrue(ExifParser.parse(jpeg, result));
+        assertFalse(result.hasGPS);
+        assertEquals(1, result.orientation);
+    }
+
+    @Test
+    public void testParseDateTaken() {
+        byte[] jpeg = createJpeg(ByteOrder.LITTLE_ENDIAN, 1, 'N', 'E', 0, false);
+        ExifParser.Result result = new ExifParser.Result();
+
+        // 촬영 시각은 시간대 정보가 없으므로 기기 시간대 기준
+        Calendar expected = Calendar.getInstance();
+        expected.clear();
+        expected.set(2024, Calendar.JANUARY, 15, 14, 30, 0);
+
+        assertTrue(ExifParser.parse(jpeg, result));
+        assertEquals(expected.getTimeInMillis(), result.dateTaken);
+    }
+
+    @Test
+    public void testParseFile() throws Exception {
+        File file = temporaryFolder.newFile("sample.jpg");
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(createJpeg(ByteOrder.LITTLE_ENDIAN, 8, 'N', 'E', 0, true));
+        }
+
+        ExifParser.Result result = new ExifParser.Result();
+        assertTrue(ExifParser.parse(file.getAbsolutePath(), result));
+        assertTrue(result.hasGPS);
+        assertEquals(37.5664, result.latitude, 0.0001);
+        assertEquals(8, result.orientation);
+
+        // 같은 결과 객체를 다시 사용해도 이전 값이 남지 않아야 함
+        File other = temporaryFolder.newFile("other.jpg");
+        try (FileOutputStream outputStream = new FileOutputStream(other)) {
+            outputStream.write(createJpeg(ByteOrder.BIG_ENDIAN, 1, 'N', 'E', 0, false));
+        }
+        assertTrue(ExifParser.parse(other.getAbsolutePath(), result));
+        assertFalse(result.hasGPS);
+        assertEquals(0.0, result.latitude, 0.0);
+    }
+
+    @Test
+    public void testParseInvalidData() {
+        ExifParser.Result result = new ExifParser.Result();
+
+        // JPEG 가 아닌 파일
+        assertFalse(ExifParser.parse(new byte[]{(byte) 0x89, 'P', 'N', 'G', 0, 0}, result));
+
+        // SOF 전에 스캔 데이터가 시작되는 JPEG
+        assertFalse(ExifParser.parse(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDA, 0, 2}, result));
+
+        // 중간에 잘린 JPEG
+        byte[] jpeg = createJpeg(ByteOrder.BIG_ENDIAN, 1, 'N', 'E', 0, true);
+        byte[] truncated = new byte[40];
+        System.arraycopy(jpeg, 0, truncated, 0, truncated.length);
+        assertFalse(ExifParser.parse(truncated, result));
+        assertFalse(result.hasGPS);
+    }
+
+    /**
+     * IFD0(방향, Exif/GPS 포인터), Exif IFD, GPS IFD 와 SOF 만 있는 최소 JPEG 생성
+     */
+    private static byte[] createJpeg(ByteOrder order, int orientation, char latRef, char lonRef,
+                                     int altRef, boolean withGps) {
+        ByteBuffer tiff = ByteBuffer.allocate(512).order(order);
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.putShort((short) 42);
+        tiff.putInt(8);
+
+        // IFD0
+        int ifd0Entries = withGps ? 3 : 2;
+        int exifIfd = 8 + 2 + ifd0Entries * 12 + 4;
+        int dateOffset = exifIfd + 2 + 12 + 4;
+        int gpsIfd = dateOffset + 20;
+        tiff.putShort((short) ifd0Entries);
+        putEntry(tiff, 0x0112, 3, 1, 0);
+        tiff.putShort(tiff.position() - 4, (short) orientation);
+        putEntry(tiff, 0x8769, 4, 1, exifIfd);
+        if (withGps) {
+            putEntry(tiff, 0x8825, 4, 1, gpsIfd);
+        }
+        tiff.putInt(0);
+
+        // Exif IFD (촬영 시각)
+        tiff.putShort((short) 1);
+        putEntry(tiff, 0x9003, 2, 20, dateOffset);
+        tiff.putInt(0);
+        tiff.put("2024:01:15 14:30:00".getBytes(StandardCharsets.US_ASCII));
+        tiff.put((byte) 0);
+
+        if (withGps) {
+            int valueOffset = gpsIfd + 2 + 6 * 12 + 4;
+            tiff.putShort((short) 6);
+            putEntry(tiff, 0x0001, 2, 2, 0);
+            tiff.put(tiff.position() - 4, (byte) latRef);
+            putEntry(tiff, 0x0002, 5, 3, valueOffset);
+            putEntry(tiff, 0x0003, 2, 2, 0);
+            tiff.put(tiff.position() - 4, (byte) lonRef);
+            putEntry(tiff, 0x0004, 5, 3, valueOffset + 24);
+            putEntry(tiff, 0x0005, 1, 1, 0);
+            tiff.put(tiff.position() - 4, (byte) altRef);
+            putEntry(tiff, 0x0006, 5, 1, valueOffset + 48);
+            tiff.putInt(0);
+
+            // 37/1, 33/1, 5904/100
+            putRational(tiff, 37, 1);
+            putRational(tiff, 33, 1);
+            putRational(tiff, 5904, 100);
+            // 126/1, 58/1, 408/10
+            putRational(tiff, 126, 1);
+            putRational(tiff, 58, 1);
+            putRational(tiff, 408, 10);
+            // 385/10
+            putRational(tiff, 385, 10);
+        }
+
+        int tiffLength = tiff.position();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        jpeg.write(0xFF);
+        jpeg.write(0xD8);
+        // EXIF 앞에 다른 APP 세그먼트가 있어도 건너뛰어야 함
+        jpeg.write(0xFF);
+        jpeg.write(0xE0);
+        jpeg.write(0);
+        jpeg.write(4);
+        jpeg.write(0);
+        jpeg.write(0);
+
+        int segmentLength = 2 + 6 + tiffLength;
+        jpeg.write(0xFF);
+        jpeg.write(0xE1);
+        jpeg.write(segmentLength >> 8);
+        jpeg.write(segmentLength & 0xFF);
+        jpeg.write('E');
+        jpeg.write('x');
+        jpeg.write('i');
+        jpeg.write('f');
+        jpeg.write(0);
+        jpeg.write(0);
+        jpeg.write(tiff.array(), 0, tiffLength);
+
+        // SOF0: 정밀도 8, 높이 3000, 너비 4000, 컴포넌트 1개
+        jpeg.write(0xFF);
+        jpeg.write(0xC0);
+        jpeg.write(0);
+        jpeg.write(11);
+        jpeg.write(8);
+        jpeg.write(3000 >> 8);
+        jpeg.write(3000 & 0xFF);
+        jpeg.write(4000 >> 8);
+        jpeg.write(4000 & 0xFF);
+        jpeg.write(1);
+        jpeg.write(1);
+        jpeg.write(0x11);
+        jpeg.write(0);
+
+        jpeg.write(0xFF);
+        jpeg.write(0xDA);
+        jpeg.write(0);
+        jpeg.write(2);
+        jpeg.write(0xFF);
+        jpeg.write(0xD9);
+        return jpeg.toByteArray();
+    }
+
+    private static void putEntry(ByteBuffer buffer, int tag, int type, int count, int value) {
+        buffer.putShort((short) tag);
+        buffer.putShort((short) type);
+        buffer.putInt(count);
+        buffer.putInt(value);
+    }
+
+    private static void putRational(ByteBuffer buffer, int numerator, int denominator) {
+        buffer.putInt(numerator);
+        buffer.putInt(denominator);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.myapplication.utils;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * GeoIndex 테스트 클래스
+ */
+public class GeoIndexTest {
+
+    @Test
+    public void testInsertAndRemove() {
+        GeoIndex index = new GeoIndex();
+        index.insert(1, 37.5665, 126.9780);  // 서울
+        index.insert(2, 35.1796, 129.0756);  // 부산
+        index.insert(3, 33.4996, 126.5312);  // 제주
+        assertEquals(3, index.size());
+        assertTrue(index.contains(2));
+
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertFalse(index.contains(2));
+        assertEquals(2, index.size());
+
+        // 같은 ID 를 다시 넣으면 위치만 옮긴다
+        index.insert(1, 35.1796, 129.0756);
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[]{1}, index.queryBoundingBox(35, 128.5, 35.5, 129.5));
+    }
+
+    @Test
+    public void testQueryBoundingBox() {
+        GeoIndex index = new GeoIndex();
+        index.insert(1, 37.5665, 126.9780);
+        index.insert(2, 35.1796, 129.0756);
+        index.insert(3, 33.4996, 126.5312);
+
+        long[] result = index.queryBoundingBox(34, 125, 39, 131);
+        Arrays.sort(result);
+        assertArrayEquals(new long[]{1, 2}, result);
+
+        // 빈 영역
+        assertEquals(0, index.queryBoundingBox(0, 0, 1, 1).length);
+
+        // 날짜 변경선을 넘는 영역 (피지, 사모아)
+        index.insert(4, -17.7134, 178.0650);
+        index.insert(5, -13.7590, -172.1046);
+        result = index.queryBoundingBox(-20, 170, -10, -170);
+        Arrays.sort(result);
+        assertArrayEquals(new long[]{4, 5}, result);
+
+        // 경계값
+        index.insert(6, 90, 180);
+        assertArrayEquals(new long[]{6}, index.queryBoundingBox(89, 179, 90, 180));
+    }
+
+    @Test
+    public void testNearest() {
+        GeoIndex index = new GeoIndex();
+        index.insert(1, 37.5665, 126.9780);  // 서울
+        index.insert(2, 37.4563, 126.7052);  // 인천
+        index.insert(3, 35.1796, 129.0756);  // 부산
+        index.insert(4, 40.7128, -74.0060);  // 뉴욕
+
+        // 수원에서 가까운 순서
+        assertArrayEquals(new long[]{1, 2}, index.nearest(37.2636, 127.0286, 2));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.nearest(37.2636, 127.0286, 10));
+
+        // 점이 드물어 고리가 지구를 한 바퀴 넘는 경우
+        assertArrayEquals(new long[]{4}, index.nearest(-33.8688, -70.0, 1));
+    }
+
+    @Test
+    public void testRandomUpdates() {
+        int count = 5000;
+        Random random = new Random(7);
+        long[] ids = new long[count];
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        boolean[] present = new boolean[count];
+
+        GeoIndex index = new GeoIndex(1.0);
+        for (int i = 0; i < count; i++) {
+            ids[i] = i * 31L;
+            latitudes[i] = 30 + random.nextDouble() * 10;
+            longitudes[i] = 120 + random.nextDouble() * 10;
+            present[i] = true;
+            index.insert(ids[i], latitudes[i], longitudes[i]);
+        }
+
+        // 절반 제거, 일부는 위치 이동
+        for (int i = 0; i < count; i++) {
+            if (random.nextBoolean()) {
+                assertTrue(index.remove(ids[i]));
+                present[i] = false;
+            } else if (random.nextInt(4) == 0) {
+                latitudes[i] = 30 + random.nextDouble() * 10;
+                longitudes[i] = 120 + random.nextDouble() * 10;
+                index.insert(ids[i], latitudes[i], longitudes[i]);
+            }
+        }
+
+        int expectedSize = 0;
+        for (boolean p : present) {
+            if (p) {
+                expectedSize++;
+            }
+        }
+        assertEquals(expectedSize, index.size());
+
+        for (int q = 0; q < 50; q++) {
+            double south = 30 + random.nextDouble() * 8;
+            double west = 120 + random.nextDouble() * 8;
+            long[] found = index.queryBoundingBox(south, west, south + 2, west + 2);
+            Arrays.sort(found);
+
+            long[] expected = new long[count];
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if (present[i] && latitudes[i] >= south && latitudes[i] <= south + 2
+                        && longitudes[i] >= west && longitudes[i] <= west + 2) {
+                    expected[size++] = ids[i];
+                }
+            }
+            assertArrayEquals(Arrays.copyOf(expected, size), found);
+        }
+    }
+
+    @Test
+    public void testQueriesMatchLinearScan() {
+        int count = 2_000;
+        Random random = new Random(42);
+        long[] ids = new long[count];
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        fillPoints(random, ids, latitudes, longitudes);
+
+        GeoIndex index = new GeoIndex();
+        index.bulkLoad(ids, latitudes, longitudes);
+        assertEquals(count, index.size());
+
+        for (int q = 0; q < 50; q++) {
+            double south = 33 + random.nextDouble() * 5;
+            double west = 124 + random.nextDouble() * 7;
+            long[] found = index.queryBoundingBox(south, west, south + 1, west + 1);
+            Arrays.sort(found);
+            assertArrayEquals(linearQuery(ids, latitudes, longitudes, south, west, south + 1, west + 1), found);
+
+            double lat = 33 + random.nextDouble() * 6;
+            double lon = 124 + random.nextDouble() * 8;
+            assertArrayEquals(linearNearest(ids, latitudes, longitudes, lat, lon, 10), index.nearest(lat, lon, 10));
+        }
+    }
+
+    /**
+     * 10만 개 성능 측정 (오래 걸리므로 -Dbenchmark=true 일 때만 실행)
+     */
+    @Test
+    public void testBenchmark100k() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+
+        int count = 100_000;
+        Random random = new Random(42);
+        long[] ids = new long[count];
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        fillPoints(random, ids, latitudes, longitudes);
+
+        GeoIndex index = new GeoIndex();
+        long start = System.nanoTime();
+        index.bulkLoad(ids, latitudes, longitudes);
+        long loadNanos = System.nanoTime() - start;
+        assertEquals(count, index.size());
+
+        int queries = 200;
+        long indexNanos = 0;
+        long linearNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            // 도시 단위 화면 크기 (약 0.2도)
+            double south = 33 + random.nextDouble() * 5.8;
+            double west = 124 + random.nextDouble() * 7.8;
+            double north = south + 0.2;
+            double east = west + 0.2;
+
+            start = System.nanoTime();
+            long[] found = index.queryBoundingBox(south, west, north, east);
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] expected = linearQuery(ids, latitudes, longitudes, south, west, north, east);
+            linearNanos += System.nanoTime() - start;
+
+            Arrays.sort(found);
+            assertArrayEquals(expected, found);
+        }
+
+        long nearestNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            double lat = 33 + random.nextDouble() * 6;
+            double lon = 124 + random.nextDouble() * 8;
+
+            start = System.nanoTime();
+            index.nearest(lat, lon, 10);
+            nearestNanos += System.nanoTime() - start;
+        }
+
+        System.out.println(String.format(
+            "GeoIndex %d개: 적재 %.1fms, 영역 조회 %.3fms (선형 %.3fms), 최근접 10개 %.3fms",
+            count, loadNanos / 1e6, indexNanos / 1e6 / queries, linearNanos / 1e6 / queries,
+            nearestNanos / 1e6 / queries));
+    }
+
+    // 대부분 한반도 주변, 일부는 전 세계
+    private static void fillPoints(Random random, long[] ids, double[] latitudes, double[] longitudes) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+            if (i % 10 == 0) {
+                latitudes[i] = random.nextDouble() * 180 - 90;
+                longitudes[i] = random.nextDouble() * 360 - 180;
+            } else {
+                latitudes[i] = 33 + random.nextDouble() * 6;
+                longitudes[i] = 124 + random.nextDouble() * 8;
+            }
+        }
+    }
+
+    private static long[] linearQuery(long[] ids, double[] latitudes, double[] longitudes,
+                                      double south, double west, double north, double east) {
+        long[] result = new long[ids.length];
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (latitudes[i] >= south && latitudes[i] <= north
+                    && longitudes[i] >= west && longitudes[i] <= east) {
+                result[size++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] linearNearest(long[] ids, double[] latitudes, double[] longitudes,
+                                        double lat, double lon, int k) {
+        Integer[] order = new Integer[ids.length];
+        double[] distances = new double[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            order[i] = i;
+            distances[i] = GPSUtils.calculateDistance(lat, lon, latitudes[i], longitudes[i]);
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+
+        long[] result = new long[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = ids[order[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.myapplication.utils;
+
+import com.example.myapplication.model.ImageData;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ImageWindow 테스트 클래스
+ */
+public class ImageWindowTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static ImageData image(long mediaId, long dateTaken) {
+        ImageData imageData = new ImageData("/sdcard/DCIM/" + mediaId + ".jpg");
+        imageData.setMediaId(mediaId);
+        imageData.setDateTaken(dateTaken);
+        imageData.setDateModified(1);
+        return imageData;
+    }
+
+    /**
+     * _ID 1~count, 촬영 시각은 _ID 와 같음 (목록 순서: count, count-1, ..., 1)
+     */
+    private static ImageWindow window(int count, int keepPages) {
+        ImageWindow.Keys keys = new ImageWindow.Keys(count);
+        for (long id = count; id >= 1; id--) {
+            keys.add(id, id, 1);
+        }
+        ImageWindow window = new ImageWindow(PAGE_SIZE, keepPages);
+        window.setKeys(keys);
+        return window;
+    }
+
+    private static List<ImageData> images(List<Long> mediaIds) {
+        List<ImageData> images = new ArrayList<>();
+        for (Long mediaId : mediaIds) {
+            images.add(image(mediaId, mediaId));
+        }
+        return images;
+    }
+
+    private static void loadPages(ImageWindow window, int first, int last) {
+        for (int page : window.requestPages(first, last)) {
+            List<Long> ids = window.getMissingIds(page);
+            window.putPage(page, ids, images(ids));
+        }
+    }
+
+    @Test
+    public void testPlaceholdersKeepPositions() {
+        ImageWindow window = window(100, 1);
+        ImageWindow.Snapshot snapshot = window.snapshot();
+        assertEquals(100, snapshot.size());
+        assertNull(snapshot.get(0));
+        assertEquals(100, snapshot.getMediaId(0));
+        assertEquals(1, snapshot.getMediaId(99));
+    }
+
+    @Test
+    public void testRequestPagesAroundViewport() {
+        ImageWindow window = window(100, 1);
+        // 화면 45~52 → 앞뒤 한 페이지까지 (3~6)
+        assertEquals(Arrays.asList(3, 4, 5, 6), window.requestPages(45, 52));
+        // 읽는 중인 페이지는 다시 요청하지 않음
+        assertEquals(Collections.emptyList(), window.requestPages(45, 52));
+
+        List<Long> ids = window.getMissingIds(4);
+        assertEquals(PAGE_SIZE, ids.size());
+        window.putPage(4, ids, images(ids));
+        assertEquals(60, window.snapshot().get(40).getMediaId());
+        assertTrue(window.getMissingIds(4).isEmpty());
+
+        // 실패한 페이지(3)는 다시 요청
+        window.cancelPage(3);
+        assertEquals(Arrays.asList(2, 3), window.requestPages(30, 30));
+    }
+
+    @Test
+    public void testRetainEvictsFarPages() {
+        ImageWindow window = window(200, 2);
+        loadPages(window, 0, 15);
+        assertEquals(30, window.getLoadedCount());
+
+        // 한참 아래로 스크롤하면 위쪽 페이지는 버림
+        loadPages(window, 150, 165);
+        assertTrue(window.retain(150, 165));
+        ImageWindow.Snapshot snapshot = window.snapshot();
+        assertNull(snapshot.get(0));
+        assertNotNull(snapshot.get(150));
+        // 창 크기는 화면 범위 + 앞뒤 keepPages 로 제한
+        assertTrue(window.getLoadedCount() <= 16 + 2 * 2 * PAGE_SIZE);
+        assertFalse(window.retain(150, 165));
+    }
+
+    @Test
+    public void testApplyChanges() {
+        ImageWindow window = window(30, 1);
+        loadPages(window, 0, 5);
+
+        // 가장 최신 이미지 추가, 30 삭제, 5 는 촬영 시각이 바뀌어 맨 앞으로
+        ImageData inserted = image(31, 31);
+        ImageData moved = image(5, 40);
+        window.applyChanges(Arrays.asList(inserted, moved), Collections.singletonList(30L));
+
+        ImageWindow.Snapshot snapshot = window.snapshot();
+        assertEquals(30, snapshot.size());
+        assertSame(moved, snapshot.get(0));
+        assertSame(inserted, snapshot.get(1));
+        assertEquals(29, snapshot.get(2).getMediaId());
+        assertEquals(0, snapshot.positionOf(moved));
+        assertEquals(-1, snapshot.positionOf(image(30, 30)));
+        // 이전 위치의 5 는 빠짐
+        for (int i = 1; i < snapshot.size(); i++) {
+            assertNotEquals(5, snapshot.getMediaId(i));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        ImageWindow window = window(30, 1);
+        ImageWindow.Snapshot before = window.snapshot();
+        loadPages(window, 0, 5);
+        window.applyChanges(Collections.singletonList(image(31, 31)), Collections.<Long>emptyList());
+
+        // 어댑터에 넘긴 목록은 그대로
+        assertEquals(30, before.size());
+        assertNull(before.get(0));
+        assertEquals(31, window.snapshot().size());
+        // 바뀌지 않았으면 같은 목록을 다시 넘김
+        assertSame(window.snapshot(), window.snapshot());
+    }
+
+    @Test
+    public void testSetKeysKeepsUnchangedImages() {
+        ImageWindow window = window(30, 1);
+        loadPages(window, 0, 5);
+        ImageData kept = window.snapshot().get(0);
+
+        ImageWindow.Keys keys = new ImageWindow.Keys(30);
+        for (long id = 30; id >= 1; id--) {
+            // 29 는 수정됨
+            keys.add(id, id, id == 29 ? 2 : 1);
+        }
+        window.setKeys(keys);
+        assertSame(kept, window.snapshot().get(0));
+        assertNull(window.snapshot().get(1));
+    }
+
+    @Test
+    public void testUnsortedKeys() {
+        // 촬영 날짜가 NULL 인 행과 0 인 행이 섞이면 MediaStore 순서가 다를 수 있음
+        ImageWindow.Keys keys = new ImageWindow.Keys(4);
+        keys.add(2, 0, 1);
+        keys.add(9, 0, 1);
+        keys.add(1, 100, 1);
+        keys.add(3, 200, 1);
+        ImageWindow window = new ImageWindow(PAGE_SIZE, 1);
+        window.setKeys(keys);
+
+        ImageWindow.Snapshot snapshot = window.snapshot();
+        assertEquals(3, snapshot.getMediaId(0));
+        assertEquals(1, snapshot.getMediaId(1));
+        assertEquals(9, snapshot.getMediaId(2));
+        assertEquals(2, snapshot.getMediaId(3));
+    }
+
+    @Test
+    public void testMissingRowsNotRequestedAgain() {
+        ImageWindow window = window(10, 1);
+        List<Integer> pages = window.requestPages(0, 5);
+        assertEquals(Collections.singletonList(0), pages);
+        List<Long> ids = window.getMissingIds(0);
+        // 파일이 지워져 한 행이 조회되지 않음
+        List<Long> found = new ArrayList<>(ids);
+        found.remove(Long.valueOf(7));
+        window.putPage(0, ids, images(found));
+        assertTrue(window.requestPages(0, 5).isEmpty());
+        assertNull(window.snapshot().get(3));
+    }
+}
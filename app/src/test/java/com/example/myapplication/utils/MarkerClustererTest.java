@@ -0,0 +1,91 @@
+package com.example.myapplication.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * MarkerClusterer 테스트 클래스
+ */
+public class MarkerClustererTest {
+
+    private static GeoIndex createIndex() {
+        GeoIndex index = new GeoIndex();
+        // 서울 시청 주변 3장 (수십 m 간격)
+        index.insert(1, 37.5663, 126.9779);
+        index.insert(2, 37.5665, 126.9781);
+        index.insert(3, 37.5667, 126.9783);
+        // 부산
+        index.insert(4, 35.1796, 129.0756);
+        return index;
+    }
+
+    @Test
+    public void testClusterByZoom() {
+        GeoIndex index = createIndex();
+        MarkerClusterer clusterer = new MarkerClusterer();
+
+        // 국가 단위 줌: 서울 3장이 하나로 묶이고 부산은 따로
+        List<MarkerClusterer.Cluster> clusters = clusterer.cluster(index, 33, 124, 39, 131, 7f);
+        assertEquals(2, clusters.size());
+        List<Integer> counts = new ArrayList<>();
+        for (MarkerClusterer.Cluster cluster : clusters) {
+            counts.add(cluster.getCount());
+        }
+        Collections.sort(counts);
+        assertEquals(Integer.valueOf(1), counts.get(0));
+        assertEquals(Integer.valueOf(3), counts.get(1));
+
+        // 건물 단위 줌: 모두 따로
+        clusters = clusterer.cluster(index, 37.56, 126.97, 37.57, 126.99, 21f);
+        assertEquals(3, clusters.size());
+        for (MarkerClusterer.Cluster cluster : clusters) {
+            assertTrue(cluster.isSingle());
+        }
+    }
+
+    @Test
+    public void testClusterValues() {
+        GeoIndex index = createIndex();
+        MarkerClusterer clusterer = new MarkerClusterer();
+
+        List<MarkerClusterer.Cluster> clusters = clusterer.cluster(index, 37, 126, 38, 128, 7f);
+        assertEquals(1, clusters.size());
+
+        MarkerClusterer.Cluster cluster = clusters.get(0);
+        assertEquals(3, cluster.getCount());
+        assertEquals(3, cluster.getRepresentativeId());
+        assertEquals(37.5665, cluster.getLatitude(), 0.00001);
+        assertEquals(126.9781, cluster.getLongitude(), 0.00001);
+    }
+
+    @Test
+    public void testKeysStableWhenPanning() {
+        GeoIndex index = createIndex();
+        MarkerClusterer clusterer = new MarkerClusterer();
+
+        long before = clusterer.cluster(index, 37, 126, 38, 128, 10f).get(0).getKey();
+        long after = clusterer.cluster(index, 37.2, 126.5, 38.2, 128.5, 10.6f).get(0).getKey();
+        assertEquals(before, after);
+
+        // 줌 단계가 바뀌면 다른 키
+        long zoomed = clusterer.cluster(index, 37, 126, 38, 128, 11f).get(0).getKey();
+        assertNotEquals(before, zoomed);
+    }
+
+    @Test
+    public void testOnlyVisibleArea() {
+        GeoIndex index = createIndex();
+        MarkerClusterer clusterer = new MarkerClusterer();
+
+        List<MarkerClusterer.Cluster> clusters = clusterer.cluster(index, 34, 128, 36, 130, 12f);
+        assertEquals(1, clusters.size());
+        assertEquals(4, clusters.get(0).getRepresentativeId());
+
+        assertTrue(clusterer.cluster(index, 0, 0, 1, 1, 12f).isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.myapplication.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * SearchIndex 테스트 클래스
+ */
+public class SearchIndexTest {
+
+    private static Set<Long> ids(Long... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    private static SearchIndex sample() {
+        SearchIndex index = new SearchIndex();
+        index.put(1, "IMG_20240115_143000.jpg", "제주도 바닷가에서 본 일몰");
+        index.put(2, "IMG_20240203_091500.jpg", "서울 남산타워 야경");
+        index.put(3, "Screenshot_2024.png", "");
+        index.put(4, "가족여행.jpg", "제주도 가족 여행 첫날");
+        return index;
+    }
+
+    @Test
+    public void testKoreanSubstring() {
+        SearchIndex index = sample();
+        // 띄어쓰기 단위의 중간/앞부분도 찾음
+        assertEquals(ids(1L, 4L), index.search("제주"));
+        assertEquals(ids(1L), index.search("바닷가"));
+        assertEquals(ids(2L), index.search("산타"));
+        assertEquals(ids(4L), index.search("여행"));
+    }
+
+    @Test
+    public void testFileName() {
+        SearchIndex index = sample();
+        assertEquals(ids(1L, 2L, 3L), index.search("2024"));
+        assertEquals(ids(1L), index.search("0115"));
+        // 대소문자 무시
+        assertEquals(ids(3L), index.search("SCREENSHOT"));
+        assertEquals(ids(3L), index.search("png"));
+    }
+
+    @Test
+    public void testAllTermsMustMatch() {
+        SearchIndex index = sample();
+        assertEquals(ids(4L), index.search("제주 가족"));
+        assertEquals(Collections.emptySet(), index.search("제주 야경"));
+    }
+
+    @Test
+    public void testNoFalsePositiveFromBigrams() {
+        SearchIndex index = new SearchIndex();
+        // "바다" 와 "다리" 의 2-gram 을 모두 가졌지만 "바다리" 는 없음
+        index.put(1, "a.jpg", "바다 다리");
+        assertEquals(Collections.emptySet(), index.search("바다리"));
+        assertEquals(ids(1L), index.search("다리"));
+    }
+
+    @Test
+    public void testSingleCharacterQuery() {
+        SearchIndex index = sample();
+        assertEquals(ids(1L), index.search("몰"));
+        assertEquals(ids(4L), index.search("족"));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        SearchIndex index = sample();
+        // 설명을 바꾸면 이전 설명으로는 찾지 못함
+        index.put(2, "IMG_20240203_091500.jpg", "부산 광안대교");
+        assertEquals(Collections.emptySet(), index.search("남산"));
+        assertEquals(ids(2L), index.search("광안"));
+
+        index.remove(1);
+        assertEquals(ids(4L), index.search("제주"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testCompaction() {
+        SearchIndex index = new SearchIndex();
+        for (long round = 0; round < 5; round++) {
+            for (long id = 0; id < 1000; id++) {
+                index.put(id, "photo" + id + ".jpg", round % 2 == 0 ? "바다" : "산");
+            }
+        }
+        assertEquals(1000, index.size());
+        assertEquals(1000, index.search("바다").size());
+        assertEquals(Collections.emptySet(), index.search("산"));
+        assertEquals(ids(123L), index.search("photo123."));
+    }
+
+    @Test
+    public void testBlankQuery() {
+        SearchIndex index = sample();
+        assertEquals(Collections.emptySet(), index.search(""));
+        assertEquals(Collections.emptySet(), index.search("  _. "));
+        assertEquals(Collections.emptySet(), index.search(null));
+    }
+
+    @Test
+    public void testNormalization() {
+        SearchIndex index = new SearchIndex();
+        index.put(1, "ＩＭＧ_２０２４.jpg", "");
+        assertEquals(ids(1L), index.search("img 2024"));
+    }
+}
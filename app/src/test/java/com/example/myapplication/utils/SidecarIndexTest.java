@@ -0,0 +1,97 @@
+package com.example.myapplication.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * SidecarIndex 테스트 클래스
+ */
+public class SidecarIndexTest {
+
+    // mtime 단위보다 충분히 지난 시각으로 돌려 목록을 믿을 수 있게 함
+    private static final long PAST_MS = 60_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void settle(File dir, long modified) {
+        assertTrue(dir.setLastModified(modified));
+    }
+
+    @Test
+    public void testFirstRefreshReturnsAllSidecars() throws IOException {
+        File dir = folder.newFolder("DCIM");
+        new File(dir, "a.jpg").createNewFile();
+        new File(dir, "a.txt").createNewFile();
+        new File(dir, "b.jpg").createNewFile();
+        new File(dir, "notes.txt").createNewFile();
+
+        SidecarIndex index = new SidecarIndex(".txt");
+        assertEquals(new HashSet<>(Arrays.asList("a.txt", "notes.txt")), index.refresh(dir.getPath()));
+    }
+
+    @Test
+    public void testUnchangedDirectoryIsNotListedAgain() throws IOException {
+        File dir = folder.newFolder("DCIM");
+        new File(dir, "a.txt").createNewFile();
+        settle(dir, System.currentTimeMillis() - PAST_MS);
+
+        SidecarIndex index = new SidecarIndex(".txt");
+        index.refresh(dir.getPath());
+        assertEquals(1, index.getListCount());
+
+        // mtime 이 그대로면 stat 만 하고 빈 집합
+        assertEquals(Collections.emptySet(), index.refresh(dir.getPath()));
+        assertEquals(1, index.getListCount());
+    }
+
+    @Test
+    public void testChangedDirectoryReturnsOnlyNewSidecars() throws IOException {
+        File dir = folder.newFolder("DCIM");
+        new File(dir, "a.txt").createNewFile();
+        long modified = System.currentTimeMillis() - PAST_MS;
+        settle(dir, modified);
+
+        SidecarIndex index = new SidecarIndex(".txt");
+        index.refresh(dir.getPath());
+
+        new File(dir, "b.txt").createNewFile();
+        new File(dir, "c.jpg").createNewFile();
+        settle(dir, modified + 10_000);
+        assertEquals(Collections.singleton("b.txt"), index.refresh(dir.getPath()));
+        assertEquals(2, index.getListCount());
+    }
+
+    @Test
+    public void testRecentlyModifiedDirectoryIsListedAgain() throws IOException {
+        File dir = folder.newFolder("DCIM");
+        new File(dir, "a.txt").createNewFile();
+        long now = System.currentTimeMillis();
+        settle(dir, now);
+
+        SidecarIndex index = new SidecarIndex(".txt");
+        index.refresh(dir.getPath());
+
+        // 같은 mtime 단위 안에 생긴 파일은 mtime 이 그대로여도 찾아야 함
+        new File(dir, "b.txt").createNewFile();
+        settle(dir, now);
+        assertEquals(Collections.singleton("b.txt"), index.refresh(dir.getPath()));
+        assertEquals(2, index.getListCount());
+    }
+
+    @Test
+    public void testMissingDirectory() {
+        SidecarIndex index = new SidecarIndex(".txt");
+        assertEquals(Collections.emptySet(),
+            index.refresh(new File(folder.getRoot(), "missing").getPath()));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.myapplication.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * TaskScheduler 테스트 클래스
+ */
+public class TaskSchedulerTest {
+
+    private static final long TIMEOUT_SEC = 5;
+    // 시작하지 않아야 하는 작업을 확인할 때 기다리는 시간
+    private static final long QUIET_MS = 100;
+
+    @Test
+    public void testLaneLimit() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 2, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(5);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> {
+                int now = concurrent.incrementAndGet();
+                maxConcurrent.accumulateAndGet(now, Math::max);
+                await(gate);
+                concurrent.decrementAndGet();
+                finished.countDown();
+            });
+        }
+
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 2);
+        assertEquals(3, scheduler.getQueuedCount(TaskScheduler.Lane.VISIBLE));
+
+        gate.countDown();
+        assertTrue(finished.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertEquals(2, maxConcurrent.get());
+    }
+
+    @Test
+    public void testVisibleBacklogHoldsLowerLanes() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch visibleDone = new CountDownLatch(1);
+        CountDownLatch backgroundDone = new CountDownLatch(1);
+
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> await(gate));
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 1);
+        // 보이는 작업을 먼저 쌓아 두어야 색인 작업이 끼어들 틈이 없음
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, visibleDone::countDown);
+        scheduler.submit(TaskScheduler.Lane.BACKGROUND, backgroundDone::countDown);
+
+        // 보이는 작업이 밀려 있는 동안 색인 작업은 시작하지 않음
+        assertFalse(backgroundDone.await(QUIET_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getQueuedCount(TaskScheduler.Lane.BACKGROUND));
+
+        gate.countDown();
+        assertTrue(visibleDone.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertTrue(backgroundDone.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLowerLaneRunsWhenHigherLaneHasNoBacklog() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch backgroundDone = new CountDownLatch(1);
+
+        // 보이는 작업이 실행 중이어도 대기 작업이 없으면 아래 레인이 함께 실행됨
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> await(gate));
+        scheduler.submit(TaskScheduler.Lane.BACKGROUND, backgroundDone::countDown);
+        assertTrue(backgroundDone.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        gate.countDown();
+    }
+
+    @Test
+    public void testPromoteRunsFirst() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        List<String> order = new ArrayList<>();
+
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> await(gate));
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 1);
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> record(order, "visible", finished));
+        // PREFETCH 레인도 한도 1개를 막아 두어 올리기 전에는 시작하지 못하게 함
+        CountDownLatch prefetchGate = new CountDownLatch(1);
+        scheduler.submit(TaskScheduler.Lane.PREFETCH, () -> await(prefetchGate));
+        TaskScheduler.Task promoted = scheduler.submit(TaskScheduler.Lane.BACKGROUND,
+            () -> record(order, "promoted", finished));
+
+        // 다시 보이게 된 작업은 VISIBLE 레인 맨 앞으로
+        assertTrue(promoted.setLane(TaskScheduler.Lane.VISIBLE));
+        assertEquals(TaskScheduler.Lane.VISIBLE, promoted.getLane());
+        assertEquals(2, scheduler.getQueuedCount(TaskScheduler.Lane.VISIBLE));
+        assertEquals(0, scheduler.getQueuedCount(TaskScheduler.Lane.BACKGROUND));
+
+        gate.countDown();
+        assertTrue(finished.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        prefetchGate.countDown();
+        synchronized (order) {
+            assertEquals(Arrays.asList("promoted", "visible"), order);
+        }
+    }
+
+    @Test
+    public void testDemoteLetsTaskRunBehindVisible() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch demotedDone = new CountDownLatch(1);
+
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> await(gate));
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 1);
+        TaskScheduler.Task demoted = scheduler.submit(TaskScheduler.Lane.VISIBLE, demotedDone::countDown);
+        assertFalse(demotedDone.await(QUIET_MS, TimeUnit.MILLISECONDS));
+
+        // 화면에서 사라진 행은 BACKGROUND 로 내려 빈 레인에서 실행
+        assertTrue(demoted.setLane(TaskScheduler.Lane.BACKGROUND));
+        assertTrue(demotedDone.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        gate.countDown();
+
+        // 이미 실행한 작업은 옮기지 않음
+        assertFalse(demoted.setLane(TaskScheduler.Lane.VISIBLE));
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch afterDone = new CountDownLatch(1);
+        AtomicInteger cancelledRuns = new AtomicInteger();
+
+        TaskScheduler.Task running = scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> await(gate));
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 1);
+        TaskScheduler.Task cancelled = scheduler.submit(TaskScheduler.Lane.VISIBLE, cancelledRuns::incrementAndGet);
+
+        assertTrue(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+        assertFalse(cancelled.isQueued());
+        assertFalse(cancelled.cancel());
+        assertFalse(running.cancel());
+        assertEquals(0, scheduler.getQueuedCount(TaskScheduler.Lane.VISIBLE));
+
+        gate.countDown();
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, afterDone::countDown);
+        assertTrue(afterDone.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopScheduler() throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler("test", 1, 1, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, () -> {
+            Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> { });
+            throw new IllegalStateException("실패");
+        });
+        scheduler.submit(TaskScheduler.Lane.VISIBLE, done::countDown);
+
+        assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        waitUntilRunning(scheduler, TaskScheduler.Lane.VISIBLE, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimit() {
+        new TaskScheduler("test", 0, 1, 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void record(List<String> order, String name, CountDownLatch finished) {
+        synchronized (order) {
+            order.add(name);
+        }
+        finished.countDown();
+    }
+
+    private static void waitUntilRunning(TaskScheduler scheduler, TaskScheduler.Lane lane, int count)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SEC);
+        while (scheduler.getRunningCount(lane) != count) {
+            assertTrue("running " + lane + " != " + count, System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
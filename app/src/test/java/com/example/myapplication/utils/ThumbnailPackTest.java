@@ -0,0 +1,198 @@
+package com.example.myapplication.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * ThumbnailPack 테스트 클래스
+ */
+public class ThumbnailPackTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] data(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(ThumbnailPack pack, String key) throws IOException {
+        ByteBuffer buffer = pack.get(key);
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        try (ThumbnailPack pack = new ThumbnailPack(new File(folder.getRoot(), "thumbs.pack"))) {
+            pack.put("a@1#120", data("first"));
+            pack.put("b@1#120", data("second"));
+            assertEquals(2, pack.size());
+            assertEquals("first", read(pack, "a@1#120"));
+            assertEquals("second", read(pack, "b@1#120"));
+            assertNull(pack.get("c@1#120"));
+
+            // 같은 키는 새 데이터로 대체되고 이전 레코드는 회수 대상이 됨
+            pack.put("a@1#120", data("replaced"));
+            assertEquals(2, pack.size());
+            assertEquals("replaced", read(pack, "a@1#120"));
+            assertTrue(pack.getDeadBytes() > 0);
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        File file = new File(folder.getRoot(), "thumbs.pack");
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            for (int i = 0; i < 100; i++) {
+                pack.put("key" + i, data("value" + i));
+            }
+            pack.remove("key5");
+        }
+
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            assertEquals(99, pack.size());
+            assertNull(pack.get("key5"));
+            assertEquals("value42", read(pack, "key42"));
+            assertEquals("value99", read(pack, "key99"));
+        }
+    }
+
+    @Test
+    public void testRecoverWithoutIndex() throws IOException {
+        File file = new File(folder.getRoot(), "thumbs.pack");
+        ThumbnailPack pack = new ThumbnailPack(file);
+        pack.put("a", data("alpha"));
+        pack.put("b", data("beta"));
+        pack.flush();
+        // 색인 저장 이후에 추가된 레코드 (닫지 않고 종료된 경우)
+        pack.put("c", data("gamma"));
+
+        ThumbnailPack reopened = new ThumbnailPack(file);
+        assertEquals(3, reopened.size());
+        assertEquals("gamma", read(reopened, "c"));
+        reopened.close();
+
+        // 색인이 없어도 레코드를 훑어 복구
+        assertTrue(new File(file.getPath() + ".idx").delete());
+        reopened = new ThumbnailPack(file);
+        assertEquals(3, reopened.size());
+        assertEquals("alpha", read(reopened, "a"));
+        reopened.close();
+        pack.close();
+    }
+
+    @Test
+    public void testTruncatedTail() throws IOException {
+        File file = new File(folder.getRoot(), "thumbs.pack");
+        long validLength;
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            pack.put("a", data("alpha"));
+            pack.flush();
+            validLength = pack.getFileLength();
+            pack.put("b", data("a record that will be cut in half"));
+        }
+
+        // 마지막 레코드를 쓰다가 종료된 상황
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        assertTrue(new File(file.getPath() + ".idx").delete());
+
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            assertEquals(1, pack.size());
+            assertEquals("alpha", read(pack, "a"));
+            assertFalse(pack.contains("b"));
+            assertEquals(validLength, pack.getFileLength());
+
+            // 잘라 낸 뒤에도 이어서 추가 가능
+            pack.put("c", data("gamma"));
+            assertEquals("gamma", read(pack, "c"));
+        }
+    }
+
+    @Test
+    public void testCorruptIndex() throws IOException {
+        File file = new File(folder.getRoot(), "thumbs.pack");
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            pack.put("a", data("alpha"));
+            pack.put("b", data("beta"));
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(new File(file.getPath() + ".idx"), "rw")) {
+            raf.seek(20);
+            raf.write(0x7F);
+        }
+
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            assertEquals(2, pack.size());
+            assertEquals("beta", read(pack, "b"));
+        }
+    }
+
+    @Test
+    public void testRetainAndCompact() throws IOException {
+        File file = new File(folder.getRoot(), "thumbs.pack");
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            for (int i = 0; i < 10; i++) {
+                pack.put("img" + i + "#120", data("thumbnail-" + i));
+            }
+            // 지워진 이미지(홀수) 제거
+            assertEquals(5, pack.retain(key -> key.startsWith("img") && (key.charAt(3) - '0') % 2 == 0));
+            long before = pack.getFileLength();
+
+            assertEquals(0, pack.compact(Long.MAX_VALUE));
+            assertEquals(5, pack.size());
+            assertEquals(0, pack.getDeadBytes());
+            assertTrue(pack.getFileLength() < before);
+            assertEquals("thumbnail-4", read(pack, "img4#120"));
+            assertNull(pack.get("img3#120"));
+
+            // 용량을 넘으면 먼저 추가된 것부터 버림
+            long perRecord = pack.getLiveBytes() / 5;
+            assertEquals(2, pack.compact(perRecord * 3));
+            assertFalse(pack.contains("img0#120"));
+            assertFalse(pack.contains("img2#120"));
+            assertEquals("thumbnail-8", read(pack, "img8#120"));
+
+            pack.put("img10#120", data("thumbnail-10"));
+        }
+
+        try (ThumbnailPack pack = new ThumbnailPack(file)) {
+            assertEquals(4, pack.size());
+            assertEquals("thumbnail-6", read(pack, "img6#120"));
+            assertEquals("thumbnail-10", read(pack, "img10#120"));
+        }
+    }
+
+    @Test
+    public void testBufferValidAfterGrowth() throws IOException {
+        try (ThumbnailPack pack = new ThumbnailPack(new File(folder.getRoot(), "thumbs.pack"))) {
+            pack.put("a", data("alpha"));
+            ByteBuffer first = pack.get("a");
+
+            // 파일이 커져 다시 매핑되어도 앞서 받은 버퍼는 그대로 읽힌다
+            byte[] large = new byte[256 * 1024];
+            for (int i = 0; i < 8; i++) {
+                pack.put("large" + i, large);
+            }
+            assertEquals(large.length, pack.get("large7").remaining());
+
+            byte[] bytes = new byte[first.remaining()];
+            first.get(bytes);
+            assertEquals("alpha", new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
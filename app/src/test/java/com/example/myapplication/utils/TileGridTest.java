@@ -0,0 +1,129 @@
+package com.example.myapplication.utils;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * TileGrid 테스트 클래스
+ */
+public class TileGridTest {
+
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void testSampleSizeFor() {
+        assertEquals(1, TileGrid.sampleSizeFor(2f));
+        assertEquals(1, TileGrid.sampleSizeFor(1f));
+        assertEquals(1, TileGrid.sampleSizeFor(0.6f));
+        assertEquals(2, TileGrid.sampleSizeFor(0.5f));
+        assertEquals(2, TileGrid.sampleSizeFor(0.3f));
+        // 8000px 사진을 1080px 화면에 맞춘 배율
+        assertEquals(4, TileGrid.sampleSizeFor(1080f / 8000f));
+    }
+
+    @Test
+    public void testVisibleTiles() {
+        TileGrid grid = new TileGrid(2000, 1500, 0, 512);
+        assertEquals(4, grid.getColumnCount(1));
+        assertEquals(3, grid.getRowCount(1));
+
+        // 첫 타일 안쪽만 보이는 경우
+        List<TileGrid.Tile> tiles = grid.getVisibleTiles(10, 10, 500, 500, 1);
+        assertEquals(1, tiles.size());
+        assertEquals(0, tiles.get(0).getColumn());
+        assertEquals(0, tiles.get(0).getRow());
+
+        // 경계에 걸치면 양쪽 타일
+        tiles = grid.getVisibleTiles(500, 0, 600, 100, 1);
+        assertEquals(2, tiles.size());
+
+        // 마지막 타일은 이미지 끝에서 잘림
+        tiles = grid.getVisibleTiles(1900, 1400, 2000, 1500, 1);
+        assertEquals(1, tiles.size());
+        TileGrid.Tile last = tiles.get(0);
+        assertEquals(2000, last.getRight());
+        assertEquals(1500, last.getBottom());
+        assertEquals(2000 - 1536, last.getDecodedWidth());
+
+        // 이미지 밖은 없음
+        assertTrue(grid.getVisibleTiles(-300, -300, -1, -1, 1).isEmpty());
+    }
+
+    @Test
+    public void testWholeImageAtSample() {
+        TileGrid grid = new TileGrid(4000, 3000, 0, 512);
+        // 샘플 4 이면 한 칸이 원본 2048px 이라 2x2 칸으로 전체가 덮인다
+        List<TileGrid.Tile> tiles = grid.getVisibleTiles(0, 0, 4000, 3000, 4);
+        assertEquals(4, tiles.size());
+        for (TileGrid.Tile tile : tiles) {
+            assertTrue(tile.getDecodedWidth() <= 512);
+            assertTrue(tile.getDecodedHeight() <= 512);
+        }
+    }
+
+    @Test
+    public void testNeighbourTiles() {
+        TileGrid grid = new TileGrid(5120, 5120, 0, 512);
+        List<TileGrid.Tile> visible = grid.getVisibleTiles(1100, 1100, 1500, 1500, 1);
+        assertEquals(1, visible.size());
+
+        // 가운데 한 칸을 둘러싼 8칸
+        List<TileGrid.Tile> neighbours = grid.getNeighbourTiles(1100, 1100, 1500, 1500, 1);
+        assertEquals(8, neighbours.size());
+        Set<Long> keys = new HashSet<>();
+        for (TileGrid.Tile tile : neighbours) {
+            keys.add(tile.getKey());
+        }
+        assertEquals(8, keys.size());
+        assertFalse(keys.contains(visible.get(0).getKey()));
+
+        // 모서리에서는 이미지 안쪽 이웃만
+        assertEquals(3, grid.getNeighbourTiles(0, 0, 100, 100, 1).size());
+    }
+
+    @Test
+    public void testTileKeys() {
+        TileGrid grid = new TileGrid(8000, 8000, 0, 512);
+        Set<Long> keys = new HashSet<>();
+        for (int sampleSize = 1; sampleSize <= 8; sampleSize *= 2) {
+            for (TileGrid.Tile tile : grid.getVisibleTiles(0, 0, 8000, 8000, sampleSize)) {
+                assertTrue(keys.add(tile.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testRotation() {
+        for (int rotation = 0; rotation < 360; rotation += 90) {
+            TileGrid grid = new TileGrid(4000, 3000, rotation, 512);
+            float[] rect = {100, 200, 700, 900};
+            grid.toImageRect(rect);
+            grid.toDisplayRect(rect);
+            assertArrayEquals(new float[] {100, 200, 700, 900}, rect, DELTA);
+        }
+
+        // 90도: 표시 좌표의 왼쪽 위는 저장된 이미지의 왼쪽 아래
+        TileGrid grid = new TileGrid(4000, 3000, 90, 512);
+        assertEquals(3000, grid.getDisplayWidth());
+        assertEquals(4000, grid.getDisplayHeight());
+        float[] rect = {0, 0, 100, 50};
+        grid.toImageRect(rect);
+        assertArrayEquals(new float[] {0, 2900, 50, 3000}, rect, DELTA);
+
+        // 보이는 타일도 저장된 이미지의 아래쪽 행
+        List<TileGrid.Tile> tiles = grid.getVisibleTiles(0, 0, 100, 50, 1);
+        assertEquals(1, tiles.size());
+        assertEquals(0, tiles.get(0).getColumn());
+        assertEquals(grid.getRowCount(1) - 1, tiles.get(0).getRow());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new TileGrid(0, 100, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.myapplication.utils;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * TimelineIndex 테스트 클래스
+ */
+public class TimelineIndexTest {
+
+    private static final TimeZone SEOUL = TimeZone.getTimeZone("Asia/Seoul");
+
+    private static long date(int year, int month, int day, int hour) {
+        Calendar calendar = Calendar.getInstance(SEOUL);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 목록 순서(최신 순): 2024-03-02 x2, 2024-03-01, 2024-01-15, 2023-12-31 x2, 날짜 없음
+     */
+    private static TimelineIndex sample() {
+        TimelineIndex index = new TimelineIndex(SEOUL);
+        index.put(1, date(2023, 12, 31, 9));
+        index.put(2, date(2024, 3, 2, 18));
+        index.put(3, date(2024, 1, 15, 12));
+        index.put(4, 0);
+        index.put(5, date(2024, 3, 1, 8));
+        index.put(6, date(2023, 12, 31, 23));
+        index.put(7, date(2024, 3, 2, 7));
+        return index;
+    }
+
+    private static void assertSection(TimelineIndex.Section section, long start, int position, int count) {
+        assertEquals(start, section.getStart());
+        assertEquals(position, section.getPosition());
+        assertEquals(count, section.getCount());
+    }
+
+    @Test
+    public void testSections() {
+        TimelineIndex index = sample();
+        assertEquals(7, index.size());
+
+        List<TimelineIndex.Section> days = index.getSections(TimelineIndex.Granularity.DAY);
+        assertEquals(5, days.size());
+        assertSection(days.get(0), date(2024, 3, 2, 0), 0, 2);
+        assertSection(days.get(1), date(2024, 3, 1, 0), 2, 1);
+        assertSection(days.get(2), date(2024, 1, 15, 0), 3, 1);
+        assertSection(days.get(3), date(2023, 12, 31, 0), 4, 2);
+        assertTrue(days.get(4).isUndated());
+        assertSection(days.get(4), 0, 6, 1);
+
+        List<TimelineIndex.Section> months = index.getSections(TimelineIndex.Granularity.MONTH);
+        assertEquals(4, months.size());
+        assertSection(months.get(0), date(2024, 3, 1, 0), 0, 3);
+        assertSection(months.get(1), date(2024, 1, 1, 0), 3, 1);
+        assertSection(months.get(2), date(2023, 12, 1, 0), 4, 2);
+
+        List<TimelineIndex.Section> years = index.getSections(TimelineIndex.Granularity.YEAR);
+        assertEquals(3, years.size());
+        assertSection(years.get(0), date(2024, 1, 1, 0), 0, 4);
+        assertSection(years.get(1), date(2023, 1, 1, 0), 4, 2);
+    }
+
+    @Test
+    public void testSectionAt() {
+        TimelineIndex index = sample();
+        assertEquals(date(2024, 3, 1, 0), index.sectionAt(0, TimelineIndex.Granularity.MONTH).getStart());
+        assertEquals(date(2024, 3, 1, 0), index.sectionAt(2, TimelineIndex.Granularity.MONTH).getStart());
+        assertEquals(date(2024, 1, 1, 0), index.sectionAt(3, TimelineIndex.Granularity.MONTH).getStart());
+        assertEquals(date(2023, 12, 1, 0), index.sectionAt(5, TimelineIndex.Granularity.MONTH).getStart());
+        assertTrue(index.sectionAt(6, TimelineIndex.Granularity.MONTH).isUndated());
+        assertNull(index.sectionAt(7, TimelineIndex.Granularity.MONTH));
+        assertNull(index.sectionAt(-1, TimelineIndex.Granularity.DAY));
+    }
+
+    @Test
+    public void testPositionOf() {
+        TimelineIndex index = sample();
+        // 그 날의 첫 이미지
+        assertEquals(0, index.positionOf(date(2024, 3, 2, 23)));
+        assertEquals(2, index.positionOf(date(2024, 3, 1, 0)));
+        // 이미지가 없는 날은 그 이전의 첫 이미지
+        assertEquals(3, index.positionOf(date(2024, 2, 10, 12)));
+        assertEquals(0, index.positionOf(date(2025, 1, 1, 0)));
+        // 가장 오래된 날보다 이전이면 날짜 없는 구간
+        assertEquals(6, index.positionOf(date(2020, 1, 1, 0)));
+    }
+
+    @Test
+    public void testCountBetween() {
+        TimelineIndex index = sample();
+        assertEquals(3, index.countBetween(date(2024, 3, 1, 0), date(2024, 3, 31, 0)));
+        assertEquals(4, index.countBetween(date(2024, 1, 1, 0), date(2024, 12, 31, 0)));
+        // 양 끝 날짜 포함, 순서 무관
+        assertEquals(4, index.countBetween(date(2024, 3, 1, 23), date(2023, 12, 31, 23)));
+        assertEquals(0, index.countBetween(date(2024, 2, 1, 0), date(2024, 2, 29, 0)));
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        TimelineIndex index = sample();
+
+        // 촬영 날짜가 바뀌면 이전 버킷에서 빠짐
+        index.put(3, date(2024, 3, 2, 10));
+        List<TimelineIndex.Section> months = index.getSections(TimelineIndex.Granularity.MONTH);
+        assertEquals(3, months.size());
+        assertSection(months.get(0), date(2024, 3, 1, 0), 0, 4);
+        assertSection(months.get(1), date(2023, 12, 1, 0), 4, 2);
+
+        index.remove(4);
+        index.remove(1);
+        index.remove(99);
+        months = index.getSections(TimelineIndex.Granularity.MONTH);
+        assertEquals(2, months.size());
+        assertSection(months.get(1), date(2023, 12, 1, 0), 4, 1);
+        assertEquals(5, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.getSections(TimelineIndex.Granularity.DAY).isEmpty());
+        assertEquals(0, index.positionOf(date(2024, 1, 1, 0)));
+    }
+}